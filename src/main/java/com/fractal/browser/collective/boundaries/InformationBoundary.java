@@ -1,8 +1,16 @@
 package com.fractal.browser.collective.boundaries;
 
+import java.util.BitSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.Locale;
 import java.text.MessageFormat;
 import java.util.ResourceBundle;
@@ -15,11 +23,33 @@ import java.util.ResourceBundle;
  * 
  * It serves as a recursive boundary system, operating at multiple scales to ensure
  * appropriate information sharing while maintaining system integrity.
+ * 
+ * Information with an explicit sensitivity, or registered by an index, is assigned a
+ * dense integer code, and a bitmap per access level holds the codes visible at that
+ * level. Bulk queries filter many items with one bitmap lookup per item, or a single
+ * AND for callers holding codes.
+ * 
+ * Indexes assign and release codes without the visibility lock, and released codes are
+ * reused. A code without an explicit sensitivity is only visible at the highest level,
+ * which admits every code, so such codes never touch the bitmaps.
  */
 public class InformationBoundary {
     
     private final Map<String, Integer> contextualAccessLevels;
     private final Map<String, Double> informationSensitivityMap;
+    private final List<SensitivityListener> sensitivityListeners;
+    
+    // Dense codes for information IDs with an explicit sensitivity or held by an index
+    private final Map<String, InformationCode> informationCodes;
+    private final Map<Integer, String> informationIdsByCode;
+    private final AtomicInteger nextCode = new AtomicInteger();
+    private final Queue<Integer> releasedCodes = new ConcurrentLinkedQueue<>();
+    
+    // visibleAtLevel[a] holds the codes whose required access level is at most a
+    private final BitSet[] visibleAtLevel;
+    private final ReadWriteLock visibilityLock;
+    
+    private static final int MAX_ACCESS_LEVEL = 10;
     private final ResourceBundle messages;
     private final Locale locale;
     
@@ -38,6 +68,14 @@ public class InformationBoundary {
     public InformationBoundary(Locale locale) {
         this.contextualAccessLevels = new ConcurrentHashMap<>();
         this.informationSensitivityMap = new ConcurrentHashMap<>();
+        this.sensitivityListeners = new CopyOnWriteArrayList<>();
+        this.informationCodes = new ConcurrentHashMap<>();
+        this.informationIdsByCode = new ConcurrentHashMap<>();
+        this.visibleAtLevel = new BitSet[MAX_ACCESS_LEVEL + 1];
+        for (int level = 0; level <= MAX_ACCESS_LEVEL; level++) {
+            visibleAtLevel[level] = new BitSet();
+        }
+        this.visibilityLock = new ReentrantReadWriteLock();
         this.locale = locale;
         this.messages = ResourceBundle.getBundle("InformationBoundary", locale);
     }
@@ -80,33 +118,263 @@ public class InformationBoundary {
             return false;
         }
         
-        informationSensitivityMap.put(informationId, sensitivityLevel);
+        visibilityLock.writeLock().lock();
+        try {
+            Double previous = informationSensitivityMap.put(informationId, sensitivityLevel);
+            InformationCode entry = informationCodes.compute(informationId, (id, current) -> {
+                InformationCode updated = current != null ? current : newCode(id);
+                updated.explicit = true;
+                return updated;
+            });
+            updateVisibility(entry.code, previous == null,
+                    requiredAccessLevel(previous), requiredAccessLevel(sensitivityLevel));
+        } finally {
+            visibilityLock.writeLock().unlock();
+        }
+        
+        // Notify after the update so listeners observe the new level
+        for (SensitivityListener listener : sensitivityListeners) {
+            listener.onSensitivityChanged(informationId, sensitivityLevel);
+        }
         return true;
     }
     
     /**
-     * Evaluates whether information can pass through the boundary in the given context.
+     * Registers a listener to be notified whenever a sensitivity level is set.
+     *
+     * @param listener The listener to add
+     */
+    public void addSensitivityListener(SensitivityListener listener) {
+        if (listener != null) {
+            sensitivityListeners.add(listener);
+        }
+    }
+    
+    /**
+     * Removes a previously registered sensitivity listener.
+     *
+     * @param listener The listener to remove
+     */
+    public void removeSensitivityListener(SensitivityListener listener) {
+        sensitivityListeners.remove(listener);
+    }
+    
+    /**
+     * Gets the access level of a context, 0 if the context is not registered.
+     *
+     * @param contextId The context to look up
+     * @return The access level (0-10)
+     */
+    public int getAccessLevel(String contextId) {
+        Integer accessLevel = contextualAccessLevels.get(contextId);
+        return accessLevel != null ? accessLevel : 0;
+    }
+    
+    /**
+     * Gets the access level required to receive a piece of information. Information
+     * without an explicit sensitivity is treated as maximally sensitive.
      *
      * @param informationId The unique identifier for the information
+     * @return The required access level (0-10)
+     */
+    public int getRequiredAccessLevel(String informationId) {
+        return requiredAccessLevel(informationSensitivityMap.get(informationId));
+    }
+    
+    private static int requiredAccessLevel(Double sensitivityLevel) {
+        if (sensitivityLevel == null) {
+            sensitivityLevel = 1.0;
+        }
+        
+        return (int) Math.ceil(sensitivityLevel * 10);
+    }
+    
+    /**
+     * Moves an information code between the level bitmaps. Must hold the write lock.
+     */
+    private void updateVisibility(int code, boolean first, int previousLevel, int newLevel) {
+        if (first) {
+            // Everything with a sensitivity is visible at the highest level
+            visibleAtLevel[MAX_ACCESS_LEVEL].set(code);
+        }
+        
+        // Levels in [newLevel, previousLevel) gain the code; [previousLevel, newLevel) lose it
+        for (int level = newLevel; level < previousLevel; level++) {
+            visibleAtLevel[level].set(code);
+        }
+        for (int level = previousLevel; level < newLevel; level++) {
+            visibleAtLevel[level].clear(code);
+        }
+    }
+    
+    /**
+     * Takes a released code, or the next unused one, and records its information ID.
+     */
+    private InformationCode newCode(String informationId) {
+        Integer released = releasedCodes.poll();
+        int code = released != null ? released : nextCode.getAndIncrement();
+        
+        informationIdsByCode.put(code, informationId);
+        return new InformationCode(code);
+    }
+    
+    /**
+     * Gets the dense code of a piece of information for an index, assigning one if it has
+     * none yet. Every call holds a reference to the code until a matching
+     * {@link #releaseInformationCode}. Until its sensitivity is set, the information is
+     * treated as maximally sensitive. Indexes store these codes so their queries can be
+     * filtered with a single AND. Takes no lock shared with other information.
+     *
+     * @param informationId The unique identifier for the information
+     * @return The code
+     */
+    public int assignInformationCode(String informationId) {
+        return informationCodes.compute(informationId, (id, current) -> {
+            InformationCode entry = current != null ? current : newCode(id);
+            entry.references++;
+            return entry;
+        }).code;
+    }
+    
+    /**
+     * Drops a reference taken by {@link #assignInformationCode}. Once no index holds the
+     * code and the information has no explicit sensitivity, the code is released for reuse.
+     *
+     * @param informationId The unique identifier for the information
+     */
+    public void releaseInformationCode(String informationId) {
+        informationCodes.computeIfPresent(informationId, (id, current) -> {
+            if (current.references > 0) {
+                current.references--;
+            }
+            if (current.references > 0 || current.explicit) {
+                return current;
+            }
+            informationIdsByCode.remove(current.code);
+            releasedCodes.add(current.code);
+            return null;
+        });
+    }
+    
+    /**
+     * Gets the dense code of a piece of information, assigned when its sensitivity is
+     * first set or by {@link #assignInformationCode}. A code is stable while the
+     * information has a sensitivity or an index holds it.
+     *
+     * @param informationId The unique identifier for the information
+     * @return The code, or -1 if no code has been assigned to the information
+     */
+    public int getInformationCode(String informationId) {
+        InformationCode entry = informationCodes.get(informationId);
+        return entry != null ? entry.code : -1;
+    }
+    
+    /**
+     * Gets the information ID for a code returned by {@link #getInformationCode}.
+     *
+     * @param code The information code
+     * @return The information ID, or null if the code is not assigned
+     */
+    public String getInformationId(int code) {
+        return informationIdsByCode.get(code);
+    }
+    
+    /**
+     * Gets the number of codes currently assigned.
+     *
+     * @return The number of assigned codes
+     */
+    public int getInformationCodeCount() {
+        return informationCodes.size();
+    }
+    
+    /**
+     * Gets the codes of all information with an explicit sensitivity that can pass
+     * into the given context.
+     *
      * @param contextId The context in which the information is being accessed
-     * @return true if information can pass, false otherwise
+     * @return A new bitmap of visible information codes
      */
-    public boolean canInformationPass(String informationId, String contextId) {
-        // Get values atomically
-        Integer accessLevel = contextualAccessLevels.get(contextId);
-        if (accessLevel == null) {
-            accessLevel = 0;
+    public BitSet getVisibleInformation(String contextId) {
+        int accessLevel = Math.min(getAccessLevel(contextId), MAX_ACCESS_LEVEL);
+        
+        visibilityLock.readLock().lock();
+        try {
+            return (BitSet) visibleAtLevel[accessLevel].clone();
+        } finally {
+            visibilityLock.readLock().unlock();
         }
+    }
+    
+    /**
+     * Filters a bitmap of information codes down to those that can pass into the
+     * given context with a single bitmap AND.
+     *
+     * @param informationCodes The candidate information codes
+     * @param contextId The context in which the information is being accessed
+     * @return A new bitmap of the candidate codes that can pass
+     */
+    public BitSet filterVisible(BitSet informationCodes, String contextId) {
+        int accessLevel = Math.min(getAccessLevel(contextId), MAX_ACCESS_LEVEL);
+        BitSet result = (BitSet) informationCodes.clone();
         
-        Double sensitivityLevel = informationSensitivityMap.get(informationId);
-        if (sensitivityLevel == null) {
-            sensitivityLevel = 1.0;
+        // The highest level sees every code, with or without a sensitivity
+        if (accessLevel == MAX_ACCESS_LEVEL) {
+            return result;
         }
         
-        // Calculate the required access level based on sensitivity
-        int requiredAccessLevel = (int) Math.ceil(sensitivityLevel * 10);
+        visibilityLock.readLock().lock();
+        try {
+            result.and(visibleAtLevel[accessLevel]);
+        } finally {
+            visibilityLock.readLock().unlock();
+        }
+        return result;
+    }
+    
+    /**
+     * Evaluates a batch of information IDs against the boundary in one pass, resolving
+     * the context's access level once.
+     *
+     * @param informationIds The information IDs to evaluate
+     * @param contextId The context in which the information is being accessed
+     * @return A bitmap with bit i set if informationIds.get(i) can pass
+     */
+    public BitSet filterVisible(List<String> informationIds, String contextId) {
+        int size = informationIds.size();
+        BitSet result = new BitSet(size);
+        int accessLevel = getAccessLevel(contextId);
         
-        return accessLevel >= requiredAccessLevel;
+        // The highest level sees everything, including information without a sensitivity
+        if (accessLevel >= MAX_ACCESS_LEVEL) {
+            result.set(0, size);
+            return result;
+        }
+        
+        visibilityLock.readLock().lock();
+        try {
+            BitSet visible = visibleAtLevel[Math.max(accessLevel, 0)];
+            for (int i = 0; i < size; i++) {
+                InformationCode entry = informationCodes.get(informationIds.get(i));
+                if (entry != null && visible.get(entry.code)) {
+                    result.set(i);
+                }
+            }
+        } finally {
+            visibilityLock.readLock().unlock();
+        }
+        return result;
+    }
+    
+    /**
+     * Evaluates whether information can pass through the boundary in the given context.
+     *
+     * @param informationId The unique identifier for the information
+     * @param contextId The context in which the information is being accessed
+     * @return true if information can pass, false otherwise
+     */
+    public boolean canInformationPass(String informationId, String contextId) {
+        return getAccessLevel(contextId) >= getRequiredAccessLevel(informationId);
     }
     
     /**
@@ -189,26 +457,45 @@ public class InformationBoundary {
         Optional<Double> trustScore = trustManager.getTrustScore(contextId);
         
         if (trustScore.isPresent()) {
-            // Adjust access level based on trust score (0.0-1.0)
-            int newAccessLevel = (int) Math.round(trustScore.get() * 10);
-            // Ensure valid range
-            newAccessLevel = Math.max(0, Math.min(10, newAccessLevel));
-            
-            // Update atomically
-            contextualAccessLevels.put(contextId, newAccessLevel);
+            applyTrustScore(contextId, trustScore.get());
             return true;
         }
         
         return false;
     }
+    
+    /**
+     * Sets a context's access level from its trust score. Visibility is derived from
+     * the access level on every query, so nothing cached for the context outlives this.
+     *
+     * @param contextId The context to update
+     * @param trustScore The context's trust score (0.0-1.0)
+     */
+    void applyTrustScore(String contextId, double trustScore) {
+        contextualAccessLevels.put(contextId, accessLevelForTrust(trustScore));
+    }
+    
+    /**
+     * Converts a trust score (0.0-1.0) to an access level (0-10).
+     */
+    static int accessLevelForTrust(double trustScore) {
+        int accessLevel = (int) Math.round(trustScore * 10);
+        return Math.max(0, Math.min(MAX_ACCESS_LEVEL, accessLevel));
+    }
+    
+    /**
+     * A code and who holds it. The mutable fields are only accessed inside the
+     * per-key compute calls of the code map.
+     */
+    private static final class InformationCode {
+        final int code;
+        // Index references taken by assignInformationCode
+        int references;
+        // Whether the information has an explicit sensitivity, which keeps the code
+        boolean explicit;
+        
+        InformationCode(int code) {
+            this.code = code;
+        }
+    }
 }
-
-
-
-
-
-
-
-
-
-
@@ -1,14 +1,22 @@
 package com.fractal.browser.collective.boundaries;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.Locale;
 import java.util.ResourceBundle;
 import java.text.MessageFormat;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 
 /**
  * PrivacyFilter implements mechanisms to filter and protect sensitive information
@@ -18,9 +26,15 @@ import java.util.regex.Matcher;
  * 
  * This class works in conjunction with other boundary mechanisms to create a 
  * multi-layered approach to privacy protection.
+ * 
+ * Patterns and terms are compiled into a {@link RedactionEngine} that redacts in a
+ * single pass. The engine is rebuilt lazily, only after the rules change. Large
+ * documents can be filtered as streams in bounded memory, and results for repeated
+ * content can be served from an opt-in {@link RedactionCache}.
  */
 public class PrivacyFilter {
     
+    // Patterns in insertion order, which is also their redaction priority; guarded by itself
     private final Map<String, Pattern> sensitivePatterns;
     private final Set<String> sensitiveTerms;
     private volatile boolean strictFilteringEnabled;
@@ -28,6 +42,19 @@ public class PrivacyFilter {
     private final ResourceBundle messages;
     private final Locale locale;
     
+    // Compiled rules, cleared whenever patterns or terms change
+    private volatile RedactionEngine engine;
+    
+    // Incremented after every change that affects filtering output; keys cached results
+    private final AtomicLong rulesVersion = new AtomicLong();
+    private volatile RedactionCache resultCache;
+    
+    // Longest pattern match assumed when streaming; terms are bounded by their length
+    private static final int MAX_STREAMED_MATCH_LENGTH = 1024;
+    
+    // Characters per chunk in parallel filtering; smaller content is filtered sequentially
+    private static final int PARALLEL_CHUNK_SIZE = 64 * 1024;
+    
     /**
      * Creates a new PrivacyFilter with default settings (medium privacy level).
      */
@@ -60,7 +87,7 @@ public class PrivacyFilter {
      * @param locale The locale to use for internationalization
      */
     public PrivacyFilter(int privacyLevel, Locale locale) {
-        this.sensitivePatterns = new ConcurrentHashMap<>();
+        this.sensitivePatterns = Collections.synchronizedMap(new LinkedHashMap<>());
         this.sensitiveTerms = new ConcurrentSkipListSet<>(String.CASE_INSENSITIVE_ORDER);
         this.strictFilteringEnabled = false;
         this.privacyLevel = Math.max(1, Math.min(5, privacyLevel));
@@ -97,17 +124,25 @@ public class PrivacyFilter {
      * @return true if successfully added, false if the name already exists
      */
     public boolean addSensitivePattern(String patternName, String pattern) {
-        if (sensitivePatterns.containsKey(patternName)) {
+        if (patternName == null || pattern == null) {
             return false;
         }
         
+        Pattern compiledPattern;
         try {
-            Pattern compiledPattern = Pattern.compile(pattern);
-            sensitivePatterns.put(patternName, compiledPattern);
-            return true;
+            compiledPattern = Pattern.compile(pattern);
         } catch (Exception e) {
             return false;
         }
+        
+        synchronized (sensitivePatterns) {
+            if (sensitivePatterns.putIfAbsent(patternName, compiledPattern) != null) {
+                return false;
+            }
+            engine = null;
+            rulesVersion.incrementAndGet();
+        }
+        return true;
     }
     
     /**
@@ -120,7 +155,15 @@ public class PrivacyFilter {
         if (term == null || term.isEmpty()) {
             return false;
         }
-        return sensitiveTerms.add(term.toLowerCase(locale));
+        
+        synchronized (sensitivePatterns) {
+            if (!sensitiveTerms.add(term.toLowerCase(locale))) {
+                return false;
+            }
+            engine = null;
+            rulesVersion.incrementAndGet();
+        }
+        return true;
     }
     
     /**
@@ -130,6 +173,7 @@ public class PrivacyFilter {
      */
     public void setPrivacyLevel(int level) {
         this.privacyLevel = Math.max(1, Math.min(5, level));
+        rulesVersion.incrementAndGet();
     }
     
     /**
@@ -140,6 +184,34 @@ public class PrivacyFilter {
      */
     public void setStrictFiltering(boolean enabled) {
         this.strictFilteringEnabled = enabled;
+        rulesVersion.incrementAndGet();
+    }
+    
+    /**
+     * Enables caching of filtering results, replacing any existing cache. Repeated
+     * content is then redacted once per rules version.
+     * 
+     * @param maxEntries The maximum number of cached results
+     * @throws IllegalArgumentException If maxEntries is not positive
+     */
+    public void enableResultCache(int maxEntries) {
+        this.resultCache = new RedactionCache(maxEntries);
+    }
+    
+    /**
+     * Disables caching of filtering results and discards the cache.
+     */
+    public void disableResultCache() {
+        this.resultCache = null;
+    }
+    
+    /**
+     * Gets the result cache, for its size and hit and miss counts.
+     * 
+     * @return The result cache, or empty if caching is disabled
+     */
+    public Optional<RedactionCache> getResultCache() {
+        return Optional.ofNullable(resultCache);
     }
     
     /**
@@ -153,38 +225,134 @@ public class PrivacyFilter {
             return content;
         }
         
-        String result = content;
+        RedactionCache cache = resultCache;
+        if (cache != null) {
+            // The version is read before the rules, so a result is never cached under
+            // a version newer than the rules that produced it
+            return cache.get(content, rulesVersion.get(), this::redact);
+        }
+        return redact(content);
+    }
+    
+    private String redact(String content) {
+        int level = privacyLevel;
         
-        // Apply pattern-based filtering
-        for (Map.Entry<String, Pattern> entry : sensitivePatterns.entrySet()) {
-            Pattern pattern = entry.getValue();
-            if (pattern != null) {
-                Matcher matcher = pattern.matcher(result);
-                result = matcher.replaceAll(messages.getString("redacted." + entry.getKey()));
-            }
+        // Patterns always apply; terms from privacy level 3, and numeric sequences
+        // that might be sensitive from level 4 in strict mode
+        return engine().redact(content, level >= 3, level >= 4 && strictFilteringEnabled);
+    }
+    
+    /**
+     * Filters the input content based on privacy rules, scanning chunks of large
+     * content in parallel on the common ForkJoin pool.
+     * 
+     * @param content The content to filter
+     * @return The filtered content, identical to {@link #filterContent(String)}
+     */
+    public String filterContentParallel(String content) {
+        return filterContentParallel(content, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Filters the input content based on privacy rules, scanning chunks of large
+     * content in parallel on the given pool. Chunks are scanned with windows that
+     * overlap the next chunk by the longest possible match and stitched back in
+     * order, so the output is identical to sequential filtering provided no pattern
+     * match is longer than 1024 characters.
+     * 
+     * @param content The content to filter
+     * @param pool The pool that scans the chunks
+     * @return The filtered content, identical to {@link #filterContent(String)}
+     */
+    public String filterContentParallel(String content, ForkJoinPool pool) {
+        return filterContentParallel(content, pool, PARALLEL_CHUNK_SIZE);
+    }
+    
+    String filterContentParallel(String content, ForkJoinPool pool, int chunkSize) {
+        if (content == null || content.length() < 2 * chunkSize) {
+            return filterContent(content);
         }
         
-        // Apply term-based filtering if privacy level is high enough
-        if (privacyLevel >= 3) {
-            // Create a copy of the terms to avoid concurrent modification
-            for (String term : sensitiveTerms.toArray(new String[0])) {
-                if (term != null) {
-                    // Case insensitive replace using the current locale
-                    String pattern = "(?i)" + Pattern.quote(term);
-                    result = result.replaceAll(pattern, messages.getString("redacted.term"));
-                }
-            }
+        int level = privacyLevel;
+        return engine().redactParallel(content, level >= 3, level >= 4 && strictFilteringEnabled, pool, chunkSize);
+    }
+    
+    /**
+     * Filters a character stream based on privacy rules, producing the same output as
+     * {@link #filterContent(String)} in bounded memory. Matches that straddle chunk
+     * boundaries are redacted as a whole, provided no pattern match is longer than
+     * 1024 characters. The writer is flushed but not closed.
+     * 
+     * @param in The content to filter
+     * @param out The writer receiving the filtered content
+     * @throws IOException If reading or writing fails
+     */
+    public void filterContent(Reader in, Writer out) throws IOException {
+        newRedactingWriter(out).transferFrom(in);
+    }
+    
+    /**
+     * Filters a character stream with this filter's privacy rules followed by the
+     * container's safety measures, in a single streaming pipeline.
+     * 
+     * @param in The content to filter
+     * @param out The writer receiving the filtered content
+     * @param container The SafetyContainer whose measures are applied after redaction
+     * @throws IOException If reading or writing fails
+     */
+    public void filterContent(Reader in, Writer out, SafetyContainer container) throws IOException {
+        Writer downstream = container != null ? container.safetyWriter(out) : out;
+        newRedactingWriter(downstream).transferFrom(in);
+    }
+    
+    /**
+     * Creates a writer that redacts everything written to it before passing it on.
+     * The rules and privacy level in effect now apply for the writer's lifetime.
+     * Closing the returned writer writes the held-back tail and closes out.
+     * 
+     * @param out The writer receiving the filtered content
+     * @return A redacting writer
+     */
+    public Writer redactingWriter(Writer out) {
+        return newRedactingWriter(out);
+    }
+    
+    private RedactingWriter newRedactingWriter(Writer out) {
+        int level = privacyLevel;
+        return new RedactingWriter(out, engine(), level >= 3, level >= 4 && strictFilteringEnabled,
+                StreamingTransformWriter.DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * Gets the compiled rules, rebuilding them if patterns or terms changed.
+     */
+    private RedactionEngine engine() {
+        RedactionEngine current = engine;
+        if (current != null) {
+            return current;
         }
         
-        // Apply stricter filtering based on privacy level
-        if (privacyLevel >= 4) {
-            // For high privacy levels, redact numeric sequences that might be sensitive
-            if (strictFilteringEnabled) {
-                result = result.replaceAll("\\b\\d{4,}\\b", messages.getString("redacted.number"));
+        synchronized (sensitivePatterns) {
+            if (engine == null) {
+                List<Pattern> patterns = new ArrayList<>(sensitivePatterns.size());
+                List<String> replacements = new ArrayList<>(sensitivePatterns.size());
+                for (Map.Entry<String, Pattern> entry : sensitivePatterns.entrySet()) {
+                    patterns.add(entry.getValue());
+                    replacements.add(redactionMessage("redacted." + entry.getKey()));
+                }
+                engine = new RedactionEngine(patterns, replacements, sensitiveTerms,
+                        messages.getString("redacted.term"), messages.getString("redacted.number"),
+                        MAX_STREAMED_MATCH_LENGTH);
             }
+            return engine;
         }
-        
-        return result;
+    }
+    
+    /**
+     * Gets a redaction message, using the term message for custom patterns without one.
+     */
+    private String redactionMessage(String key) {
+        return messages.containsKey(key) ? messages.getString(key) : messages.getString("redacted.term");
     }
     
     /**
@@ -198,24 +366,9 @@ public class PrivacyFilter {
             return false;
         }
         
-        // Check patterns
-        for (Pattern pattern : sensitivePatterns.values()) {
-            if (pattern != null && pattern.matcher(content).find()) {
-                return true;
-            }
-        }
-        
-        // Convert content to lowercase using the current locale for comparison
-        String lowerContent = content.toLowerCase(locale);
-        
-        // Check terms using a snapshot to avoid concurrent modification
-        for (String term : sensitiveTerms.toArray(new String[0])) {
-            if (term != null && lowerContent.contains(term.toLowerCase(locale))) {
-                return true;
-            }
-        }
-        
-        return false;
+        // Terms are found case-insensitively in one scan, then patterns are checked
+        RedactionEngine current = engine();
+        return current.anyTermMatches(content) || current.anyPatternMatches(content);
     }
     
     /**
@@ -244,16 +397,12 @@ public class PrivacyFilter {
             this.locale);
         
         // Copy all patterns and terms from this filter atomically
-        for (Map.Entry<String, Pattern> entry : this.sensitivePatterns.entrySet()) {
-            if (entry.getKey() != null && entry.getValue() != null) {
-                compositeFilter.sensitivePatterns.put(entry.getKey(), entry.getValue());
-            }
-        }
-        
-        // Add all terms atomically
-        for (String term : this.sensitiveTerms.toArray(new String[0])) {
-            if (term != null) {
-                compositeFilter.sensitiveTerms.add(term);
+        synchronized (this.sensitivePatterns) {
+            synchronized (compositeFilter.sensitivePatterns) {
+                compositeFilter.sensitivePatterns.putAll(this.sensitivePatterns);
+                compositeFilter.sensitiveTerms.addAll(this.sensitiveTerms);
+                compositeFilter.engine = null;
+                compositeFilter.rulesVersion.incrementAndGet();
             }
         }
         
@@ -267,9 +416,3 @@ public class PrivacyFilter {
         return compositeFilter;
     }
 }
-
-
-
-
-
-
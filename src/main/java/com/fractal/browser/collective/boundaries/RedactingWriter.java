@@ -0,0 +1,34 @@
+package com.fractal.browser.collective.boundaries;
+
+import java.io.Writer;
+
+/**
+ * Streaming stage that applies a {@link RedactionEngine}, holding back the engine's
+ * lookahead so matches straddling chunk boundaries are redacted as a whole.
+ */
+final class RedactingWriter extends StreamingTransformWriter {
+
+    // Enough for word boundaries and short lookbehinds in custom patterns
+    private static final int LEFT_CONTEXT = 64;
+
+    private final RedactionEngine engine;
+    private final boolean redactTerms;
+    private final boolean redactNumbers;
+
+    RedactingWriter(Writer out, RedactionEngine engine, boolean redactTerms, boolean redactNumbers, int chunkSize) {
+        super(out, chunkSize, LEFT_CONTEXT);
+        this.engine = engine;
+        this.redactTerms = redactTerms;
+        this.redactNumbers = redactNumbers;
+    }
+
+    @Override
+    int transform(CharSequence text, int from, boolean endOfInput, StringBuilder out) {
+        return engine.redact(text, from, endOfInput, out, redactTerms, redactNumbers);
+    }
+
+    @Override
+    int lookahead() {
+        return engine.lookahead();
+    }
+}
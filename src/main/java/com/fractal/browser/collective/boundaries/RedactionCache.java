@@ -0,0 +1,169 @@
+package com.fractal.browser.collective.boundaries;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * RedactionCache is a bounded, least-recently-used cache of filtering results for
+ * {@link PrivacyFilter} and {@link SafetyContainer}. Entries are keyed by the SHA-256
+ * hash of the content together with the owner's rules version, which the owner
+ * increments on every change that can affect its output. Results computed under
+ * older rules can never be returned once the version has moved on; they are simply
+ * evicted as newer entries arrive.
+ *
+ * Instances are safe to share between threads.
+ */
+public final class RedactionCache {
+
+    private final int maxEntries;
+    private final LinkedHashMap<Key, String> entries;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a cache holding at most maxEntries results.
+     *
+     * @param maxEntries The maximum number of cached results
+     * @throws IllegalArgumentException If maxEntries is not positive
+     */
+    RedactionCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                return size() > RedactionCache.this.maxEntries;
+            }
+        };
+    }
+
+    private static final class Key {
+        final byte[] hash;
+        final long version;
+        final int hashCode;
+
+        Key(byte[] hash, long version) {
+            this.hash = hash;
+            this.version = version;
+            this.hashCode = 31 * Arrays.hashCode(hash) + Long.hashCode(version);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return version == other.version && Arrays.equals(hash, other.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Gets the cached result for the content under the given rules version, computing
+     * and caching it on a miss. The computation runs outside the cache's lock.
+     *
+     * @param content The content to filter
+     * @param version The owner's rules version, read before the rules themselves
+     * @param filter Computes the result on a miss
+     * @return The filtered content
+     */
+    String get(String content, long version, UnaryOperator<String> filter) {
+        Key key = new Key(sha256(content), version);
+        synchronized (entries) {
+            String cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        String result = filter.apply(content);
+        synchronized (entries) {
+            entries.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of lookups served from the cache.
+     */
+    public long getHitCount() {
+        synchronized (entries) {
+            return hits;
+        }
+    }
+
+    /**
+     * Gets the number of lookups that had to compute their result.
+     */
+    public long getMissCount() {
+        synchronized (entries) {
+            return misses;
+        }
+    }
+
+    /**
+     * Gets the number of cached results.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Gets the maximum number of cached results.
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Removes all cached results. The hit and miss counters are kept.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Hashes the UTF-16 code units directly; a charset encoding would map unpaired
+     * surrogates to the same replacement byte and let distinct contents collide.
+     */
+    private static byte[] sha256(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] chunk = new byte[Math.min(8192, content.length() * 2)];
+            for (int i = 0; i < content.length(); ) {
+                int count = Math.min(chunk.length / 2, content.length() - i);
+                for (int j = 0; j < count; j++) {
+                    char c = content.charAt(i + j);
+                    chunk[2 * j] = (byte) (c >>> 8);
+                    chunk[2 * j + 1] = (byte) c;
+                }
+                digest.update(chunk, 0, count * 2);
+                i += count;
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
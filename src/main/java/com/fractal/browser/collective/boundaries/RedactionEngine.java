@@ -0,0 +1,417 @@
+package com.fractal.browser.collective.boundaries;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * RedactionEngine is the compiled form of a {@link PrivacyFilter}'s rules. Sensitive
+ * terms are built into a {@link TermAutomaton}, and the regex patterns are compiled
+ * once. Redaction merges the next match of every rule in a single left-to-right pass
+ * into one output buffer.
+ *
+ * When matches overlap, the one starting earliest wins. Ties go to patterns in rule
+ * order, then terms, then numeric sequences, mirroring the order in which the rules
+ * used to be applied. Replaced text is never rescanned, and zero-length pattern
+ * matches are ignored.
+ *
+ * The engine can also redact incrementally for streaming. Terms have a known maximum
+ * length, but pattern matches do not, so streaming assumes no pattern match is longer
+ * than a configured bound; a longer match straddling a chunk boundary may be split.
+ * Parallel redaction scans chunks with windows overlapping by the same bound.
+ *
+ * Instances are immutable and safe to share between threads.
+ */
+final class RedactionEngine {
+
+    static final Pattern NUMBER_PATTERN = Pattern.compile("\\b\\d{4,}\\b");
+
+    private static final int UNKNOWN = -2;
+    private static final int NONE = -1;
+
+    private final Pattern[] patterns;
+    private final String[] patternReplacements;
+    private final TermAutomaton terms;
+    private final String termReplacement;
+    private final String numberReplacement;
+    private final int maxPatternLength;
+
+    /**
+     * Creates an engine.
+     *
+     * @param patterns The sensitive patterns, in priority order
+     * @param patternReplacements The replacement for each pattern
+     * @param terms The sensitive terms, matched case-insensitively
+     * @param termReplacement The replacement for terms
+     * @param numberReplacement The replacement for long numeric sequences
+     * @param maxPatternLength The longest pattern match expected when streaming
+     */
+    RedactionEngine(List<Pattern> patterns, List<String> patternReplacements, Collection<String> terms,
+                    String termReplacement, String numberReplacement, int maxPatternLength) {
+        this.patterns = patterns.toArray(new Pattern[0]);
+        this.patternReplacements = patternReplacements.toArray(new String[0]);
+        this.terms = TermAutomaton.of(terms);
+        this.termReplacement = termReplacement;
+        this.numberReplacement = numberReplacement;
+        this.maxPatternLength = maxPatternLength;
+    }
+
+    /**
+     * Redacts the content in one pass.
+     *
+     * @param content The content to redact
+     * @param redactTerms Whether sensitive terms are redacted
+     * @param redactNumbers Whether numeric sequences of four or more digits are redacted
+     * @return The redacted content
+     */
+    String redact(String content, boolean redactTerms, boolean redactNumbers) {
+        StringBuilder result = new StringBuilder(content.length());
+        redact(content, 0, true, result, redactTerms, redactNumbers);
+        return result.toString();
+    }
+
+    /**
+     * Redacts text from a position into out, stopping where the output is no longer
+     * final. Unless the input has ended, a match can only be trusted if it starts at
+     * least {@link #lookahead()} characters before the end of the text, so the tail
+     * is left for the caller to retry once more text has arrived.
+     *
+     * @param text The buffered text; characters before from serve as left context
+     * @param from The first position to redact
+     * @param endOfInput Whether the text runs to the end of the input
+     * @param out The buffer receiving redacted output
+     * @param redactTerms Whether sensitive terms are redacted
+     * @param redactNumbers Whether numeric sequences of four or more digits are redacted
+     * @return The position up to which output has been written
+     */
+    int redact(CharSequence text, int from, boolean endOfInput, StringBuilder out,
+               boolean redactTerms, boolean redactNumbers) {
+        int length = text.length();
+        int limit = endOfInput ? length : Math.max(from, length - lookahead());
+        Scanner scanner = new Scanner(text, length, redactTerms, redactNumbers);
+
+        int position = from;
+        while (position < limit && scanner.next(position) && scanner.matchStart < limit) {
+            out.append(text, position, scanner.matchStart).append(scanner.replacement);
+            position = scanner.matchEnd;
+        }
+
+        if (position < limit) {
+            out.append(text, position, limit);
+            position = limit;
+        }
+        return position;
+    }
+
+    /**
+     * Redacts the content by scanning fixed-size chunks in parallel, producing the
+     * same output as {@link #redact(String, boolean, boolean)}.
+     *
+     * Each chunk is scanned from its own start, with a window extending
+     * {@link #lookahead()} characters into the next chunk so matches that start in
+     * the chunk are found whole. The chunks are then stitched in order. Where a match
+     * carried over from the previous chunk overlaps the chunk's own matches, the
+     * chunk is rescanned from the end of that match until the two scans agree again,
+     * which is usually after the first match.
+     *
+     * @param content The content to redact
+     * @param redactTerms Whether sensitive terms are redacted
+     * @param redactNumbers Whether numeric sequences of four or more digits are redacted
+     * @param pool The pool that scans the chunks
+     * @param chunkSize The number of characters per chunk
+     * @return The redacted content
+     */
+    String redactParallel(String content, boolean redactTerms, boolean redactNumbers,
+                          ForkJoinPool pool, int chunkSize) {
+        int length = content.length();
+        int chunkCount = (length + chunkSize - 1) / chunkSize;
+        if (chunkCount <= 1) {
+            return redact(content, redactTerms, redactNumbers);
+        }
+
+        ChunkMatches[] chunks = new ChunkMatches[chunkCount];
+        pool.invoke(new ChunkScanTask(content, chunkSize, chunks, 0, chunkCount, redactTerms, redactNumbers));
+
+        StringBuilder out = new StringBuilder(length);
+        int position = 0;
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            ChunkMatches matches = chunks[chunk];
+            int chunkEnd = Math.min(length, (chunk + 1) * chunkSize);
+            Scanner rescanner = null;
+            int next = 0;
+
+            while (true) {
+                // Skip the chunk's matches that start before the position, noting
+                // whether one of them overlaps it
+                boolean overlapping = false;
+                while (next < matches.size && matches.starts[next] < position) {
+                    overlapping |= matches.ends[next] > position;
+                    next++;
+                }
+
+                int start;
+                int end;
+                String replacement;
+                if (overlapping) {
+                    // The chunk's scan diverged from the sequential one; rescan one match
+                    if (rescanner == null) {
+                        rescanner = new Scanner(content, windowEnd(chunkEnd, length), redactTerms, redactNumbers);
+                    }
+                    if (!rescanner.next(position) || rescanner.matchStart >= chunkEnd) {
+                        break;
+                    }
+                    start = rescanner.matchStart;
+                    end = rescanner.matchEnd;
+                    replacement = rescanner.replacement;
+                } else if (next < matches.size) {
+                    // The chunk's scan agrees with the sequential one from here on
+                    start = matches.starts[next];
+                    end = matches.ends[next];
+                    replacement = matches.replacements[next];
+                    next++;
+                } else {
+                    break;
+                }
+
+                out.append(content, position, start).append(replacement);
+                position = end;
+            }
+
+            if (position < chunkEnd) {
+                out.append(content, position, chunkEnd);
+                position = chunkEnd;
+            }
+        }
+        return out.toString();
+    }
+
+    private int windowEnd(int chunkEnd, int length) {
+        return (int) Math.min(length, (long) chunkEnd + lookahead());
+    }
+
+    /**
+     * Gets how many trailing characters must be held back while more input may follow:
+     * the longest term, or the assumed maximum pattern match length.
+     */
+    int lookahead() {
+        return Math.max(terms.maxLength(), maxPatternLength);
+    }
+
+    /**
+     * Checks whether any term occurs in the content, without allocating.
+     */
+    boolean anyTermMatches(CharSequence content) {
+        return terms.containsAny(content);
+    }
+
+    /**
+     * Checks whether any pattern matches the content.
+     */
+    boolean anyPatternMatches(String content) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(content).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds successive leftmost matches of all rules in a text. Each rule's next match
+     * is cached and only refreshed once the position passes its start, since a
+     * leftmost match found from an earlier position stays leftmost otherwise.
+     * Positions passed to {@link #next(int)} must not decrease.
+     */
+    private final class Scanner {
+        private final CharSequence text;
+        private final int searchEnd;
+
+        private final Matcher[] matchers;
+        private final int[] patternStarts;
+        private final int[] patternEnds;
+        private final Matcher numberMatcher;
+        private int numberStart;
+        private int numberEnd = NONE;
+        private long termMatch;
+
+        // The match found by the last call to next
+        int matchStart;
+        int matchEnd;
+        String replacement;
+
+        /**
+         * @param text The text to scan
+         * @param searchEnd The index by which matches are expected to end
+         * @param redactTerms Whether sensitive terms are matched
+         * @param redactNumbers Whether numeric sequences are matched
+         */
+        Scanner(CharSequence text, int searchEnd, boolean redactTerms, boolean redactNumbers) {
+            this.text = text;
+            this.searchEnd = searchEnd;
+            this.matchers = new Matcher[patterns.length];
+            this.patternStarts = new int[patterns.length];
+            this.patternEnds = new int[patterns.length];
+            for (int i = 0; i < patterns.length; i++) {
+                matchers[i] = newMatcher(patterns[i]);
+                patternStarts[i] = UNKNOWN;
+            }
+            this.numberMatcher = redactNumbers ? newMatcher(NUMBER_PATTERN) : null;
+            this.numberStart = redactNumbers ? UNKNOWN : NONE;
+            this.termMatch = redactTerms && !terms.isEmpty() ? UNKNOWN : NONE;
+        }
+
+        /**
+         * Finds the leftmost match starting at or after the position.
+         *
+         * @return true if a match was found
+         */
+        boolean next(int position) {
+            int bestStart = Integer.MAX_VALUE;
+            int bestEnd = NONE;
+            String bestReplacement = null;
+
+            for (int i = 0; i < matchers.length; i++) {
+                if (patternStarts[i] == UNKNOWN || (patternStarts[i] != NONE && patternStarts[i] < position)) {
+                    patternStarts[i] = findNonEmpty(matchers[i], position);
+                    patternEnds[i] = patternStarts[i] != NONE ? matchers[i].end() : NONE;
+                }
+                if (patternStarts[i] != NONE && patternStarts[i] < bestStart) {
+                    bestStart = patternStarts[i];
+                    bestEnd = patternEnds[i];
+                    bestReplacement = patternReplacements[i];
+                }
+            }
+
+            if (termMatch == UNKNOWN || (termMatch != NONE && TermAutomaton.matchStart(termMatch) < position)) {
+                termMatch = terms.find(text, position, searchEnd);
+            }
+            if (termMatch != NONE && TermAutomaton.matchStart(termMatch) < bestStart) {
+                bestStart = TermAutomaton.matchStart(termMatch);
+                bestEnd = TermAutomaton.matchEnd(termMatch);
+                bestReplacement = termReplacement;
+            }
+
+            if (numberStart == UNKNOWN || (numberStart != NONE && numberStart < position)) {
+                numberStart = findNonEmpty(numberMatcher, position);
+                numberEnd = numberStart != NONE ? numberMatcher.end() : NONE;
+            }
+            if (numberStart != NONE && numberStart < bestStart) {
+                bestStart = numberStart;
+                bestEnd = numberEnd;
+                bestReplacement = numberReplacement;
+            }
+
+            matchStart = bestStart;
+            matchEnd = bestEnd;
+            replacement = bestReplacement;
+            return bestReplacement != null;
+        }
+
+        private Matcher newMatcher(Pattern pattern) {
+            // Lookaround and word boundaries see past the search window
+            return pattern.matcher(text).useTransparentBounds(true).useAnchoringBounds(false);
+        }
+
+        /**
+         * Finds the next non-empty match at or after the position. A match cut short
+         * by the end of the search window is extended against the whole text.
+         *
+         * @return The match start, with the matcher positioned on the match, or NONE
+         */
+        private int findNonEmpty(Matcher matcher, int position) {
+            int from = position;
+            while (from <= searchEnd) {
+                matcher.region(from, searchEnd);
+                if (!matcher.find()) {
+                    return NONE;
+                }
+                if (matcher.end() == searchEnd && searchEnd < text.length()) {
+                    int start = matcher.start();
+                    matcher.region(start, text.length());
+                    if (!matcher.lookingAt()) {
+                        matcher.region(start, searchEnd);
+                        matcher.lookingAt();
+                    }
+                }
+                if (matcher.end() > matcher.start()) {
+                    return matcher.start();
+                }
+                from = matcher.start() + 1;
+            }
+            return NONE;
+        }
+    }
+
+    /**
+     * The matches found by scanning one chunk, in order.
+     */
+    private static final class ChunkMatches {
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        String[] replacements = new String[16];
+        int size;
+
+        void add(int start, int end, String replacement) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                replacements = Arrays.copyOf(replacements, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            replacements[size] = replacement;
+            size++;
+        }
+    }
+
+    /**
+     * Recursive task that halves its chunk range and scans single chunks.
+     */
+    private final class ChunkScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final String content;
+        private final int chunkSize;
+        private final ChunkMatches[] chunks;
+        private final int first;
+        private final int last;
+        private final boolean redactTerms;
+        private final boolean redactNumbers;
+
+        ChunkScanTask(String content, int chunkSize, ChunkMatches[] chunks, int first, int last,
+                      boolean redactTerms, boolean redactNumbers) {
+            this.content = content;
+            this.chunkSize = chunkSize;
+            this.chunks = chunks;
+            this.first = first;
+            this.last = last;
+            this.redactTerms = redactTerms;
+            this.redactNumbers = redactNumbers;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first > 1) {
+                int middle = (first + last) >>> 1;
+                invokeAll(new ChunkScanTask(content, chunkSize, chunks, first, middle, redactTerms, redactNumbers),
+                        new ChunkScanTask(content, chunkSize, chunks, middle, last, redactTerms, redactNumbers));
+                return;
+            }
+
+            int chunkStart = first * chunkSize;
+            int chunkEnd = Math.min(content.length(), chunkStart + chunkSize);
+            Scanner scanner = new Scanner(content, windowEnd(chunkEnd, content.length()), redactTerms, redactNumbers);
+            ChunkMatches matches = new ChunkMatches();
+            int position = chunkStart;
+            while (position < chunkEnd && scanner.next(position) && scanner.matchStart < chunkEnd) {
+                matches.add(scanner.matchStart, scanner.matchEnd, scanner.replacement);
+                position = scanner.matchEnd;
+            }
+            chunks[first] = matches;
+        }
+    }
+}
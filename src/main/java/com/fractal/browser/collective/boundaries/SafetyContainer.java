@@ -1,11 +1,18 @@
 package com.fractal.browser.collective.boundaries;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * SafetyContainer provides mechanisms to ensure the safety of information processing
@@ -14,13 +21,46 @@ import java.util.List;
  * 
  * This class creates safe execution contexts for potentially dangerous operations,
  * working in a fractal pattern to contain risks at various scales.
+ * 
+ * The built-in sanitizers are compiled once and applied in a single pass, and the
+ * safety measures can also be applied to streams in bounded memory. Results for
+ * repeated content can be served from an opt-in {@link RedactionCache}.
  */
 public class SafetyContainer {
     
+    // Longest sanitizer match assumed when streaming, sized for inline scripts
+    private static final int MAX_STREAMED_MATCH_LENGTH = 64 * 1024;
+    
+    // Basic HTML sanitizer and executable code patterns, applied to all content
+    private static final RedactionEngine SANITIZERS = new RedactionEngine(
+            Arrays.asList(Pattern.compile("<script[^>]*>.*?</script>"), Pattern.compile("(?i)exec\\s*\\(")),
+            Arrays.asList("[REMOVED-UNSAFE-SCRIPT]", "[REMOVED-EXEC]"),
+            Collections.emptyList(), null, null, MAX_STREAMED_MATCH_LENGTH);
+    
+    // Marks URLs as potentially unsafe at high safety levels
+    private static final RedactionEngine URL_FILTER = new RedactionEngine(
+            Collections.singletonList(Pattern.compile("https?://[^\\s]+")),
+            Collections.singletonList("[EXTERNAL-URL]"),
+            Collections.emptyList(), null, null, MAX_STREAMED_MATCH_LENGTH);
+    
+    // Unsafe code markers detected alongside the safety terms
+    private static final List<String> UNSAFE_MARKERS = Arrays.asList("<script", "exec(", "eval(");
+    
     private final Set<String> safetyTerms;
+    
+    // Safety terms and unsafe markers compiled for detection, cleared when terms change;
+    // built and cleared under the safetyTerms lock so a rebuild cannot miss a new term
+    private volatile TermAutomaton detector;
+    
+    // Custom transformers, applied after the built-in sanitizers
     private final List<Function<String, String>> safetyTransformers;
-    private int safetyLevel; // 1-5, where 5 is most restrictive
-    private boolean strictModeEnabled;
+    // Volatile because trust synchronization sets them from its own thread
+    private volatile int safetyLevel; // 1-5, where 5 is most restrictive
+    private volatile boolean strictModeEnabled;
+    
+    // Incremented after every change to terms, transformers or levels; keys cached results
+    private final AtomicLong rulesVersion = new AtomicLong();
+    private volatile RedactionCache resultCache;
     
     /**
      * Creates a new SafetyContainer with default settings (medium safety level).
@@ -32,7 +72,6 @@ public class SafetyContainer {
         this.strictModeEnabled = false;
         
         initializeDefaultSafetyTerms();
-        initializeDefaultTransformers();
     }
     
     /**
@@ -47,7 +86,6 @@ public class SafetyContainer {
         this.strictModeEnabled = false;
         
         initializeDefaultSafetyTerms();
-        initializeDefaultTransformers();
     }
     
     /**
@@ -60,19 +98,6 @@ public class SafetyContainer {
         safetyTerms.add("attack");
     }
     
-    /**
-     * Initializes default safety transformers that sanitize content.
-     */
-    private void initializeDefaultTransformers() {
-        // Basic HTML sanitizer
-        safetyTransformers.add(content -> 
-            content.replaceAll("<script[^>]*>.*?</script>", "[REMOVED-UNSAFE-SCRIPT]"));
-        
-        // Remove executable code patterns
-        safetyTransformers.add(content -> 
-            content.replaceAll("(?i)exec\\s*\\(", "[REMOVED-EXEC]"));
-    }
-    
     /**
      * Adds a safety term to be monitored.
      * 
@@ -80,7 +105,14 @@ public class SafetyContainer {
      * @return true if added, false if it already exists
      */
     public boolean addSafetyTerm(String term) {
-        return safetyTerms.add(term.toLowerCase());
+        synchronized (safetyTerms) {
+            if (!safetyTerms.add(term.toLowerCase())) {
+                return false;
+            }
+            detector = null;
+            rulesVersion.incrementAndGet();
+        }
+        return true;
     }
     
     /**
@@ -90,6 +122,7 @@ public class SafetyContainer {
      */
     public void addSafetyTransformer(Function<String, String> transformer) {
         safetyTransformers.add(transformer);
+        rulesVersion.incrementAndGet();
     }
     
     /**
@@ -99,6 +132,7 @@ public class SafetyContainer {
      */
     public void setSafetyLevel(int level) {
         this.safetyLevel = Math.max(1, Math.min(5, level));
+        rulesVersion.incrementAndGet();
     }
     
     /**
@@ -109,6 +143,35 @@ public class SafetyContainer {
      */
     public void setStrictMode(boolean enabled) {
         this.strictModeEnabled = enabled;
+        rulesVersion.incrementAndGet();
+    }
+    
+    /**
+     * Enables caching of safety measure results, replacing any existing cache.
+     * Repeated content is then transformed once per rules version, so custom
+     * transformers must be deterministic.
+     * 
+     * @param maxEntries The maximum number of cached results
+     * @throws IllegalArgumentException If maxEntries is not positive
+     */
+    public void enableResultCache(int maxEntries) {
+        this.resultCache = new RedactionCache(maxEntries);
+    }
+    
+    /**
+     * Disables caching of safety measure results and discards the cache.
+     */
+    public void disableResultCache() {
+        this.resultCache = null;
+    }
+    
+    /**
+     * Gets the result cache, for its size and hit and miss counts.
+     * 
+     * @return The result cache, or empty if caching is disabled
+     */
+    public Optional<RedactionCache> getResultCache() {
+        return Optional.ofNullable(resultCache);
     }
     
     /**
@@ -140,9 +203,18 @@ public class SafetyContainer {
             return content;
         }
         
-        String result = content;
-        
-        // Apply all transformers
+        RedactionCache cache = resultCache;
+        if (cache != null) {
+            // The version is read before the rules, so a result is never cached under
+            // a version newer than the rules that produced it
+            return cache.get(content, rulesVersion.get(), this::transform);
+        }
+        return transform(content);
+    }
+    
+    private String transform(String content) {
+        // Apply the built-in sanitizers, then all custom transformers
+        String result = SANITIZERS.redact(content, false, false);
         for (Function<String, String> transformer : safetyTransformers) {
             result = transformer.apply(result);
         }
@@ -150,14 +222,50 @@ public class SafetyContainer {
         // Apply additional safety measures based on safety level
         if (safetyLevel >= 4 || strictModeEnabled) {
             // For high safety levels, remove URLs or mark them as potentially unsafe
-            result = result.replaceAll("https?://[^\\s]+", "[EXTERNAL-URL]");
+            result = URL_FILTER.redact(result, false, false);
         }
         
         return result;
     }
     
     /**
-     * Checks if content contains potentially unsafe elements.
+     * Applies safety transformations to a character stream in bounded memory.
+     * Built-in sanitizer matches that straddle chunk boundaries are handled as a whole.
+     * Custom transformers receive the content in segments ending at line breaks.
+     * The writer is flushed but not closed.
+     * 
+     * @param in The content to transform
+     * @param out The writer receiving the transformed content
+     * @throws IOException If reading or writing fails
+     */
+    public void applySafetyMeasures(Reader in, Writer out) throws IOException {
+        ((StreamingTransformWriter) safetyWriter(out)).transferFrom(in);
+    }
+    
+    /**
+     * Creates a writer that applies the safety measures to everything written to it.
+     * The transformers and safety level in effect now apply for the writer's lifetime.
+     * Closing the returned writer writes the held-back tail and closes out.
+     * 
+     * @param out The writer receiving the transformed content
+     * @return A writer applying the safety measures
+     */
+    public Writer safetyWriter(Writer out) {
+        Writer downstream = out;
+        if (safetyLevel >= 4 || strictModeEnabled) {
+            downstream = new RedactingWriter(downstream, URL_FILTER, false, false,
+                    StreamingTransformWriter.DEFAULT_CHUNK_SIZE);
+        }
+        if (!safetyTransformers.isEmpty()) {
+            downstream = new SegmentTransformWriter(downstream, new ArrayList<>(safetyTransformers),
+                    StreamingTransformWriter.DEFAULT_CHUNK_SIZE);
+        }
+        return new RedactingWriter(downstream, SANITIZERS, false, false, StreamingTransformWriter.DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * Checks if content contains potentially unsafe elements: safety terms, script
+     * tags, or exec and eval calls, all matched case-insensitively in a single scan.
      * 
      * @param content The content to check
      * @return true if unsafe elements are detected, false otherwise
@@ -167,21 +275,47 @@ public class SafetyContainer {
             return false;
         }
         
-        // Check for safety terms
-        for (String term : safetyTerms) {
-            if (content.toLowerCase().contains(term)) {
-                return true;
-            }
+        return detector().containsAny(content);
+    }
+    
+    /**
+     * Finds the positions of all unsafe elements in the content, including
+     * overlapping ones.
+     * 
+     * @param content The content to check
+     * @return The start and end index of each unsafe element, ordered by start
+     */
+    public List<int[]> findUnsafeElements(String content) {
+        if (content == null || content.isEmpty()) {
+            return Collections.emptyList();
         }
         
-        // Check for common unsafe patterns
-        if (content.contains("<script") || 
-            content.toLowerCase().contains("exec(") ||
-            content.toLowerCase().contains("eval(")) {
-            return true;
+        long[] matches = detector().findAll(content);
+        Arrays.sort(matches);
+        List<int[]> positions = new ArrayList<>(matches.length);
+        for (long match : matches) {
+            positions.add(new int[] {TermAutomaton.matchStart(match), TermAutomaton.matchEnd(match)});
+        }
+        return positions;
+    }
+    
+    /**
+     * Gets the compiled detector, rebuilding it if the safety terms changed.
+     */
+    private TermAutomaton detector() {
+        TermAutomaton current = detector;
+        if (current != null) {
+            return current;
         }
         
-        return false;
+        synchronized (safetyTerms) {
+            if (detector == null) {
+                List<String> terms = new ArrayList<>(safetyTerms);
+                terms.addAll(UNSAFE_MARKERS);
+                detector = TermAutomaton.of(terms);
+            }
+            return detector;
+        }
     }
     
     /**
@@ -197,7 +331,9 @@ public class SafetyContainer {
         try {
             // Create a more restrictive container for the operation
             SafetyContainer subContainer = new SafetyContainer(this.safetyLevel + 1);
-            subContainer.safetyTerms.addAll(this.safetyTerms);
+            synchronized (safetyTerms) {
+                subContainer.safetyTerms.addAll(this.safetyTerms);
+            }
             subContainer.strictModeEnabled = true;
             
             // Execute the operation in the sub-container
@@ -220,15 +356,23 @@ public class SafetyContainer {
             return false;
         }
         
-        trustManager.getTrustScore(contextId).ifPresent(trustScore -> {
-            // Adjust safety level based on trust score (inversely)
-            // Lower trust = higher safety restrictions
-            this.safetyLevel = 5 - (int) Math.round(trustScore * 4);
-            
-            // Enable strict mode for low trust scores
-            this.strictModeEnabled = trustScore < 0.4;
-        });
+        trustManager.getTrustScore(contextId).ifPresent(this::applyTrustScore);
         
         return true;
     }
+    
+    /**
+     * Adjusts the safety level and strict mode from a trust score.
+     * 
+     * @param trustScore The trust score (0.0-1.0)
+     */
+    void applyTrustScore(double trustScore) {
+        // Adjust safety level based on trust score (inversely)
+        // Lower trust = higher safety restrictions
+        this.safetyLevel = 5 - (int) Math.round(trustScore * 4);
+        
+        // Enable strict mode for low trust scores
+        this.strictModeEnabled = trustScore < 0.4;
+        rulesVersion.incrementAndGet();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.fractal.browser.collective.boundaries;
+
+import java.io.Writer;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streaming stage for opaque string transformers. Text is passed to the transformers
+ * in segments that end at a line break, or at the maximum segment length for very
+ * long lines, so transformers that work within a line behave as on the whole text.
+ */
+final class SegmentTransformWriter extends StreamingTransformWriter {
+
+    private final List<Function<String, String>> transformers;
+    private final int maxSegmentLength;
+
+    SegmentTransformWriter(Writer out, List<Function<String, String>> transformers, int maxSegmentLength) {
+        super(out, maxSegmentLength, 0);
+        this.transformers = transformers;
+        this.maxSegmentLength = maxSegmentLength;
+    }
+
+    @Override
+    int transform(CharSequence text, int from, boolean endOfInput, StringBuilder out) {
+        int end = text.length();
+        if (!endOfInput) {
+            int lineEnd = lastLineBreak(text, from, end);
+            if (lineEnd >= 0) {
+                end = lineEnd + 1;
+            } else if (end - from < maxSegmentLength) {
+                return from;
+            }
+        }
+        if (end == from) {
+            return from;
+        }
+
+        String segment = text.subSequence(from, end).toString();
+        for (Function<String, String> transformer : transformers) {
+            segment = transformer.apply(segment);
+        }
+        out.append(segment);
+        return end;
+    }
+
+    @Override
+    int lookahead() {
+        return maxSegmentLength;
+    }
+
+    private static int lastLineBreak(CharSequence text, int from, int end) {
+        for (int i = end - 1; i >= from; i--) {
+            if (text.charAt(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,10 @@
+package com.fractal.browser.collective.boundaries;
+
+/**
+ * Receives notifications when the sensitivity of a piece of information changes
+ * in an {@link InformationBoundary}. Indexes that pre-aggregate data by access level
+ * use this to keep their partitions in step with the boundary.
+ */
+public interface SensitivityListener {
+    void onSensitivityChanged(String informationId, double sensitivityLevel);
+}
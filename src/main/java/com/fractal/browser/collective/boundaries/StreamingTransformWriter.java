@@ -0,0 +1,151 @@
+package com.fractal.browser.collective.boundaries;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * StreamingTransformWriter is the base of the streaming filter stages. It buffers
+ * written text, lets the stage transform as much of the buffer as is final, and writes
+ * the result to the next writer. Only the unfinished tail and a little left context
+ * are retained, so memory stays bounded by the chunk size and the stage's lookahead.
+ *
+ * Stages chain by wrapping one another. {@link #finish()} flushes the whole chain
+ * without closing the destination, and {@link #close()} closes it as well.
+ */
+abstract class StreamingTransformWriter extends Writer {
+
+    static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final Writer out;
+    private final int chunkSize;
+    private final int leftContext;
+    private final StringBuilder buffer;
+    private final StringBuilder output;
+
+    // Index in the buffer of the first character not yet transformed
+    private int position;
+    private boolean finished;
+
+    /**
+     * @param out The writer receiving transformed text
+     * @param chunkSize How many pending characters trigger a transformation
+     * @param leftContext How many transformed characters to keep for lookbehind
+     */
+    StreamingTransformWriter(Writer out, int chunkSize, int leftContext) {
+        this.out = out;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.leftContext = leftContext;
+        this.buffer = new StringBuilder();
+        this.output = new StringBuilder();
+    }
+
+    /**
+     * Transforms buffered text from a position, appending final output.
+     *
+     * @param text The buffered text; characters before from are left context
+     * @param from The first position to transform
+     * @param endOfInput Whether no more text will arrive
+     * @param out The buffer receiving transformed output
+     * @return The position up to which output is final
+     */
+    abstract int transform(CharSequence text, int from, boolean endOfInput, StringBuilder out);
+
+    /**
+     * Gets how many trailing characters the stage may hold back between transformations.
+     */
+    abstract int lookahead();
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            buffer.append(cbuf, off, len);
+            if (buffer.length() - position >= chunkSize + lookahead()) {
+                drain(false);
+            }
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            buffer.append(str, off, off + len);
+            if (buffer.length() - position >= chunkSize + lookahead()) {
+                drain(false);
+            }
+        }
+    }
+
+    /**
+     * Writes all final output downstream. Text that may still be part of a match
+     * spanning the next write is held back.
+     */
+    @Override
+    public void flush() throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            drain(false);
+            out.flush();
+        }
+    }
+
+    /**
+     * Ends the input: transforms everything that is buffered and finishes the rest of
+     * the chain, leaving the destination writer open.
+     */
+    void finish() throws IOException {
+        synchronized (lock) {
+            if (finished) {
+                return;
+            }
+            drain(true);
+            finished = true;
+        }
+        if (out instanceof StreamingTransformWriter) {
+            ((StreamingTransformWriter) out).finish();
+        } else {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        out.close();
+    }
+
+    /**
+     * Copies a reader through the chain headed by this writer and finishes it.
+     */
+    void transferFrom(Reader in) throws IOException {
+        char[] chunk = new char[chunkSize];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            write(chunk, 0, read);
+        }
+        finish();
+    }
+
+    private void drain(boolean endOfInput) throws IOException {
+        position = transform(buffer, position, endOfInput, output);
+        if (output.length() > 0) {
+            out.append(output);
+            output.setLength(0);
+        }
+
+        // Drop transformed text, keeping left context for lookbehind
+        int discard = Math.max(0, position - leftContext);
+        if (discard > 0) {
+            buffer.delete(0, discard);
+            position -= discard;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (finished) {
+            throw new IOException("Stream already finished");
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.fractal.browser.collective.boundaries;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * TermAutomaton is an Aho-Corasick automaton over a fixed set of terms, matched
+ * case-insensitively by folding each character. A single left-to-right scan finds
+ * the leftmost-longest term occurrence regardless of how many terms there are, and
+ * detection scans without allocating, stopping at the first occurrence.
+ *
+ * Instances are immutable and safe to share between threads.
+ */
+final class TermAutomaton {
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    // Sorted outgoing edges of node n live at [edgeOffsets[n], edgeOffsets[n + 1])
+    private final int[] edgeOffsets;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+
+    // Root transitions for ASCII characters, the common case at the root
+    private final int[] asciiRoot;
+
+    private final int[] failure;
+    private final int[] depth;
+
+    // Longest node on the suffix chain that ends a term, or NONE
+    private final int[] output;
+
+    private final int maxLength;
+
+    private TermAutomaton(int[] edgeOffsets, char[] edgeChars, int[] edgeTargets, int[] asciiRoot,
+                          int[] failure, int[] depth, int[] output, int maxLength) {
+        this.edgeOffsets = edgeOffsets;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.asciiRoot = asciiRoot;
+        this.failure = failure;
+        this.depth = depth;
+        this.output = output;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Builds an automaton for the given terms. Null and empty terms are ignored.
+     *
+     * @param terms The terms to match
+     * @return The compiled automaton
+     */
+    static TermAutomaton of(Collection<String> terms) {
+        // Build the trie with sorted child maps, then flatten it
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        children.add(new TreeMap<>());
+        depths.add(0);
+        terminal.add(false);
+        int maxLength = 0;
+
+        for (String term : terms) {
+            if (term == null || term.isEmpty()) {
+                continue;
+            }
+            int node = ROOT;
+            for (int i = 0; i < term.length(); i++) {
+                char c = fold(term.charAt(i));
+                Integer next = children.get(node).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    depths.add(i + 1);
+                    terminal.add(false);
+                    children.get(node).put(c, next);
+                }
+                node = next;
+            }
+            terminal.set(node, true);
+            maxLength = Math.max(maxLength, term.length());
+        }
+
+        int nodeCount = children.size();
+        int[] edgeOffsets = new int[nodeCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            edgeOffsets[node + 1] = edgeOffsets[node] + children.get(node).size();
+        }
+        char[] edgeChars = new char[edgeOffsets[nodeCount]];
+        int[] edgeTargets = new int[edgeOffsets[nodeCount]];
+        int[] depth = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            int edge = edgeOffsets[node];
+            for (Map.Entry<Character, Integer> child : children.get(node).entrySet()) {
+                edgeChars[edge] = child.getKey();
+                edgeTargets[edge] = child.getValue();
+                edge++;
+            }
+            depth[node] = depths.get(node);
+        }
+
+        int[] asciiRoot = new int[128];
+        for (int c = 0; c < 128; c++) {
+            Integer target = children.get(ROOT).get((char) c);
+            asciiRoot[c] = target != null ? target : ROOT;
+        }
+
+        // Breadth-first failure and output links
+        int[] failure = new int[nodeCount];
+        int[] output = new int[nodeCount];
+        output[ROOT] = NONE;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int edge = edgeOffsets[ROOT]; edge < edgeOffsets[ROOT + 1]; edge++) {
+            int child = edgeTargets[edge];
+            failure[child] = ROOT;
+            output[child] = terminal.get(child) ? child : NONE;
+            queue.add(child);
+        }
+
+        TermAutomaton partial = new TermAutomaton(edgeOffsets, edgeChars, edgeTargets, asciiRoot,
+                failure, depth, output, maxLength);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int edge = edgeOffsets[node]; edge < edgeOffsets[node + 1]; edge++) {
+                int child = edgeTargets[edge];
+                failure[child] = partial.next(failure[node], edgeChars[edge]);
+                output[child] = terminal.get(child) ? child : output[failure[child]];
+                queue.add(child);
+            }
+        }
+
+        return partial;
+    }
+
+    /**
+     * Folds a character for case-insensitive comparison, consistent with
+     * {@link String#CASE_INSENSITIVE_ORDER}.
+     */
+    static char fold(char c) {
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Gets the length of the longest term, which bounds how far a match can extend.
+     */
+    int maxLength() {
+        return maxLength;
+    }
+
+    boolean isEmpty() {
+        return maxLength == 0;
+    }
+
+    /**
+     * Finds the leftmost-longest term occurrence starting at or after from and ending
+     * at or before to.
+     *
+     * @param text The text to scan
+     * @param from The first index to consider
+     * @param to The index after the last character to consider
+     * @return The match packed as (start << 32 | end), or -1 if there is none
+     */
+    long find(CharSequence text, int from, int to) {
+        int state = ROOT;
+        int bestStart = NONE;
+        int bestEnd = NONE;
+
+        for (int i = from; i < to; i++) {
+            // No match ending here or later can start at or before the best start
+            if (bestStart != NONE && i >= bestStart + maxLength) {
+                break;
+            }
+
+            state = next(state, fold(text.charAt(i)));
+            int node = output[state];
+            if (node != NONE) {
+                // The longest output has the earliest start among matches ending here
+                int start = i + 1 - depth[node];
+                if (bestStart == NONE || start < bestStart || (start == bestStart && i + 1 > bestEnd)) {
+                    bestStart = start;
+                    bestEnd = i + 1;
+                }
+            }
+        }
+
+        return bestStart == NONE ? -1 : ((long) bestStart << 32) | bestEnd;
+    }
+
+    /**
+     * Checks whether any term occurs in the text, stopping at the first occurrence.
+     */
+    boolean containsAny(CharSequence text) {
+        if (isEmpty()) {
+            return false;
+        }
+        int state = ROOT;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = next(state, fold(text.charAt(i)));
+            if (output[state] != NONE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds every term occurrence in the text, including overlapping ones.
+     *
+     * @param text The text to scan
+     * @return The matches packed as (start << 32 | end), ordered by end, then by
+     *         decreasing length
+     */
+    long[] findAll(CharSequence text) {
+        if (isEmpty()) {
+            return new long[0];
+        }
+
+        long[] matches = new long[8];
+        int count = 0;
+        int state = ROOT;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = next(state, fold(text.charAt(i)));
+            // Walk the chain of terms that are suffixes of the current match
+            for (int node = output[state]; node != NONE; node = output[failure[node]]) {
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, count * 2);
+                }
+                matches[count++] = ((long) (i + 1 - depth[node]) << 32) | (i + 1);
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    static int matchStart(long match) {
+        return (int) (match >>> 32);
+    }
+
+    static int matchEnd(long match) {
+        return (int) match;
+    }
+
+    /**
+     * Follows the goto function, falling back along failure links.
+     */
+    private int next(int state, char c) {
+        while (true) {
+            if (state == ROOT) {
+                if (c < 128) {
+                    return asciiRoot[c];
+                }
+                int target = child(ROOT, c);
+                return target != NONE ? target : ROOT;
+            }
+            int target = child(state, c);
+            if (target != NONE) {
+                return target;
+            }
+            state = failure[state];
+        }
+    }
+
+    private int child(int node, char c) {
+        int low = edgeOffsets[node];
+        int high = edgeOffsets[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char edge = edgeChars[mid];
+            if (edge < c) {
+                low = mid + 1;
+            } else if (edge > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,11 @@
+package com.fractal.browser.collective.boundaries;
+
+/**
+ * Receives every interaction recorded by a {@link TrustManager}, in the order each
+ * context recorded them. The manager itself keeps only a bounded window of recent
+ * interactions per context, so an append-only log is where the full history lives.
+ * Implementations are called from the recording thread and must be thread-safe.
+ */
+public interface TrustInteractionLog {
+    void append(String contextId, TrustManager.TrustInteraction interaction);
+}
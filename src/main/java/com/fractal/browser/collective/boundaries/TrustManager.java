@@ -4,9 +4,20 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.UnaryOperator;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * TrustManager implements a fractal trust model for the collective system, 
@@ -16,35 +27,126 @@ import java.util.ArrayList;
  * 
  * This class works with other boundary components to create a comprehensive
  * trust boundary system that operates recursively across different scales.
+ * 
+ * Each context's score and last update time change together through compare-and-set,
+ * so concurrent updates are never lost and contexts never contend with each other.
+ * Only the most recent interactions are kept per context; a {@link TrustInteractionLog}
+ * can be attached to retain the full history, and a {@link TrustPropagationEngine}
+ * can be attached to spread trust across a graph of contexts.
+ * 
+ * Subscribed {@link InformationBoundary} and {@link SafetyContainer} instances receive
+ * trust changes by push. Changed contexts are collected in a set and flushed in
+ * batches, so a burst of interactions on one context results in a single update
+ * carrying its latest score.
+ * 
+ * Trust decays with whole days since a context's last update. Reads evaluate the
+ * decay as a pure function of the stored score, the last update time and the current
+ * time, so they never write. Updates fold the accrued decay into the new score, and
+ * an optional scheduled job materializes decay for idle contexts.
  */
 public class TrustManager {
     
+    // Number of recent interactions kept per context by default
+    public static final int DEFAULT_INTERACTION_HISTORY = 256;
+    
     // Trust score map: contextId -> TrustData
     private final Map<String, TrustData> trustScores;
     
+    // Number of recent interactions kept per context
+    private final int interactionHistory;
+    
+    // Optional full history of interactions
+    private volatile TrustInteractionLog interactionLog;
+    
+    // Optional graph engine seeded with every stored score
+    private volatile TrustPropagationEngine propagationEngine;
+    
+    // Boundaries and per-context safety containers kept in step with trust changes
+    private final List<InformationBoundary> boundarySubscribers;
+    private final Map<String, List<SafetyContainer>> safetySubscribers;
+    
+    // Contexts changed since the last flush to subscribers
+    private final Set<String> pendingSync;
+    private final Object syncLock = new Object();
+    
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    
     // Trust decay rate per day (reduces trust if no interactions)
-    private double trustDecayRate;
+    private volatile double trustDecayRate;
     
     // Threshold below which trust is considered insufficient
-    private double minTrustThreshold;
+    private volatile double minTrustThreshold;
+    
+    private final Clock clock;
+    
+    // Runs the periodic decay materialization, if started; guarded by this
+    private ScheduledExecutorService decayScheduler;
+    
+    // Runs the periodic flush to subscribers, if started; guarded by this
+    private ScheduledExecutorService syncScheduler;
+    
+    /**
+     * Immutable snapshot of a context's score and when it last changed.
+     */
+    private static final class TrustState {
+        private final double score; // 0.0 to 1.0
+        private final long lastUpdatedMillis;
+        
+        TrustState(double score, long lastUpdatedMillis) {
+            this.score = score;
+            this.lastUpdatedMillis = lastUpdatedMillis;
+        }
+    }
     
     /**
-     * Internal class to store trust data and history.
+     * Internal class to store trust data and recent history.
      */
     private static class TrustData {
-        private double score; // 0.0 to 1.0
-        private Instant lastUpdated;
-        private final List<TrustInteraction> interactions;
+        private final AtomicReference<TrustState> state;
+        
+        // Ring buffer of recent interactions; slot i holds interaction number i modulo capacity
+        private final AtomicReferenceArray<TrustInteraction> interactions;
+        private final AtomicLong interactionCount;
         
-        public TrustData(double initialScore) {
-            this.score = Math.max(0.0, Math.min(1.0, initialScore));
-            this.lastUpdated = Instant.now();
-            this.interactions = new ArrayList<>();
+        public TrustData(double initialScore, long now, int interactionHistory) {
+            this.state = new AtomicReference<>(new TrustState(Math.max(0.0, Math.min(1.0, initialScore)), now));
+            this.interactions = new AtomicReferenceArray<>(interactionHistory);
+            this.interactionCount = new AtomicLong();
+        }
+        
+        /**
+         * Atomically replaces the state, retrying if another thread changed it first.
+         */
+        public TrustState update(UnaryOperator<TrustState> function) {
+            while (true) {
+                TrustState current = state.get();
+                TrustState next = function.apply(current);
+                if (next == current || state.compareAndSet(current, next)) {
+                    return next;
+                }
+            }
         }
         
         public void recordInteraction(TrustInteraction interaction) {
-            interactions.add(interaction);
-            lastUpdated = Instant.now();
+            long sequence = interactionCount.getAndIncrement();
+            interactions.set((int) (sequence % interactions.length()), interaction);
+        }
+        
+        /**
+         * Copies the retained interactions in recording order. Under concurrent recording
+         * the copy may omit interactions that are being written.
+         */
+        public List<TrustInteraction> recentInteractions() {
+            long end = interactionCount.get();
+            long start = Math.max(0, end - interactions.length());
+            List<TrustInteraction> recent = new ArrayList<>((int) (end - start));
+            for (long sequence = start; sequence < end; sequence++) {
+                TrustInteraction interaction = interactions.get((int) (sequence % interactions.length()));
+                if (interaction != null) {
+                    recent.add(interaction);
+                }
+            }
+            return recent;
         }
     }
     
@@ -79,9 +181,7 @@ public class TrustManager {
      * Creates a new TrustManager with default settings.
      */
     public TrustManager() {
-        this.trustScores = new ConcurrentHashMap<>();
-        this.trustDecayRate = 0.01; // 1% decay per day
-        this.minTrustThreshold = 0.3;
+        this(0.01, 0.3); // 1% decay per day
     }
     
     /**
@@ -91,9 +191,230 @@ public class TrustManager {
      * @param minTrustThreshold The minimum trust threshold (0.0-1.0)
      */
     public TrustManager(double trustDecayRate, double minTrustThreshold) {
+        this(trustDecayRate, minTrustThreshold, DEFAULT_INTERACTION_HISTORY);
+    }
+    
+    /**
+     * Creates a new TrustManager with the specified trust decay rate and history size.
+     * 
+     * @param trustDecayRate The daily trust decay rate (0.0-1.0)
+     * @param minTrustThreshold The minimum trust threshold (0.0-1.0)
+     * @param interactionHistory The number of recent interactions kept per context
+     * @throws IllegalArgumentException If interactionHistory is not positive
+     */
+    public TrustManager(double trustDecayRate, double minTrustThreshold, int interactionHistory) {
+        this(trustDecayRate, minTrustThreshold, interactionHistory, Clock.systemUTC());
+    }
+    
+    TrustManager(double trustDecayRate, double minTrustThreshold, int interactionHistory, Clock clock) {
+        if (interactionHistory <= 0) {
+            throw new IllegalArgumentException("interactionHistory must be positive: " + interactionHistory);
+        }
         this.trustScores = new ConcurrentHashMap<>();
+        this.boundarySubscribers = new CopyOnWriteArrayList<>();
+        this.safetySubscribers = new ConcurrentHashMap<>();
+        this.pendingSync = ConcurrentHashMap.newKeySet();
         this.trustDecayRate = Math.max(0.0, Math.min(1.0, trustDecayRate));
         this.minTrustThreshold = Math.max(0.0, Math.min(1.0, minTrustThreshold));
+        this.interactionHistory = interactionHistory;
+        this.clock = clock;
+    }
+    
+    /**
+     * Sets the log that receives every recorded interaction, or null for none.
+     * 
+     * @param log The append-only interaction log
+     */
+    public void setInteractionLog(TrustInteractionLog log) {
+        this.interactionLog = log;
+    }
+    
+    /**
+     * Attaches a graph propagation engine, or detaches it with null. The engine is
+     * seeded with every context's stored score now and kept in step as scores change;
+     * the caller defines the graph's edges and decides when to run propagation.
+     * 
+     * @param engine The propagation engine
+     */
+    public void setPropagationEngine(TrustPropagationEngine engine) {
+        this.propagationEngine = engine;
+        if (engine != null) {
+            for (Map.Entry<String, TrustData> entry : trustScores.entrySet()) {
+                publishScore(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+    
+    /**
+     * Gets the trust of a context as spread across the graph by the attached
+     * propagation engine, as of the engine's last run.
+     * 
+     * @param contextId The context ID
+     * @return The propagated trust, or empty if no engine is attached or it has not
+     *         reached the context yet
+     */
+    public Optional<Double> getPropagatedTrust(String contextId) {
+        TrustPropagationEngine engine = propagationEngine;
+        return engine != null ? engine.getScore(contextId) : Optional.empty();
+    }
+    
+    /**
+     * Passes a context's stored score on to the propagation engine and marks it for
+     * the next flush to subscribers. The score is published again if the state moved
+     * while it was being published, so without any lock the last score published is
+     * always the latest: a later change is published after this check by its own writer.
+     */
+    private void publishScore(String contextId, TrustData data) {
+        TrustPropagationEngine engine = propagationEngine;
+        if (engine != null) {
+            TrustState state;
+            do {
+                state = data.state.get();
+                engine.setSeed(contextId, state.score);
+            } while (data.state.get() != state);
+        }
+        if (!boundarySubscribers.isEmpty() || safetySubscribers.containsKey(contextId)) {
+            pendingSync.add(contextId);
+        }
+    }
+    
+    /**
+     * Subscribes a boundary to trust changes. The access level of every known context
+     * is pushed to it now, and later changes are pushed on each flush.
+     * 
+     * @param boundary The boundary to keep in step with trust
+     */
+    public void subscribe(InformationBoundary boundary) {
+        if (boundary == null) {
+            return;
+        }
+        synchronized (syncLock) {
+            boundarySubscribers.add(boundary);
+            long now = clock.millis();
+            double rate = trustDecayRate;
+            for (Map.Entry<String, TrustData> entry : trustScores.entrySet()) {
+                boundary.applyTrustScore(entry.getKey(), decayedScore(entry.getValue().state.get(), now, rate));
+            }
+        }
+    }
+    
+    /**
+     * Subscribes a safety container to the trust changes of one context. The context's
+     * current trust, if known, is pushed to it now.
+     * 
+     * @param container The container whose safety level follows the context's trust
+     * @param contextId The context the container serves
+     */
+    public void subscribe(SafetyContainer container, String contextId) {
+        if (container == null || contextId == null) {
+            return;
+        }
+        synchronized (syncLock) {
+            safetySubscribers.computeIfAbsent(contextId, id -> new CopyOnWriteArrayList<>()).add(container);
+            getTrustScore(contextId).ifPresent(container::applyTrustScore);
+        }
+    }
+    
+    /**
+     * Removes a boundary subscription.
+     * 
+     * @param boundary The boundary to remove
+     */
+    public void unsubscribe(InformationBoundary boundary) {
+        boundarySubscribers.remove(boundary);
+    }
+    
+    /**
+     * Removes a safety container's subscription to a context.
+     * 
+     * @param container The container to remove
+     * @param contextId The context it was subscribed to
+     */
+    public void unsubscribe(SafetyContainer container, String contextId) {
+        safetySubscribers.computeIfPresent(contextId, (id, containers) -> {
+            containers.remove(container);
+            return containers.isEmpty() ? null : containers;
+        });
+    }
+    
+    /**
+     * Pushes the latest trust of every context changed since the last flush to the
+     * subscribers, once per context however often it changed. Flushes are serialized,
+     * so a subscriber never receives an older score after a newer one.
+     * 
+     * @return The number of contexts pushed
+     */
+    public int flushTrustUpdates() {
+        synchronized (syncLock) {
+            long now = clock.millis();
+            double rate = trustDecayRate;
+            int flushed = 0;
+            
+            for (String contextId : pendingSync) {
+                // Removed before reading, so a change made meanwhile is flushed again
+                pendingSync.remove(contextId);
+                TrustData data = trustScores.get(contextId);
+                if (data == null) {
+                    continue;
+                }
+                double score = decayedScore(data.state.get(), now, rate);
+                for (InformationBoundary boundary : boundarySubscribers) {
+                    boundary.applyTrustScore(contextId, score);
+                }
+                List<SafetyContainer> containers = safetySubscribers.get(contextId);
+                if (containers != null) {
+                    for (SafetyContainer container : containers) {
+                        container.applyTrustScore(score);
+                    }
+                }
+                flushed++;
+            }
+            return flushed;
+        }
+    }
+    
+    /**
+     * Gets the number of contexts waiting for the next flush to subscribers.
+     * 
+     * @return The number of pending contexts
+     */
+    public int getPendingTrustUpdates() {
+        return pendingSync.size();
+    }
+    
+    /**
+     * Starts flushing trust changes to subscribers on a fixed interval, replacing any
+     * schedule already running. The job runs on a daemon thread. Each run first
+     * materializes accrued decay, so subscribers follow decay even when no separate
+     * decay materialization is scheduled.
+     * 
+     * @param interval The time between flushes
+     * @throws IllegalArgumentException If the interval is not positive
+     */
+    public synchronized void startTrustSynchronization(Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        }
+        stopTrustSynchronization();
+        
+        syncScheduler = daemonScheduler("trust-sync");
+        long millis = interval.toMillis();
+        syncScheduler.scheduleAtFixedRate(() -> {
+            materializeDecay();
+            flushTrustUpdates();
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Stops the scheduled flush to subscribers, if running, and flushes whatever is
+     * still pending.
+     */
+    public synchronized void stopTrustSynchronization() {
+        if (syncScheduler != null) {
+            syncScheduler.shutdownNow();
+            syncScheduler = null;
+            flushTrustUpdates();
+        }
     }
     
     /**
@@ -104,11 +425,12 @@ public class TrustManager {
      * @return true if successfully initialized, false if already exists
      */
     public boolean initializeTrust(String contextId, double initialTrustScore) {
-        if (trustScores.containsKey(contextId)) {
-            return false; // Trust already initialized
+        // Fails if trust is already initialized
+        TrustData data = new TrustData(initialTrustScore, clock.millis(), interactionHistory);
+        if (trustScores.putIfAbsent(contextId, data) != null) {
+            return false;
         }
-        
-        trustScores.put(contextId, new TrustData(initialTrustScore));
+        publishScore(contextId, data);
         return true;
     }
     
@@ -121,22 +443,46 @@ public class TrustManager {
      * @return The new trust score
      */
     public double recordInteraction(String contextId, String description, double impact) {
-        // Ensure context exists
-        trustScores.putIfAbsent(contextId, new TrustData(0.5)); // Default moderate trust
-        
-        TrustData data = trustScores.get(contextId);
+        TrustData data = trustData(contextId, 0.5); // Default moderate trust
         TrustInteraction interaction = new TrustInteraction(description, impact);
         data.recordInteraction(interaction);
         
-        // Update trust score
-        double newScore = data.score + impact;
-        // Ensure score stays within bounds
-        newScore = Math.max(0.0, Math.min(1.0, newScore));
-        data.score = newScore;
+        TrustInteractionLog log = interactionLog;
+        if (log != null) {
+            log.append(contextId, interaction);
+        }
         
+        // Update the decayed trust score, keeping it within bounds
+        long now = clock.millis();
+        double rate = trustDecayRate;
+        double newScore = data.update(current ->
+            new TrustState(Math.max(0.0, Math.min(1.0, decayedScore(current, now, rate) + impact)), now)).score;
+        publishScore(contextId, data);
         return newScore;
     }
     
+    /**
+     * Gets the most recent interactions recorded for the context.
+     * 
+     * @param contextId The context ID
+     * @return Up to the configured history size of interactions, in recording order
+     */
+    public List<TrustInteraction> getRecentInteractions(String contextId) {
+        TrustData data = trustScores.get(contextId);
+        return data != null ? data.recentInteractions() : new ArrayList<>();
+    }
+    
+    /**
+     * Gets the trust data for a context, creating it with the initial score if absent.
+     */
+    private TrustData trustData(String contextId, double initialScore) {
+        TrustData data = trustScores.get(contextId);
+        if (data != null) {
+            return data;
+        }
+        return trustScores.computeIfAbsent(contextId, id -> new TrustData(initialScore, clock.millis(), interactionHistory));
+    }
+    
     /**
      * Gets the current trust score for the context.
      * 
@@ -144,34 +490,98 @@ public class TrustManager {
      * @return An Optional containing the trust score, or empty if not found
      */
     public Optional<Double> getTrustScore(String contextId) {
-        if (!trustScores.containsKey(contextId)) {
+        TrustData data = trustScores.get(contextId);
+        if (data == null) {
             return Optional.empty();
         }
         
-        // Apply trust decay based on time since last update
-        TrustData data = trustScores.get(contextId);
-        applyTrustDecay(data);
+        // Apply trust decay based on time since last update, without storing it
+        return Optional.of(decayedScore(data.state.get(), clock.millis(), trustDecayRate));
+    }
+    
+    /**
+     * Computes the decayed score: score * (1 - decayRate)^days, counting whole days
+     * elapsed since the last update.
+     */
+    private static double decayedScore(TrustState state, long now, double decayRate) {
+        long daysSinceUpdate = elapsedDays(state, now);
+        if (daysSinceUpdate == 0) {
+            return state.score;
+        }
+        return state.score * Math.pow(1.0 - decayRate, daysSinceUpdate);
+    }
+    
+    private static long elapsedDays(TrustState state, long now) {
+        return Math.max(0, now - state.lastUpdatedMillis) / DAY_MILLIS;
+    }
+    
+    /**
+     * Stores the decayed score of every context whose decay has accrued whole days.
+     * The last update time advances by exactly those days, so the stored state decays
+     * from here on exactly as it would have otherwise.
+     * 
+     * @return The number of contexts whose score was updated
+     */
+    public int materializeDecay() {
+        long now = clock.millis();
+        double rate = trustDecayRate;
+        int updated = 0;
         
-        return Optional.of(data.score);
+        for (Map.Entry<String, TrustData> entry : trustScores.entrySet()) {
+            TrustData data = entry.getValue();
+            boolean[] decayed = new boolean[1];
+            data.update(current -> {
+                long days = elapsedDays(current, now);
+                decayed[0] = days > 0;
+                if (days == 0) {
+                    return current;
+                }
+                return new TrustState(decayedScore(current, now, rate), current.lastUpdatedMillis + days * DAY_MILLIS);
+            });
+            if (decayed[0]) {
+                publishScore(entry.getKey(), data);
+                updated++;
+            }
+        }
+        return updated;
     }
     
     /**
-     * Applies trust decay based on time elapsed since last update.
+     * Starts materializing decay for all contexts on a fixed interval, replacing any
+     * schedule already running. The job runs on a daemon thread.
      * 
-     * @param data The trust data to update
+     * @param interval The time between runs
+     * @throws IllegalArgumentException If the interval is not positive
      */
-    private void applyTrustDecay(TrustData data) {
-        Instant now = Instant.now();
-        long daysSinceUpdate = java.time.Duration.between(data.lastUpdated, now).toDays();
+    public synchronized void startDecayMaterialization(Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        }
+        stopDecayMaterialization();
         
-        if (daysSinceUpdate > 0) {
-            // Apply compound decay: score = score * (1 - decayRate)^days
-            double decayFactor = Math.pow(1.0 - trustDecayRate, daysSinceUpdate);
-            data.score = data.score * decayFactor;
-            data.lastUpdated = now;
+        decayScheduler = daemonScheduler("trust-decay");
+        long millis = interval.toMillis();
+        decayScheduler.scheduleAtFixedRate(this::materializeDecay, millis, millis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Stops the scheduled decay materialization, if running.
+     */
+    public synchronized void stopDecayMaterialization() {
+        if (decayScheduler != null) {
+            decayScheduler.shutdownNow();
+            decayScheduler = null;
         }
     }
     
+    private static ScheduledExecutorService daemonScheduler(String name) {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
     /**
      * Sets the trust decay rate.
      * 
@@ -232,20 +642,22 @@ public class TrustManager {
     public Map<String, Object> getTrustMetadata(String contextId) {
         Map<String, Object> metadata = new HashMap<>();
         
-        if (!trustScores.containsKey(contextId)) {
+        TrustData data = trustScores.get(contextId);
+        if (data == null) {
             return metadata;
         }
         
-        TrustData data = trustScores.get(contextId);
-        applyTrustDecay(data);
+        TrustState state = data.state.get();
+        double score = decayedScore(state, clock.millis(), trustDecayRate);
+        double threshold = minTrustThreshold;
         
         metadata.put("contextId", contextId);
-        metadata.put("trustScore", data.score);
+        metadata.put("trustScore", score);
         metadata.put("trustLevel", getTrustLevel(contextId));
-        metadata.put("lastUpdated", data.lastUpdated.toString());
-        metadata.put("interactionCount", data.interactions.size());
-        metadata.put("trustThreshold", minTrustThreshold);
-        metadata.put("isTrustSufficient", data.score >= minTrustThreshold);
+        metadata.put("lastUpdated", Instant.ofEpochMilli(state.lastUpdatedMillis).toString());
+        metadata.put("interactionCount", (int) Math.min(Integer.MAX_VALUE, data.interactionCount.get()));
+        metadata.put("trustThreshold", threshold);
+        metadata.put("isTrustSufficient", score >= threshold);
         
         return metadata;
     }
@@ -268,20 +680,24 @@ public class TrustManager {
         double adjustedPropagation = Math.max(0.0, Math.min(1.0, propagationFactor));
         double propagatedTrust = sourceTrust.get() * adjustedPropagation;
         
-        // If target already exists, blend the trust scores
-        if (trustScores.containsKey(targetContextId)) {
-            TrustData targetData = trustScores.get(targetContextId);
-            applyTrustDecay(targetData);
-            
-            // Blend existing trust with propagated trust
-            double blendedTrust = (targetData.score + propagatedTrust) / 2.0;
-            targetData.score = blendedTrust;
-            targetData.lastUpdated = Instant.now();
-        } else {
-            // Initialize new trust relationship with propagated trust
-            trustScores.put(targetContextId, new TrustData(propagatedTrust));
+        // Initialize a new trust relationship with propagated trust, or if the target
+        // already exists, blend the trust scores
+        TrustData targetData = trustScores.get(targetContextId);
+        if (targetData == null) {
+            TrustData created = new TrustData(propagatedTrust, clock.millis(), interactionHistory);
+            targetData = trustScores.putIfAbsent(targetContextId, created);
+            if (targetData == null) {
+                publishScore(targetContextId, created);
+                return true;
+            }
         }
         
+        // Blend existing decayed trust with propagated trust
+        long now = clock.millis();
+        double rate = trustDecayRate;
+        targetData.update(current -> new TrustState((decayedScore(current, now, rate) + propagatedTrust) / 2.0, now));
+        publishScore(targetContextId, targetData);
+        
         return true;
     }
     
@@ -293,16 +709,18 @@ public class TrustManager {
      * @return true if integration succeeded, false otherwise
      */
     public boolean integrateWithInformationBoundary(InformationBoundary boundary, String contextId) {
+        if (boundary == null || contextId == null) {
+            return false;
+        }
+        
         Optional<Double> trustScore = getTrustScore(contextId);
         
         if (!trustScore.isPresent()) {
             return false;
         }
         
-        // Convert trust score to access level (0-10)
-        int accessLevel = (int) Math.round(trustScore.get() * 10);
-        
-        // Register the context with the boundary
-        return boundary.registerContext(contextId, accessLevel);
+        // Same trust-to-access-level mapping as the pushed updates
+        boundary.applyTrustScore(contextId, trustScore.get());
+        return true;
     }
 }
\ No newline at end of file
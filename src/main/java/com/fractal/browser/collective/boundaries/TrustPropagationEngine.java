@@ -0,0 +1,501 @@
+package com.fractal.browser.collective.boundaries;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * TrustPropagationEngine spreads trust across a weighted graph of contexts, such as
+ * parent/child links or network affinities. Each context's propagated trust is a
+ * damped mix of its own seed trust and the weighted average of the propagated trust
+ * of the contexts linking to it:
+ *
+ *     t(v) = (1 - d) * seed(v) + d * sum over edges u->v of w(u, v) * t(u) / sum of w(u, v)
+ *
+ * This is personalized PageRank walked backwards along the edges: a random walk from
+ * v follows incoming edges in proportion to their weight and restarts at v's seed with
+ * probability 1 - d. Contexts without incoming edges keep their seed, and scores stay
+ * within the range of the seeds.
+ *
+ * Each context keeps its incoming and outgoing edges in rows of primitive arrays,
+ * with raw weights and the total incoming weight, so an edge change patches the two
+ * rows it touches. A full run iterates all contexts in parallel on a ForkJoin pool
+ * until no score moves by more than the tolerance. After a few seeds or edges change,
+ * the next run starts from the previous scores and only pushes the changes to the
+ * contexts downstream of them.
+ *
+ * Seeds can be set from any thread without locking: the latest seed per context is
+ * held in a concurrent map that the next run drains. Edge changes are queued under a
+ * short lock and applied by the next run. Runs are serialized.
+ */
+public class TrustPropagationEngine {
+
+    // Contexts per leaf task in a parallel iteration
+    private static final int ITERATION_CHUNK_SIZE = 4096;
+
+    // A run touching more than this fraction of contexts iterates all of them
+    private static final int INCREMENTAL_LIMIT_DIVISOR = 8;
+
+    private final double damping;
+    private final double tolerance;
+    private final int maxIterations;
+    private final ForkJoinPool pool;
+
+    // Dense context codes; contexts are never removed
+    private final Map<String, Integer> contextCodes;
+    private final List<String> contextIds;
+
+    private static final int[] NO_CONTEXTS = new int[0];
+    private static final double[] NO_WEIGHTS = new double[0];
+
+    // Latest seed per context not yet applied by a run
+    private final Map<String, Double> pendingSeeds;
+
+    // Pending state, guarded by this
+    private double[] seeds;
+    private List<EdgeChange> pendingEdges;
+    private final BitSet dirty;
+
+    // Incoming edges of context v: the first inCounts[v] entries of its rows, with raw
+    // weights summing to inTotals[v]; guarded by runLock
+    private int[] inCounts = NO_CONTEXTS;
+    private int[][] inSources = new int[0][];
+    private double[][] inWeights = new double[0][];
+    private double[] inTotals = NO_WEIGHTS;
+
+    // Outgoing edges of context v with their raw weights, for pushing changes downstream; guarded by runLock
+    private int[] outCounts = NO_CONTEXTS;
+    private int[][] outTargets = new int[0][];
+    private double[][] outWeights = new double[0][];
+    private int edgeCount;
+
+    private final Object runLock = new Object();
+    private volatile double[] scores = new double[0];
+    private volatile Map<String, Object> lastRunStatistics = new HashMap<>();
+
+    /**
+     * A queued edge weight, removing the edge when zero or less.
+     */
+    private static final class EdgeChange {
+        private final int source;
+        private final int target;
+        private final double weight;
+
+        EdgeChange(int source, int target, double weight) {
+            this.source = source;
+            this.target = target;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Creates an engine that propagates on the common ForkJoin pool.
+     *
+     * @param damping The weight of propagated trust against seed trust (0.0-1.0, exclusive of 1.0)
+     * @param tolerance The largest score change at which a run counts as converged
+     * @param maxIterations The maximum number of full iterations per run
+     */
+    public TrustPropagationEngine(double damping, double tolerance, int maxIterations) {
+        this(damping, tolerance, maxIterations, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an engine.
+     *
+     * @param damping The weight of propagated trust against seed trust (0.0-1.0, exclusive of 1.0)
+     * @param tolerance The largest score change at which a run counts as converged
+     * @param maxIterations The maximum number of full iterations per run
+     * @param pool The pool that runs full iterations
+     * @throws IllegalArgumentException If the damping, tolerance or iteration limit is out of range
+     */
+    public TrustPropagationEngine(double damping, double tolerance, int maxIterations, ForkJoinPool pool) {
+        if (damping < 0.0 || damping >= 1.0) {
+            throw new IllegalArgumentException("damping must be in [0, 1): " + damping);
+        }
+        if (tolerance <= 0.0) {
+            throw new IllegalArgumentException("tolerance must be positive: " + tolerance);
+        }
+        if (maxIterations <= 0) {
+            throw new IllegalArgumentException("maxIterations must be positive: " + maxIterations);
+        }
+        this.damping = damping;
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+        this.pool = pool;
+        this.contextCodes = new ConcurrentHashMap<>();
+        this.contextIds = new ArrayList<>();
+        this.pendingSeeds = new ConcurrentHashMap<>();
+        this.seeds = new double[16];
+        this.pendingEdges = new ArrayList<>();
+        this.dirty = new BitSet();
+    }
+
+    /**
+     * Sets the seed trust of a context, adding the context if it is new. Does not lock;
+     * the latest seed set before a run is the one it uses.
+     *
+     * @param contextId The context ID
+     * @param score The context's own trust score (0.0-1.0)
+     */
+    public void setSeed(String contextId, double score) {
+        pendingSeeds.put(contextId, Math.max(0.0, Math.min(1.0, score)));
+    }
+
+    /**
+     * Sets the weight of the link along which trust flows from source to target,
+     * adding either context if it is new. A weight of zero or less removes the link.
+     *
+     * @param sourceContextId The context trust flows from
+     * @param targetContextId The context trust flows to
+     * @param weight The link weight
+     */
+    public synchronized void setEdge(String sourceContextId, String targetContextId, double weight) {
+        pendingEdges.add(new EdgeChange(code(sourceContextId), code(targetContextId), weight));
+    }
+
+    /**
+     * Removes the link from source to target, if present.
+     *
+     * @param sourceContextId The context trust flows from
+     * @param targetContextId The context trust flows to
+     */
+    public void removeEdge(String sourceContextId, String targetContextId) {
+        setEdge(sourceContextId, targetContextId, 0.0);
+    }
+
+    /**
+     * Brings the propagated scores up to date with all seed and edge changes.
+     */
+    public void propagate() {
+        synchronized (runLock) {
+            long start = System.nanoTime();
+
+            double[] runSeeds;
+            BitSet changed;
+            List<EdgeChange> runEdges;
+            int contextCount;
+            synchronized (this) {
+                // A seed set during the drain stays pending for the next run
+                for (String contextId : pendingSeeds.keySet()) {
+                    Double seed = pendingSeeds.remove(contextId);
+                    int code = code(contextId);
+                    if (seed != null && seeds[code] != seed) {
+                        seeds[code] = seed;
+                        dirty.set(code);
+                    }
+                }
+                contextCount = contextIds.size();
+                runSeeds = Arrays.copyOf(seeds, contextCount);
+                changed = (BitSet) dirty.clone();
+                dirty.clear();
+                runEdges = pendingEdges;
+                pendingEdges = new ArrayList<>();
+            }
+
+            ensureContextCapacity(contextCount);
+            for (EdgeChange edge : runEdges) {
+                if (applyEdge(edge.source, edge.target, edge.weight)) {
+                    changed.set(edge.target);
+                }
+            }
+
+            // New contexts start from their seed
+            double[] previous = scores;
+            double[] next = Arrays.copyOf(previous, contextCount);
+            for (int v = previous.length; v < contextCount; v++) {
+                next[v] = runSeeds[v];
+            }
+
+            Map<String, Object> statistics = new HashMap<>();
+            if (previous.length == 0 || changed.cardinality() > contextCount / INCREMENTAL_LIMIT_DIVISOR) {
+                next = iterateAll(next, runSeeds, statistics);
+            } else {
+                updateDownstream(next, runSeeds, changed, statistics);
+            }
+
+            statistics.put("contexts", contextCount);
+            statistics.put("edges", edgeCount);
+            statistics.put("durationMillis", (System.nanoTime() - start) / 1_000_000);
+            scores = next;
+            lastRunStatistics = statistics;
+        }
+    }
+
+    /**
+     * Gets the propagated trust of a context as of the last run.
+     *
+     * @param contextId The context ID
+     * @return The propagated trust, or empty if the context was not part of the last run
+     */
+    public Optional<Double> getScore(String contextId) {
+        Integer code = contextCodes.get(contextId);
+        double[] current = scores;
+        if (code == null || code >= current.length) {
+            return Optional.empty();
+        }
+        return Optional.of(current[code]);
+    }
+
+    /**
+     * Gets the propagated trust of every context as of the last run.
+     *
+     * @return Propagated trust by context ID
+     */
+    public Map<String, Double> getScores() {
+        double[] current = scores;
+        Map<String, Double> result = new HashMap<>(current.length * 2);
+        synchronized (this) {
+            for (int v = 0; v < current.length; v++) {
+                result.put(contextIds.get(v), current[v]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets statistics about the last run: "mode" ("full" or "incremental"),
+     * "iterations" or "contextUpdates", "converged", "contexts", "edges" and
+     * "durationMillis".
+     *
+     * @return The statistics of the last run
+     */
+    public Map<String, Object> getLastRunStatistics() {
+        return new HashMap<>(lastRunStatistics);
+    }
+
+    /**
+     * Jacobi iteration over all contexts in parallel, starting from the given scores.
+     */
+    private double[] iterateAll(double[] start, double[] runSeeds, Map<String, Object> statistics) {
+        double[] current = start;
+        double[] next = new double[current.length];
+        int iterations = 0;
+        boolean converged = false;
+
+        while (iterations < maxIterations && !converged) {
+            double maxDelta = pool.invoke(new IterationTask(current, next, runSeeds, 0, current.length));
+            double[] swap = current;
+            current = next;
+            next = swap;
+            iterations++;
+            converged = maxDelta <= tolerance;
+        }
+
+        statistics.put("mode", "full");
+        statistics.put("iterations", iterations);
+        statistics.put("converged", converged);
+        return current;
+    }
+
+    /**
+     * Forward push from the changed contexts. Each context holds a residual, the
+     * change its score still has to absorb; applying a residual passes the damped,
+     * weighted share of it on to the downstream contexts, and a context is only
+     * revisited once its residual exceeds the tolerance.
+     */
+    private void updateDownstream(double[] current, double[] runSeeds, BitSet changed, Map<String, Object> statistics) {
+        double[] residual = new double[current.length];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        BitSet queued = new BitSet(current.length);
+        for (int v = changed.nextSetBit(0); v >= 0; v = changed.nextSetBit(v + 1)) {
+            residual[v] = score(v, current, runSeeds) - current[v];
+            queue.add(v);
+            queued.set(v);
+        }
+
+        long updateLimit = (long) maxIterations * Math.max(1, current.length);
+        long updates = 0;
+        while (!queue.isEmpty() && updates < updateLimit) {
+            int v = queue.poll();
+            queued.clear(v);
+            updates++;
+
+            double delta = residual[v];
+            residual[v] = 0.0;
+            current[v] += delta;
+            int[] targets = outTargets[v];
+            double[] weights = outWeights[v];
+            for (int edge = 0; edge < outCounts[v]; edge++) {
+                int target = targets[edge];
+                residual[target] += damping * weights[edge] / inTotals[target] * delta;
+                if (Math.abs(residual[target]) > tolerance && !queued.get(target)) {
+                    queue.add(target);
+                    queued.set(target);
+                }
+            }
+        }
+
+        statistics.put("mode", "incremental");
+        statistics.put("contextUpdates", updates);
+        statistics.put("converged", queue.isEmpty());
+    }
+
+    private double score(int v, double[] current, double[] runSeeds) {
+        int count = inCounts[v];
+        if (count == 0) {
+            return runSeeds[v];
+        }
+        int[] sources = inSources[v];
+        double[] weights = inWeights[v];
+        double propagated = 0.0;
+        for (int edge = 0; edge < count; edge++) {
+            propagated += weights[edge] * current[sources[edge]];
+        }
+        return (1.0 - damping) * runSeeds[v] + damping * propagated / inTotals[v];
+    }
+
+    /**
+     * Grows the per-context rows to cover new contexts, which start without edges.
+     */
+    private void ensureContextCapacity(int contextCount) {
+        int previous = inCounts.length;
+        if (contextCount <= previous) {
+            return;
+        }
+        inCounts = Arrays.copyOf(inCounts, contextCount);
+        inSources = Arrays.copyOf(inSources, contextCount);
+        inWeights = Arrays.copyOf(inWeights, contextCount);
+        inTotals = Arrays.copyOf(inTotals, contextCount);
+        outCounts = Arrays.copyOf(outCounts, contextCount);
+        outTargets = Arrays.copyOf(outTargets, contextCount);
+        outWeights = Arrays.copyOf(outWeights, contextCount);
+        for (int v = previous; v < contextCount; v++) {
+            inSources[v] = NO_CONTEXTS;
+            inWeights[v] = NO_WEIGHTS;
+            outTargets[v] = NO_CONTEXTS;
+            outWeights[v] = NO_WEIGHTS;
+        }
+    }
+
+    /**
+     * Patches the target's incoming row and the source's outgoing row for one edge
+     * change, in time proportional to their lengths.
+     *
+     * @return true if the edge set or a weight changed
+     */
+    private boolean applyEdge(int source, int target, double weight) {
+        int in = indexOf(inSources[target], inCounts[target], source);
+        int out = indexOf(outTargets[source], outCounts[source], target);
+        if (weight > 0.0) {
+            if (in >= 0) {
+                if (inWeights[target][in] == weight) {
+                    return false;
+                }
+                inWeights[target][in] = weight;
+                outWeights[source][out] = weight;
+            } else {
+                in = inCounts[target]++;
+                if (in == inSources[target].length) {
+                    inSources[target] = Arrays.copyOf(inSources[target], Math.max(4, in * 2));
+                    inWeights[target] = Arrays.copyOf(inWeights[target], Math.max(4, in * 2));
+                }
+                inSources[target][in] = source;
+                inWeights[target][in] = weight;
+
+                out = outCounts[source]++;
+                if (out == outTargets[source].length) {
+                    outTargets[source] = Arrays.copyOf(outTargets[source], Math.max(4, out * 2));
+                    outWeights[source] = Arrays.copyOf(outWeights[source], Math.max(4, out * 2));
+                }
+                outTargets[source][out] = target;
+                outWeights[source][out] = weight;
+                edgeCount++;
+            }
+        } else {
+            if (in < 0) {
+                return false;
+            }
+            // Move the last entry of each row into the freed slot
+            int lastIn = --inCounts[target];
+            inSources[target][in] = inSources[target][lastIn];
+            inWeights[target][in] = inWeights[target][lastIn];
+            int lastOut = --outCounts[source];
+            outTargets[source][out] = outTargets[source][lastOut];
+            outWeights[source][out] = outWeights[source][lastOut];
+            edgeCount--;
+        }
+
+        // Summed afresh so repeated changes do not accumulate rounding error
+        double total = 0.0;
+        for (int edge = 0; edge < inCounts[target]; edge++) {
+            total += inWeights[target][edge];
+        }
+        inTotals[target] = total;
+        return true;
+    }
+
+    private static int indexOf(int[] row, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (row[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the dense code of a context, adding it if new. Called with this held.
+     */
+    private int code(String contextId) {
+        Integer code = contextCodes.get(contextId);
+        if (code != null) {
+            return code;
+        }
+        code = contextIds.size();
+        contextIds.add(contextId);
+        if (code == seeds.length) {
+            seeds = Arrays.copyOf(seeds, code * 2);
+        }
+        dirty.set(code);
+        contextCodes.put(contextId, code);
+        return code;
+    }
+
+    /**
+     * Recursive task computing one Jacobi iteration over a range of contexts and
+     * returning the largest score change in the range.
+     */
+    private class IterationTask extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+        
+        private final double[] current;
+        private final double[] next;
+        private final double[] runSeeds;
+        private final int start;
+        private final int end;
+
+        IterationTask(double[] current, double[] next, double[] runSeeds, int start, int end) {
+            this.current = current;
+            this.next = next;
+            this.runSeeds = runSeeds;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Double compute() {
+            if (end - start > ITERATION_CHUNK_SIZE) {
+                int middle = (start + end) >>> 1;
+                IterationTask left = new IterationTask(current, next, runSeeds, start, middle);
+                left.fork();
+                double right = new IterationTask(current, next, runSeeds, middle, end).compute();
+                return Math.max(left.join(), right);
+            }
+
+            double maxDelta = 0.0;
+            for (int v = start; v < end; v++) {
+                next[v] = score(v, current, runSeeds);
+                maxDelta = Math.max(maxDelta, Math.abs(next[v] - current[v]));
+            }
+            return maxDelta;
+        }
+    }
+}
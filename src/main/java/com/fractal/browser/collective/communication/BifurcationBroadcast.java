@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Set;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -302,12 +303,15 @@ public class BifurcationBroadcast {
         
         List<BifurcationEvent> events = new ArrayList<>();
         for (BifurcationEvent event : eventRegistry.values()) {
-            if (topic.equals(event.getTopic()) && 
-                (contextId == null || boundary.canInformationPass(event.getEventId(), contextId))) {
+            if (topic.equals(event.getTopic())) {
                 events.add(event);
             }
         }
         
+        if (contextId != null) {
+            events = filterVisible(events, contextId);
+        }
+        
         // Sort by significance (highest first)
         events.sort((e1, e2) -> Double.compare(e2.getSignificance(), e1.getSignificance()));
         
@@ -395,12 +399,29 @@ public class BifurcationBroadcast {
         events.sort((e1, e2) -> Double.compare(e2.getSignificance(), e1.getSignificance()));
         
         if (contextId != null) {
-            events.removeIf(event -> !boundary.canInformationPass(event.getEventId(), contextId));
+            events = filterVisible(events, contextId);
         }
         
         return events.subList(0, Math.min(limit, events.size()));
     }
     
+    /**
+     * Keeps the events that pass the boundary for the context, evaluated in one bulk call.
+     */
+    private List<BifurcationEvent> filterVisible(List<BifurcationEvent> events, String contextId) {
+        List<String> eventIds = new ArrayList<>(events.size());
+        for (BifurcationEvent event : events) {
+            eventIds.add(event.getEventId());
+        }
+        
+        BitSet visible = boundary.filterVisible(eventIds, contextId);
+        List<BifurcationEvent> result = new ArrayList<>(visible.cardinality());
+        for (int i = visible.nextSetBit(0); i >= 0; i = visible.nextSetBit(i + 1)) {
+            result.add(events.get(i));
+        }
+        return result;
+    }
+    
     /**
      * Gets nodes that would receive an event if broadcasted.
      * 
@@ -0,0 +1,687 @@
+package com.fractal.browser.collective.memory;
+
+import java.util.Map;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Optional;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.fractal.browser.collective.boundaries.InformationBoundary;
+
+/**
+ * ColumnarTemporalStore is a compact, column-oriented alternative to the row-oriented
+ * maps in TemporalIndexing, intended for tens of millions of items.
+ *
+ * Timestamps are stored as epoch nanoseconds in sorted long[] segments, item IDs are
+ * dictionary-encoded into int[] columns, and numeric metadata is kept in one double[]
+ * column per key (NaN where an item has no value). New items are appended to a write
+ * buffer that is sorted and sealed into an immutable segment once full. Range queries
+ * binary-search each segment, and time statistics scan the columns directly.
+ *
+ * Each row also records the item's information code from the boundary, so a query
+ * checks visibility for all of its candidates with one
+ * {@link InformationBoundary#filterVisible(BitSet, String)} call.
+ *
+ * Non-numeric metadata is not retained. Removed items are tombstoned until
+ * {@link #compact()} rewrites the segments and renumbers the dictionary. Timestamps
+ * must lie within the range of epoch nanoseconds a long can hold, roughly the years
+ * 1677 to 2262; query bounds outside it are clamped.
+ *
+ * The store is opt-in: TemporalIndexing does not delegate to it, so callers that want
+ * the columnar layout construct and feed it directly.
+ */
+public class ColumnarTemporalStore {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 65_536;
+    private static final int INITIAL_CAPACITY = 1_024;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final int segmentSize;
+    private final InformationBoundary boundary;
+    private final ZoneId timezone;
+    private final ReadWriteLock lock;
+
+    // Dictionary encoding: item ID to code for live items, code to item ID for all rows
+    private final Map<String, Integer> itemCodes;
+    private String[] codeItems;
+    private long[] codeNanos;
+    private int[] codeSegments; // Segment index, or -1 for the write buffer
+    private int[] codeRows;
+    private int[] codeBoundary; // Information code in the boundary, or -1 without one
+    private final BitSet liveCodes;
+    private int nextCode;
+
+    // Sealed, time-sorted segments and the unsorted write buffer
+    private final List<Segment> segments;
+    private Segment buffer;
+
+    /**
+     * A block of rows stored column by column.
+     */
+    private static final class Segment {
+        private long[] nanos;
+        private int[] codes;
+        private final Map<String, double[]> columns;
+        private int size;
+        private long minNanos;
+        private long maxNanos;
+
+        Segment(int capacity) {
+            this.nanos = new long[capacity];
+            this.codes = new int[capacity];
+            this.columns = new HashMap<>();
+            this.minNanos = Long.MAX_VALUE;
+            this.maxNanos = Long.MIN_VALUE;
+        }
+
+        void ensureCapacity(int capacity) {
+            if (capacity <= nanos.length) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, nanos.length * 2);
+            nanos = Arrays.copyOf(nanos, newCapacity);
+            codes = Arrays.copyOf(codes, newCapacity);
+            for (Map.Entry<String, double[]> column : columns.entrySet()) {
+                double[] grown = Arrays.copyOf(column.getValue(), newCapacity);
+                Arrays.fill(grown, size, newCapacity, Double.NaN);
+                column.setValue(grown);
+            }
+        }
+
+        double[] column(String key) {
+            return columns.computeIfAbsent(key, k -> {
+                double[] values = new double[nanos.length];
+                Arrays.fill(values, Double.NaN);
+                return values;
+            });
+        }
+
+        /**
+         * Finds the first row with a timestamp at or after the given value.
+         */
+        int lowerBound(long value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (nanos[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Creates a new ColumnarTemporalStore using UTC and no boundary checks.
+     */
+    public ColumnarTemporalStore() {
+        this(ZoneId.of("UTC"), null, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates a new ColumnarTemporalStore.
+     *
+     * @param timezone The timezone used for day-or-longer periods
+     * @param boundary Information boundary for access control, or null to skip checks
+     * @param segmentSize The number of rows per sealed segment
+     */
+    public ColumnarTemporalStore(ZoneId timezone, InformationBoundary boundary, int segmentSize) {
+        this.segmentSize = Math.max(1, segmentSize);
+        this.boundary = boundary;
+        this.timezone = timezone;
+        this.lock = new ReentrantReadWriteLock();
+        this.itemCodes = new HashMap<>();
+        this.codeItems = new String[INITIAL_CAPACITY];
+        this.codeNanos = new long[INITIAL_CAPACITY];
+        this.codeSegments = new int[INITIAL_CAPACITY];
+        this.codeRows = new int[INITIAL_CAPACITY];
+        this.codeBoundary = new int[INITIAL_CAPACITY];
+        this.liveCodes = new BitSet();
+        this.segments = new ArrayList<>();
+        this.buffer = new Segment(Math.min(INITIAL_CAPACITY, this.segmentSize));
+    }
+
+    /**
+     * Indexes an item by its timestamp. Only numeric metadata values are stored.
+     *
+     * @param itemId The item ID
+     * @param timestamp The timestamp
+     * @param metadata Additional metadata about the item
+     * @return true if indexed, false if already indexed
+     * @throws IllegalArgumentException If the timestamp cannot be held as epoch nanoseconds
+     */
+    public boolean indexItem(String itemId, Instant timestamp, Map<String, Object> metadata) {
+        long nanos;
+        try {
+            nanos = toEpochNanos(timestamp);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("timestamp out of range for epoch nanoseconds: " + timestamp);
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (itemCodes.containsKey(itemId)) {
+                return false; // Already indexed
+            }
+
+            int code = nextCode++;
+            ensureCodeCapacity(nextCode);
+            itemCodes.put(itemId, code);
+            codeItems[code] = itemId;
+            codeNanos[code] = nanos;
+            codeBoundary[code] = boundary != null ? boundary.assignInformationCode(itemId) : -1;
+            liveCodes.set(code);
+
+            // Append to the write buffer
+            int row = buffer.size;
+            buffer.ensureCapacity(row + 1);
+            buffer.nanos[row] = nanos;
+            buffer.codes[row] = code;
+            buffer.size++;
+            buffer.minNanos = Math.min(buffer.minNanos, nanos);
+            buffer.maxNanos = Math.max(buffer.maxNanos, nanos);
+            writeMetadata(buffer, row, metadata);
+            codeSegments[code] = -1;
+            codeRows[code] = row;
+
+            if (buffer.size >= segmentSize) {
+                sealBuffer();
+            }
+
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces an existing item's numeric metadata.
+     *
+     * @param itemId The item ID
+     * @param metadata The new metadata
+     * @return true if updated, false if item not found
+     */
+    public boolean updateItemMetadata(String itemId, Map<String, Object> metadata) {
+        lock.writeLock().lock();
+        try {
+            Integer code = itemCodes.get(itemId);
+            if (code == null) {
+                return false;
+            }
+
+            Segment segment = codeSegments[code] < 0 ? buffer : segments.get(codeSegments[code]);
+            int row = codeRows[code];
+            for (double[] column : segment.columns.values()) {
+                column[row] = Double.NaN;
+            }
+            writeMetadata(segment, row, metadata);
+
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an item. Its row and dictionary code are tombstoned until the next compaction.
+     *
+     * @param itemId The item ID
+     * @return true if removed, false if not found
+     */
+    public boolean removeItem(String itemId) {
+        lock.writeLock().lock();
+        try {
+            Integer code = itemCodes.remove(itemId);
+            if (code == null) {
+                return false;
+            }
+            liveCodes.clear(code);
+            codeItems[code] = null;
+            if (boundary != null) {
+                boundary.releaseInformationCode(itemId);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets an item's timestamp.
+     *
+     * @param itemId The item ID
+     * @return An Optional containing the timestamp if found
+     */
+    public Optional<Instant> getItemTimestamp(String itemId) {
+        lock.readLock().lock();
+        try {
+            Integer code = itemCodes.get(itemId);
+            return code == null ? Optional.empty() : Optional.of(toInstant(codeNanos[code]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of live items.
+     *
+     * @return The item count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return itemCodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds items created within a time range using binary search over each segment.
+     *
+     * @param start The start time (inclusive)
+     * @param end The end time (inclusive)
+     * @param contextId The context ID for boundary checks
+     * @return A list of item IDs in the time range
+     */
+    public List<String> findItemsInTimeRange(Instant start, Instant end, String contextId) {
+        long startNanos = clampToEpochNanos(start);
+        long endNanos = clampToEpochNanos(end);
+        List<String> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            // Collect the live rows in range, then check them against the boundary at once
+            int[] candidates = new int[16];
+            int count = 0;
+            for (Segment segment : segments) {
+                if (segment.maxNanos < startNanos || segment.minNanos > endNanos) {
+                    continue;
+                }
+                for (int row = segment.lowerBound(startNanos); row < segment.size && segment.nanos[row] <= endNanos; row++) {
+                    int code = segment.codes[row];
+                    if (liveCodes.get(code)) {
+                        candidates = append(candidates, count++, code);
+                    }
+                }
+            }
+
+            // The write buffer is unsorted and bounded by the segment size
+            for (int row = 0; row < buffer.size; row++) {
+                long nanos = buffer.nanos[row];
+                int code = buffer.codes[row];
+                if (nanos >= startNanos && nanos <= endNanos && liveCodes.get(code)) {
+                    candidates = append(candidates, count++, code);
+                }
+            }
+
+            BitSet candidateCodes = new BitSet(nextCode);
+            for (int i = 0; i < count; i++) {
+                candidateCodes.set(candidates[i]);
+            }
+            BitSet visible = visibleCodes(candidateCodes, contextId);
+            for (int i = 0; i < count; i++) {
+                if (visible.get(candidates[i])) {
+                    result.add(codeItems[candidates[i]]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets time-based statistics by scanning the timestamp and metadata columns.
+     * The result has the same shape as {@link TemporalIndexing#getTimeStatistics}.
+     *
+     * @param unit The time unit for aggregation
+     * @param contextId The context ID for boundary checks
+     * @return Statistics by time period
+     */
+    public Map<Instant, Map<String, Object>> getTimeStatistics(ChronoUnit unit, String contextId) {
+        Map<Long, PeriodAccumulator> periods = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            BitSet visible = visibleCodes(liveCodes, contextId);
+            for (Segment segment : segments) {
+                accumulate(segment, unit, visible, periods);
+            }
+            accumulate(buffer, unit, visible, periods);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Instant, Map<String, Object>> statistics = new HashMap<>();
+        for (Map.Entry<Long, PeriodAccumulator> entry : periods.entrySet()) {
+            PeriodAccumulator accumulator = entry.getValue();
+
+            Map<String, Object> periodStats = new HashMap<>();
+            periodStats.put("itemCount", accumulator.itemCount);
+            for (Map.Entry<String, double[]> key : accumulator.stats.entrySet()) {
+                double[] stats = key.getValue();
+                periodStats.put("avg_" + key.getKey(), stats[0] / stats[1]);
+                periodStats.put("min_" + key.getKey(), stats[2]);
+                periodStats.put("max_" + key.getKey(), stats[3]);
+            }
+
+            statistics.put(toInstant(entry.getKey()), periodStats);
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Rewrites all segments without tombstoned rows, sealing the write buffer as well,
+     * and rebuilds the dictionary so live items get dense codes and the codes of removed
+     * items are released.
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            List<Segment> oldSegments = new ArrayList<>(segments);
+            oldSegments.add(buffer);
+            segments.clear();
+            buffer = new Segment(Math.min(INITIAL_CAPACITY, segmentSize));
+
+            // Renumber the live codes in row order
+            String[] oldItems = codeItems;
+            long[] oldNanos = codeNanos;
+            int[] oldBoundary = codeBoundary;
+            BitSet oldLive = (BitSet) liveCodes.clone();
+            int capacity = Math.max(INITIAL_CAPACITY, oldLive.cardinality());
+            codeItems = new String[capacity];
+            codeNanos = new long[capacity];
+            codeSegments = new int[capacity];
+            codeRows = new int[capacity];
+            codeBoundary = new int[capacity];
+            itemCodes.clear();
+            liveCodes.clear();
+            nextCode = 0;
+
+            for (Segment segment : oldSegments) {
+                for (int row = 0; row < segment.size; row++) {
+                    int oldCode = segment.codes[row];
+                    if (!oldLive.get(oldCode)) {
+                        continue;
+                    }
+                    int code = nextCode++;
+                    itemCodes.put(oldItems[oldCode], code);
+                    codeItems[code] = oldItems[oldCode];
+                    codeNanos[code] = oldNanos[oldCode];
+                    codeBoundary[code] = oldBoundary[oldCode];
+                    liveCodes.set(code);
+
+                    int newRow = buffer.size;
+                    buffer.ensureCapacity(newRow + 1);
+                    buffer.nanos[newRow] = segment.nanos[row];
+                    buffer.codes[newRow] = code;
+                    buffer.size++;
+                    buffer.minNanos = Math.min(buffer.minNanos, segment.nanos[row]);
+                    buffer.maxNanos = Math.max(buffer.maxNanos, segment.nanos[row]);
+                    for (Map.Entry<String, double[]> column : segment.columns.entrySet()) {
+                        double value = column.getValue()[row];
+                        if (!Double.isNaN(value)) {
+                            buffer.column(column.getKey())[newRow] = value;
+                        }
+                    }
+                    codeSegments[code] = -1;
+                    codeRows[code] = newRow;
+
+                    if (buffer.size >= segmentSize) {
+                        sealBuffer();
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Running totals for one statistics period.
+     */
+    private static final class PeriodAccumulator {
+        private int itemCount;
+        private final Map<String, double[]> stats = new HashMap<>(); // key -> {sum, count, min, max}
+    }
+
+    /**
+     * Adds a segment's visible rows to the per-period accumulators. Must hold the read lock.
+     */
+    private void accumulate(Segment segment, ChronoUnit unit, BitSet visible, Map<Long, PeriodAccumulator> periods) {
+        // Sealed segments are sorted, so the current period is usually reused across rows
+        long periodStart = 0;
+        long periodEnd = Long.MIN_VALUE;
+        PeriodAccumulator accumulator = null;
+
+        for (int row = 0; row < segment.size; row++) {
+            if (!visible.get(segment.codes[row])) {
+                continue;
+            }
+
+            long nanos = segment.nanos[row];
+            if (accumulator == null || nanos < periodStart || nanos >= periodEnd) {
+                periodStart = truncateToUnit(nanos, unit);
+                periodEnd = nextPeriodStart(periodStart, unit);
+                accumulator = periods.computeIfAbsent(periodStart, k -> new PeriodAccumulator());
+            }
+
+            accumulator.itemCount++;
+            for (Map.Entry<String, double[]> column : segment.columns.entrySet()) {
+                double value = column.getValue()[row];
+                if (!Double.isNaN(value)) {
+                    double[] stats = accumulator.stats.computeIfAbsent(column.getKey(),
+                            k -> new double[] {0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY});
+                    stats[0] += value;
+                    stats[1]++;
+                    stats[2] = Math.min(stats[2], value);
+                    stats[3] = Math.max(stats[3], value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts the write buffer by timestamp and seals it as a segment. Must hold the write lock.
+     */
+    private void sealBuffer() {
+        Segment sealed = new Segment(buffer.size);
+        int[] order = sortedOrder(buffer.nanos, buffer.size);
+        int segmentIndex = segments.size();
+
+        for (int newRow = 0; newRow < order.length; newRow++) {
+            int oldRow = order[newRow];
+            sealed.nanos[newRow] = buffer.nanos[oldRow];
+            sealed.codes[newRow] = buffer.codes[oldRow];
+            codeSegments[buffer.codes[oldRow]] = segmentIndex;
+            codeRows[buffer.codes[oldRow]] = newRow;
+        }
+        for (Map.Entry<String, double[]> column : buffer.columns.entrySet()) {
+            double[] source = column.getValue();
+            double[] target = sealed.column(column.getKey());
+            for (int newRow = 0; newRow < order.length; newRow++) {
+                target[newRow] = source[order[newRow]];
+            }
+        }
+        sealed.size = buffer.size;
+        sealed.minNanos = buffer.minNanos;
+        sealed.maxNanos = buffer.maxNanos;
+
+        segments.add(sealed);
+        buffer = new Segment(Math.min(INITIAL_CAPACITY, segmentSize));
+    }
+
+    /**
+     * Computes the row order that sorts the given timestamps, using a stable merge sort
+     * on primitive indexes.
+     */
+    private static int[] sortedOrder(long[] nanos, int size) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        int[] scratch = new int[size];
+
+        for (int width = 1; width < size; width *= 2) {
+            for (int low = 0; low < size - width; low += 2 * width) {
+                int mid = low + width;
+                int high = Math.min(low + 2 * width, size);
+                int left = low;
+                int right = mid;
+                int out = low;
+                while (left < mid && right < high) {
+                    scratch[out++] = nanos[order[right]] < nanos[order[left]] ? order[right++] : order[left++];
+                }
+                while (left < mid) {
+                    scratch[out++] = order[left++];
+                }
+                while (right < high) {
+                    scratch[out++] = order[right++];
+                }
+                System.arraycopy(scratch, low, order, low, high - low);
+            }
+        }
+
+        return order;
+    }
+
+    private void writeMetadata(Segment segment, int row, Map<String, Object> metadata) {
+        if (metadata == null) {
+            return;
+        }
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            if (entry.getValue() instanceof Number) {
+                segment.column(entry.getKey())[row] = ((Number) entry.getValue()).doubleValue();
+            }
+        }
+    }
+
+    private void ensureCodeCapacity(int capacity) {
+        if (capacity <= codeItems.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, codeItems.length * 2);
+        codeItems = Arrays.copyOf(codeItems, newCapacity);
+        codeNanos = Arrays.copyOf(codeNanos, newCapacity);
+        codeSegments = Arrays.copyOf(codeSegments, newCapacity);
+        codeRows = Arrays.copyOf(codeRows, newCapacity);
+        codeBoundary = Arrays.copyOf(codeBoundary, newCapacity);
+    }
+
+    private static int[] append(int[] values, int index, int value) {
+        if (index == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[index] = value;
+        return values;
+    }
+
+    /**
+     * Narrows a set of live dictionary codes to the items visible in a context, mapping
+     * them to boundary codes and filtering those with a single bitmap AND. Must hold the
+     * read lock.
+     *
+     * @return A new bitmap of the visible dictionary codes
+     */
+    private BitSet visibleCodes(BitSet codes, String contextId) {
+        if (boundary == null) {
+            return (BitSet) codes.clone();
+        }
+
+        BitSet informationCodes = new BitSet();
+        for (int code = codes.nextSetBit(0); code >= 0; code = codes.nextSetBit(code + 1)) {
+            informationCodes.set(codeBoundary[code]);
+        }
+        BitSet passing = boundary.filterVisible(informationCodes, contextId);
+
+        BitSet visible = new BitSet(nextCode);
+        for (int code = codes.nextSetBit(0); code >= 0; code = codes.nextSetBit(code + 1)) {
+            if (passing.get(codeBoundary[code])) {
+                visible.set(code);
+            }
+        }
+        return visible;
+    }
+
+    /**
+     * Truncates epoch nanoseconds to the start of the period containing them.
+     * Sub-day units are computed arithmetically; longer units use the configured timezone.
+     */
+    private long truncateToUnit(long nanos, ChronoUnit unit) {
+        switch (unit) {
+            case SECONDS:
+                return Math.floorDiv(nanos, NANOS_PER_SECOND) * NANOS_PER_SECOND;
+            case MINUTES:
+                return Math.floorDiv(nanos, 60 * NANOS_PER_SECOND) * 60 * NANOS_PER_SECOND;
+            case HOURS:
+                return Math.floorDiv(nanos, 3600 * NANOS_PER_SECOND) * 3600 * NANOS_PER_SECOND;
+            case DAYS:
+            case WEEKS:
+            case MONTHS:
+            case YEARS:
+                LocalDate date = LocalDate.ofInstant(toInstant(nanos), timezone);
+                if (unit == ChronoUnit.WEEKS) {
+                    date = date.minusDays(date.getDayOfWeek().getValue() - 1);
+                } else if (unit == ChronoUnit.MONTHS) {
+                    date = date.withDayOfMonth(1);
+                } else if (unit == ChronoUnit.YEARS) {
+                    date = date.withDayOfYear(1);
+                }
+                return clampToEpochNanos(date.atStartOfDay(timezone).toInstant());
+            default:
+                return nanos;
+        }
+    }
+
+    private long nextPeriodStart(long periodStart, ChronoUnit unit) {
+        switch (unit) {
+            case SECONDS:
+            case MINUTES:
+            case HOURS:
+                long length = unit.getDuration().toNanos();
+                return periodStart > Long.MAX_VALUE - length ? Long.MAX_VALUE : periodStart + length;
+            case DAYS:
+            case WEEKS:
+            case MONTHS:
+            case YEARS:
+                LocalDate date = LocalDate.ofInstant(toInstant(periodStart), timezone);
+                return clampToEpochNanos(date.plus(1, unit).atStartOfDay(timezone).toInstant());
+            default:
+                return periodStart + 1;
+        }
+    }
+
+    private static long toEpochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND), instant.getNano());
+    }
+
+    /**
+     * Converts an instant to epoch nanoseconds, saturating at the ends of the range.
+     */
+    private static long clampToEpochNanos(Instant instant) {
+        try {
+            return toEpochNanos(instant);
+        } catch (ArithmeticException e) {
+            return instant.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    private static Instant toInstant(long epochNanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                Math.floorMod(epochNanos, NANOS_PER_SECOND));
+    }
+}
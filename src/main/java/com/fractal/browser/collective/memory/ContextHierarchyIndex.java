@@ -0,0 +1,164 @@
+package com.fractal.browser.collective.memory;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Depth and ancestor index over the context tree of {@link SharedContextRegistry}.
+ *
+ * Contexts are never removed and never change parent, so the tree only grows by
+ * leaves. Each context gets an immutable node holding its depth and its ancestor
+ * array, where entry k is the ancestor 2^k levels up. Depth lookups are O(1); the
+ * ancestor at any distance, and with it subtree membership, takes O(log depth) jumps.
+ * A node is derived from its parent's node alone, so concurrent creates need no
+ * locking, and roots are kept in their own set.
+ */
+final class ContextHierarchyIndex {
+
+    private static final Node[] NO_ANCESTORS = new Node[0];
+
+    private final Map<String, Node> nodes;
+    private final Set<String> roots;
+
+    ContextHierarchyIndex() {
+        this.nodes = new ConcurrentHashMap<>();
+        this.roots = ConcurrentHashMap.newKeySet();
+    }
+
+    private static final class Node {
+        private final String contextId;
+        private final int depth;
+        // ancestors[k] is the ancestor 2^k levels up
+        private final Node[] ancestors;
+
+        Node(String contextId, Node parent) {
+            this.contextId = contextId;
+            if (parent == null) {
+                this.depth = 0;
+                this.ancestors = NO_ANCESTORS;
+                return;
+            }
+            this.depth = parent.depth + 1;
+            this.ancestors = new Node[32 - Integer.numberOfLeadingZeros(depth)];
+            ancestors[0] = parent;
+            for (int k = 1; k < ancestors.length; k++) {
+                ancestors[k] = ancestors[k - 1].ancestors[k - 1];
+            }
+        }
+
+        /**
+         * Follows the ancestor array up the given number of levels, at most depth.
+         */
+        Node up(int levels) {
+            Node node = this;
+            for (int k = 0; levels != 0; k++, levels >>>= 1) {
+                if ((levels & 1) != 0) {
+                    node = node.ancestors[k];
+                }
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Adds a context below its parent, or as a root when the parent is null. The parent
+     * must have been added first.
+     *
+     * @return false if the parent is unknown or the context was already added
+     */
+    boolean add(String contextId, String parentContextId) {
+        Node parent = null;
+        if (parentContextId != null) {
+            parent = nodes.get(parentContextId);
+            if (parent == null) {
+                return false;
+            }
+        }
+        if (nodes.putIfAbsent(contextId, new Node(contextId, parent)) != null) {
+            return false;
+        }
+        if (parentContextId == null) {
+            roots.add(contextId);
+        }
+        return true;
+    }
+
+    /**
+     * Adds a batch of contexts whose parents may appear in any order, walking each
+     * unresolved parent chain iteratively. A context whose parent chain never reaches a
+     * root, because a parent is missing or the chain loops, is indexed at depth 0
+     * without becoming a root.
+     *
+     * @param parents Parent context ID by context ID, null for roots
+     */
+    void addAll(Map<String, String> parents) {
+        ArrayDeque<String> chain = new ArrayDeque<>();
+        Set<String> onChain = new HashSet<>();
+        for (String contextId : parents.keySet()) {
+            // Collect the unresolved ancestors, nearest last
+            String current = contextId;
+            while (current != null && !nodes.containsKey(current) && parents.containsKey(current)
+                    && onChain.add(current)) {
+                chain.push(current);
+                current = parents.get(current);
+            }
+
+            while (!chain.isEmpty()) {
+                String id = chain.pop();
+                onChain.remove(id);
+                String parentId = parents.get(id);
+                Node parent = parentId != null ? nodes.get(parentId) : null;
+                nodes.putIfAbsent(id, new Node(id, parent));
+                if (parentId == null) {
+                    roots.add(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the depth of a context, 0 for roots.
+     *
+     * @return The depth, or -1 if the context is unknown
+     */
+    int depth(String contextId) {
+        Node node = nodes.get(contextId);
+        return node != null ? node.depth : -1;
+    }
+
+    /**
+     * Gets the ancestor the given number of levels above a context.
+     *
+     * @return The ancestor's context ID, or null if the context is unknown or not that deep
+     */
+    String ancestor(String contextId, int levels) {
+        Node node = nodes.get(contextId);
+        if (node == null || levels < 0 || levels > node.depth) {
+            return null;
+        }
+        return node.up(levels).contextId;
+    }
+
+    /**
+     * Checks whether a context lies in the subtree rooted at another, itself included.
+     */
+    boolean isInSubtree(String contextId, String subtreeRootId) {
+        Node node = nodes.get(contextId);
+        Node root = nodes.get(subtreeRootId);
+        if (node == null || root == null || root.depth > node.depth) {
+            return false;
+        }
+        return node.up(node.depth - root.depth) == root;
+    }
+
+    /**
+     * Gets the IDs of all root contexts, as a live read-only view.
+     */
+    Set<String> roots() {
+        return Collections.unmodifiableSet(roots);
+    }
+}
@@ -0,0 +1,66 @@
+package com.fractal.browser.collective.memory;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps string IDs to dense int codes and back. Codes are assigned in order from 0 and
+ * are stable for the lifetime of the table, so membership structures can hold 4-byte
+ * codes instead of references to the ID strings, which are kept here once.
+ *
+ * Instances are safe to share between threads. Lookups of known IDs do not lock.
+ */
+final class IdInterner {
+
+    private final Map<String, Integer> codes;
+
+    // ids[code] is the ID of code; replaced when grown, guarded by this for writes
+    private volatile String[] ids;
+    private int count;
+
+    IdInterner() {
+        this.codes = new ConcurrentHashMap<>();
+        this.ids = new String[16];
+    }
+
+    /**
+     * Gets the code of an ID, assigning the next code if the ID is new.
+     */
+    int intern(String id) {
+        Integer code = codes.get(id);
+        if (code != null) {
+            return code;
+        }
+        synchronized (this) {
+            code = codes.get(id);
+            if (code != null) {
+                return code;
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            // Written before the code is published, so a reader holding the code sees it
+            ids[count] = id;
+            codes.put(id, count);
+            return count++;
+        }
+    }
+
+    /**
+     * Gets the code of an ID without assigning one.
+     *
+     * @return The code, or -1 if the ID has never been interned
+     */
+    int code(String id) {
+        Integer code = codes.get(id);
+        return code != null ? code : -1;
+    }
+
+    /**
+     * Gets the ID of a code returned by {@link #intern}.
+     */
+    String id(int code) {
+        return ids[code];
+    }
+}
@@ -1,5 +1,6 @@
 package com.fractal.browser.collective.memory;
 
+import java.util.ArrayDeque;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
@@ -7,12 +8,19 @@ import java.util.ArrayList;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.time.Instant;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.UUID;
 import java.util.Optional;
+import java.util.RandomAccess;
 import java.util.Collections;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.fractal.browser.collective.boundaries.InformationBoundary;
 
@@ -23,14 +31,35 @@ import com.fractal.browser.collective.boundaries.InformationBoundary;
  * 
  * This class applies fractal patterns to context management, allowing for nested contexts
  * and multi-scale context relationships.
+ * 
+ * Changes to a context are serialized by one of a fixed set of striped locks chosen by
+ * the context ID, so nodes joining and leaving unrelated contexts rarely contend, and
+ * reads go straight to the concurrent indexes without locking. Name uniqueness is
+ * enforced atomically by the name index. Each change takes a full snapshot of the
+ * context under its lock and stores it after the lock is released; a snapshot that
+ * reaches the store after a newer one for the same context is dropped. Wrapping the
+ * persistence strategy in a {@link WriteBehindPersistence} takes storage latency off
+ * the callers' path altogether.
+ * 
+ * A {@link ContextHierarchyIndex} answers depth, ancestor, subtree membership and root
+ * queries without walking the tree.
+ * 
+ * Node and context IDs are interned into dense int codes, and memberships are held as
+ * sorted arrays of those codes, both per context and per node, so a membership costs
+ * a few bytes on each side rather than a hash set entry and its boxed references.
  */
 public class SharedContextRegistry {
     
     // Maps context IDs to their data
     private final Map<String, Context> contextRegistry;
     
-    // Maps node IDs to the contexts they participate in
-    private final Map<String, Set<String>> nodeContexts;
+    // Dense codes of the node and context IDs held by the membership sets
+    private final IdInterner nodeIds;
+    private final IdInterner contextIds;
+    
+    // Context codes per node, indexed by node code; replaced when grown under nodeContextsLock
+    private volatile AtomicReferenceArray<SortedIntSet> nodeContexts;
+    private final Object nodeContextsLock = new Object();
     
     // Maps parent context IDs to child context IDs
     private final Map<String, Set<String>> contextHierarchy;
@@ -38,14 +67,26 @@ public class SharedContextRegistry {
     // Maps context names to context IDs
     private final Map<String, String> contextNameIndex;
     
+    // Depths, ancestors and roots of the context tree
+    private final ContextHierarchyIndex hierarchyIndex;
+    
     // Information boundary for access control
     private final InformationBoundary boundary;
     
     // Persistence strategy for durable storage
     private final PersistenceStrategy persistenceStrategy;
     
-    // Lock for context operations
-    private final ReadWriteLock contextLock;
+    // Number of striped context locks, a power of two
+    private static final int LOCK_STRIPES = 64;
+    
+    // Striped locks serializing changes to each context
+    private final Lock[] contextLocks;
+    
+    // Records per leaf task when decoding persisted contexts
+    private static final int LOAD_CHUNK_SIZE = 1024;
+    
+    // Statistics of the load from persistence
+    private volatile Map<String, Object> loadStatistics = new HashMap<>();
     
     /**
      * Represents a shared context within the collective.
@@ -58,26 +99,30 @@ public class SharedContextRegistry {
         private final Instant creationTime;
         private final Instant lastActivity;
         private final Map<String, Object> metadata;
-        private final Set<String> participantNodeIds;
+        // Codes of the participating nodes in nodeIds
+        private final IdInterner nodeIds;
+        private final SortedIntSet participants;
         private final String parentContextId; // null for root contexts
-        private boolean active;
+        private volatile boolean active;
+        
+        // Sequence of the latest snapshot taken and the latest stored; guarded by the
+        // context's stripe lock and persistMonitor respectively
+        private long snapshotSequence;
+        private long storedSequence;
+        private final Object persistMonitor = new Object();
         
         /**
          * Creates a new context.
          */
         public Context(String name, String description, String creatorNodeId, 
                 Map<String, Object> metadata, String parentContextId) {
-            this.contextId = UUID.randomUUID().toString();
-            this.name = name;
-            this.description = description;
-            this.creatorNodeId = creatorNodeId;
-            this.creationTime = Instant.now();
-            this.lastActivity = this.creationTime;
-            this.metadata = new HashMap<>(metadata);
-            this.participantNodeIds = Collections.synchronizedSet(new HashSet<>());
-            this.participantNodeIds.add(creatorNodeId); // Creator is first participant
-            this.parentContextId = parentContextId;
-            this.active = true;
+            this(name, description, creatorNodeId, metadata, parentContextId, new IdInterner());
+        }
+        
+        Context(String name, String description, String creatorNodeId, 
+                Map<String, Object> metadata, String parentContextId, IdInterner nodeIds) {
+            this(UUID.randomUUID().toString(), name, description, creatorNodeId, Instant.now(), null, metadata,
+                    Collections.singleton(creatorNodeId), parentContextId, true, nodeIds); // Creator is first participant
         }
         
         /**
@@ -86,14 +131,28 @@ public class SharedContextRegistry {
         public Context(String contextId, String name, String description, String creatorNodeId,
                 Instant creationTime, Instant lastActivity, Map<String, Object> metadata,
                 Set<String> participantNodeIds, String parentContextId, boolean active) {
+            this(contextId, name, description, creatorNodeId, creationTime, lastActivity, metadata,
+                    participantNodeIds, parentContextId, active, new IdInterner());
+        }
+        
+        /**
+         * Creates a context whose participants are interned in the given table.
+         */
+        Context(String contextId, String name, String description, String creatorNodeId,
+                Instant creationTime, Instant lastActivity, Map<String, Object> metadata,
+                Set<String> participantNodeIds, String parentContextId, boolean active, IdInterner nodeIds) {
             this.contextId = contextId;
             this.name = name;
             this.description = description;
             this.creatorNodeId = creatorNodeId;
             this.creationTime = creationTime;
-            this.lastActivity = lastActivity;
+            this.lastActivity = lastActivity != null ? lastActivity : creationTime;
             this.metadata = new HashMap<>(metadata);
-            this.participantNodeIds = Collections.synchronizedSet(new HashSet<>(participantNodeIds));
+            this.nodeIds = nodeIds;
+            this.participants = new SortedIntSet();
+            for (String nodeId : participantNodeIds) {
+                participants.add(nodeIds.intern(nodeId));
+            }
             this.parentContextId = parentContextId;
             this.active = active;
         }
@@ -106,10 +165,32 @@ public class SharedContextRegistry {
         public Instant getCreationTime() { return creationTime; }
         public Instant getLastActivity() { return lastActivity; }
         public Map<String, Object> getMetadata() { return Collections.unmodifiableMap(metadata); }
-        public Set<String> getParticipantNodeIds() { return Collections.unmodifiableSet(participantNodeIds); }
         public String getParentContextId() { return parentContextId; }
         public boolean isActive() { return active; }
         
+        /**
+         * Gets a snapshot of the participating node IDs.
+         * 
+         * @return An unmodifiable set of node IDs
+         */
+        public Set<String> getParticipantNodeIds() {
+            int[] codes = participants.toArray();
+            Set<String> nodes = new HashSet<>(codes.length * 2);
+            for (int code : codes) {
+                nodes.add(nodeIds.id(code));
+            }
+            return Collections.unmodifiableSet(nodes);
+        }
+        
+        /**
+         * Gets the number of participating nodes.
+         * 
+         * @return The participant count
+         */
+        public int getParticipantCount() {
+            return participants.size();
+        }
+        
         /**
          * Adds a participant to this context.
          * 
@@ -117,7 +198,7 @@ public class SharedContextRegistry {
          * @return true if added, false if already a participant
          */
         public boolean addParticipant(String nodeId) {
-            return participantNodeIds.add(nodeId);
+            return participants.add(nodeIds.intern(nodeId));
         }
         
         /**
@@ -132,7 +213,8 @@ public class SharedContextRegistry {
                 return false;
             }
             
-            return participantNodeIds.remove(nodeId);
+            int code = nodeIds.code(nodeId);
+            return code >= 0 && participants.remove(code);
         }
         
         /**
@@ -149,7 +231,21 @@ public class SharedContextRegistry {
          * @return true if participant, false otherwise
          */
         public boolean isParticipant(String nodeId) {
-            return participantNodeIds.contains(nodeId);
+            int code = nodeIds.code(nodeId);
+            return code >= 0 && participants.contains(code);
+        }
+    }
+    
+    /**
+     * Persistence data for a context, numbered in the order the changes were made.
+     */
+    private static final class Snapshot {
+        private final long sequence;
+        private final Map<String, Object> data;
+        
+        Snapshot(long sequence, Map<String, Object> data) {
+            this.sequence = sequence;
+            this.data = data;
         }
     }
     
@@ -158,39 +254,273 @@ public class SharedContextRegistry {
      */
     public SharedContextRegistry(InformationBoundary boundary, PersistenceStrategy persistenceStrategy) {
         this.contextRegistry = new ConcurrentHashMap<>();
-        this.nodeContexts = new ConcurrentHashMap<>();
+        this.nodeIds = new IdInterner();
+        this.contextIds = new IdInterner();
+        this.nodeContexts = new AtomicReferenceArray<>(16);
         this.contextHierarchy = new ConcurrentHashMap<>();
         this.contextNameIndex = new ConcurrentHashMap<>();
+        this.hierarchyIndex = new ContextHierarchyIndex();
         this.boundary = boundary;
         this.persistenceStrategy = persistenceStrategy;
-        this.contextLock = new ReentrantReadWriteLock();
+        this.contextLocks = new Lock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            contextLocks[i] = new ReentrantLock();
+        }
         
         // Load existing contexts from persistence if available
         loadFromPersistence();
     }
     
     /**
-     * Loads existing contexts from the persistence layer.
+     * Loads existing contexts from the persistence layer. Records are decoded in
+     * parallel, then the registry and its indexes are filled in one bulk pass; this runs
+     * before the registry is published, so nothing needs locking. Records that cannot
+     * be decoded, or repeat an ID already loaded, are skipped.
      */
     private void loadFromPersistence() {
         if (persistenceStrategy != null) {
             try {
+                long start = System.nanoTime();
                 List<Map<String, Object>> persistedContexts = persistenceStrategy.loadAll("contexts");
+                if (!(persistedContexts instanceof RandomAccess)) {
+                    persistedContexts = new ArrayList<>(persistedContexts);
+                }
+                long readNanos = System.nanoTime() - start;
                 
-                // Process each persisted context
-                for (Map<String, Object> data : persistedContexts) {
-                    // In a real implementation, this would convert the data to a Context
-                    // and load it into the registry, updating all indexes
-                    
-                    // For now, just log that we would load contexts
-                    System.out.println("Would load context: " + data.get("contextId"));
+                // Decode each persisted context
+                Context[] decoded = new Context[persistedContexts.size()];
+                ForkJoinPool.commonPool().invoke(new DecodeTask(persistedContexts, decoded, nodeIds, 0, decoded.length));
+                long decodeNanos = System.nanoTime() - start - readNanos;
+                
+                // Build the registry and indexes
+                Map<String, Context> contexts = new HashMap<>(decoded.length * 2);
+                Map<String, String> names = new HashMap<>(decoded.length * 2);
+                Map<String, Set<String>> children = new HashMap<>();
+                Map<String, String> parents = new HashMap<>(decoded.length * 2);
+                int skipped = 0;
+                for (Context context : decoded) {
+                    if (context == null || contexts.putIfAbsent(context.getContextId(), context) != null) {
+                        skipped++;
+                        continue;
+                    }
+                    names.putIfAbsent(context.getName(), context.getContextId());
+                    parents.put(context.getContextId(), context.getParentContextId());
+                    int contextCode = contextIds.intern(context.getContextId());
+                    for (int nodeCode : context.participants.toArray()) {
+                        nodeContextsForUpdate(nodeCode).add(contextCode);
+                    }
+                    if (context.getParentContextId() != null) {
+                        children.computeIfAbsent(context.getParentContextId(), id -> ConcurrentHashMap.newKeySet())
+                                .add(context.getContextId());
+                    }
                 }
+                hierarchyIndex.addAll(parents);
+                contextRegistry.putAll(contexts);
+                contextNameIndex.putAll(names);
+                contextHierarchy.putAll(children);
+                
+                long totalNanos = System.nanoTime() - start;
+                Map<String, Object> statistics = new HashMap<>();
+                statistics.put("loaded", contexts.size());
+                statistics.put("skipped", skipped);
+                statistics.put("readMillis", readNanos / 1_000_000);
+                statistics.put("decodeMillis", decodeNanos / 1_000_000);
+                statistics.put("indexMillis", (totalNanos - readNanos - decodeNanos) / 1_000_000);
+                statistics.put("durationMillis", totalNanos / 1_000_000);
+                statistics.put("contextsPerSecond", contexts.size() * 1e9 / Math.max(1, totalNanos));
+                loadStatistics = statistics;
             } catch (Exception e) {
                 System.err.println("Error loading contexts from persistence: " + e.getMessage());
             }
         }
     }
     
+    /**
+     * Gets statistics about loading the registry from persistence: "loaded", "skipped",
+     * "readMillis", "decodeMillis", "indexMillis", "durationMillis" and
+     * "contextsPerSecond". Empty if nothing was loaded.
+     *
+     * @return A map of load statistics
+     */
+    public Map<String, Object> getLoadStatistics() {
+        return new HashMap<>(loadStatistics);
+    }
+    
+    /**
+     * Gets statistics about the memory held by context memberships: "memberships" (the
+     * number of node-context pairs), "bytes" (the estimated heap retained by the
+     * membership sets of both directions and the node index) and "bytesPerMembership".
+     *
+     * @return A map of membership statistics
+     */
+    public Map<String, Object> getMembershipStatistics() {
+        long memberships = 0;
+        long bytes = 0;
+        for (Context context : contextRegistry.values()) {
+            memberships += context.participants.size();
+            bytes += context.participants.footprintBytes();
+        }
+        AtomicReferenceArray<SortedIntSet> sets = nodeContexts;
+        bytes += 16 + 4L * sets.length();
+        for (int code = 0; code < sets.length(); code++) {
+            SortedIntSet contexts = sets.get(code);
+            if (contexts != null) {
+                bytes += contexts.footprintBytes();
+            }
+        }
+        
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("memberships", memberships);
+        statistics.put("bytes", bytes);
+        statistics.put("bytesPerMembership", memberships > 0 ? (double) bytes / memberships : 0.0);
+        return statistics;
+    }
+    
+    /**
+     * Decodes a persisted context record, the inverse of {@link #snapshot}.
+     *
+     * @return The context, or null if the record is malformed
+     */
+    private static Context decodeContext(Map<String, Object> data, IdInterner nodeIds) {
+        try {
+            String contextId = (String) data.get("contextId");
+            String name = (String) data.get("name");
+            String creatorNodeId = (String) data.get("creatorNodeId");
+            Object storedCreationTime = data.get("creationTime");
+            Object storedLastActivity = data.get("lastActivity");
+            if (contextId == null || name == null || creatorNodeId == null || !isInstant(storedCreationTime)
+                    || (storedLastActivity != null && !isInstant(storedLastActivity))) {
+                return null;
+            }
+            
+            Instant creationTime = decodeInstant(storedCreationTime);
+            Instant lastActivity = storedLastActivity != null ? decodeInstant(storedLastActivity) : creationTime;
+            
+            Map<String, Object> metadata = new HashMap<>();
+            Object storedMetadata = data.get("metadata");
+            if (storedMetadata instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) storedMetadata).entrySet()) {
+                    metadata.put(String.valueOf(entry.getKey()), entry.getValue());
+                }
+            }
+            
+            Set<String> participants = new HashSet<>();
+            participants.add(creatorNodeId);
+            Object storedParticipants = data.get("participantNodeIds");
+            if (storedParticipants instanceof Collection) {
+                for (Object nodeId : (Collection<?>) storedParticipants) {
+                    participants.add(String.valueOf(nodeId));
+                }
+            }
+            
+            Object active = data.get("active");
+            return new Context(contextId, name, (String) data.get("description"), creatorNodeId, creationTime,
+                    lastActivity, metadata, participants, (String) data.get("parentContextId"),
+                    active == null || Boolean.parseBoolean(active.toString()), nodeIds);
+        } catch (ClassCastException | DateTimeException e) {
+            return null;
+        }
+    }
+    
+    private static boolean isInstant(Object value) {
+        return value instanceof String || value instanceof Instant;
+    }
+    
+    /**
+     * Decodes a stored instant. Instants written by {@link Instant#toString} for years
+     * 0000-9999 are parsed directly, which is several times faster than the general
+     * ISO-8601 parser; anything else goes through {@link Instant#parse}.
+     */
+    static Instant decodeInstant(Object value) {
+        if (value instanceof Instant) {
+            return (Instant) value;
+        }
+        
+        String text = (String) value;
+        int length = text.length();
+        if (length >= 20 && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == 'T'
+                && text.charAt(13) == ':' && text.charAt(16) == ':' && text.charAt(length - 1) == 'Z'
+                && (length == 20 || (text.charAt(19) == '.' && length <= 30))) {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 7);
+            int day = digits(text, 8, 10);
+            int hour = digits(text, 11, 13);
+            int minute = digits(text, 14, 16);
+            int second = digits(text, 17, 19);
+            int nanos = 0;
+            if (length > 20) {
+                int fraction = digits(text, 20, length - 1);
+                nanos = fraction < 0 || length == 21 ? -1 : fraction;
+                for (int i = length - 1; i < 29 && nanos >= 0; i++) {
+                    nanos *= 10;
+                }
+            }
+            if (year >= 0 && month >= 0 && day >= 0 && hour >= 0 && hour < 24 && minute >= 0 && minute < 60
+                    && second >= 0 && second < 60 && nanos >= 0) {
+                long epochDay = LocalDate.of(year, month, day).toEpochDay();
+                return Instant.ofEpochSecond(epochDay * 86_400 + hour * 3_600 + minute * 60 + second, nanos);
+            }
+        }
+        return Instant.parse(text);
+    }
+    
+    /**
+     * Parses the decimal digits in [start, end), or returns -1 if any is not a digit.
+     */
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+    
+    /**
+     * Recursive task that halves its record range until it reaches the chunk size,
+     * decoding each record into the matching slot of the output array.
+     */
+    private static class DecodeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final List<Map<String, Object>> records;
+        private final Context[] decoded;
+        private final IdInterner nodeIds;
+        private final int start;
+        private final int end;
+        
+        DecodeTask(List<Map<String, Object>> records, Context[] decoded, IdInterner nodeIds, int start, int end) {
+            this.records = records;
+            this.decoded = decoded;
+            this.nodeIds = nodeIds;
+            this.start = start;
+            this.end = end;
+        }
+        
+        @Override
+        protected void compute() {
+            if (end - start <= LOAD_CHUNK_SIZE) {
+                for (int i = start; i < end; i++) {
+                    Map<String, Object> record = records.get(i);
+                    try {
+                        decoded[i] = record != null ? decodeContext(record, nodeIds) : null;
+                    } catch (RuntimeException e) {
+                        // Skip the record rather than abandon the whole load
+                        decoded[i] = null;
+                    }
+                }
+                return;
+            }
+            
+            int mid = (start + end) >>> 1;
+            invokeAll(new DecodeTask(records, decoded, nodeIds, start, mid),
+                      new DecodeTask(records, decoded, nodeIds, mid, end));
+        }
+    }
+    
     /**
      * Creates a new shared context.
      * 
@@ -204,62 +534,47 @@ public class SharedContextRegistry {
     public Optional<Context> createContext(String name, String description, String creatorNodeId,
             Map<String, Object> metadata, String parentContextId) {
         
-        contextLock.writeLock().lock();
+        // Check if parent context exists (if specified); contexts are never removed
+        if (parentContextId != null && !contextRegistry.containsKey(parentContextId)) {
+            return Optional.empty();
+        }
+        
+        // Create the context
+        Context context = new Context(name, description, creatorNodeId, metadata, parentContextId, nodeIds);
+        
+        // Claim the name atomically; only one creator of a name can succeed
+        if (contextNameIndex.putIfAbsent(name, context.getContextId()) != null) {
+            return Optional.empty();
+        }
+        
+        Snapshot snapshot;
+        Lock lock = lockFor(context.getContextId());
+        lock.lock();
         try {
-            // Check if name is already used
-            if (contextNameIndex.containsKey(name)) {
-                return Optional.empty();
-            }
-            
-            // Check if parent context exists (if specified)
-            if (parentContextId != null && !contextRegistry.containsKey(parentContextId)) {
-                return Optional.empty();
-            }
-            
-            // Create the context
-            Context context = new Context(name, description, creatorNodeId, metadata, parentContextId);
+            // Index the context in the tree before it becomes visible, so every context
+            // in the registry can already be used as a parent
+            hierarchyIndex.add(context.getContextId(), parentContextId);
             
             // Store in registry
             contextRegistry.put(context.getContextId(), context);
             
-            // Index by name
-            contextNameIndex.put(name, context.getContextId());
-            
             // Update node contexts
-            nodeContexts.putIfAbsent(creatorNodeId, Collections.synchronizedSet(new HashSet<>()));
-            nodeContexts.get(creatorNodeId).add(context.getContextId());
+            addNodeContext(creatorNodeId, context.getContextId());
             
             // Update hierarchy if parent specified
             if (parentContextId != null) {
-                contextHierarchy.putIfAbsent(parentContextId, Collections.synchronizedSet(new HashSet<>()));
-                contextHierarchy.get(parentContextId).add(context.getContextId());
+                contextHierarchy.computeIfAbsent(parentContextId, id -> ConcurrentHashMap.newKeySet())
+                        .add(context.getContextId());
             }
             
-            // Persist the context
-            if (persistenceStrategy != null) {
-                try {
-                    Map<String, Object> persistData = new HashMap<>();
-                    persistData.put("contextId", context.getContextId());
-                    persistData.put("name", context.getName());
-                    persistData.put("description", context.getDescription());
-                    persistData.put("creatorNodeId", context.getCreatorNodeId());
-                    persistData.put("creationTime", context.getCreationTime().toString());
-                    persistData.put("lastActivity", context.getLastActivity().toString());
-                    persistData.put("metadata", context.getMetadata());
-                    persistData.put("participantNodeIds", new ArrayList<>(context.getParticipantNodeIds()));
-                    persistData.put("parentContextId", context.getParentContextId());
-                    persistData.put("active", context.isActive());
-                    
-                    persistenceStrategy.store("contexts", context.getContextId(), persistData);
-                } catch (Exception e) {
-                    System.err.println("Error persisting context: " + e.getMessage());
-                }
-            }
-            
-            return Optional.of(context);
+            snapshot = snapshot(context);
         } finally {
-            contextLock.writeLock().unlock();
+            lock.unlock();
         }
+        
+        // Persist the context
+        persist(context, snapshot, "Error persisting context: ");
+        return Optional.of(context);
     }
     
     /**
@@ -269,12 +584,7 @@ public class SharedContextRegistry {
      * @return An Optional containing the context if found
      */
     public Optional<Context> getContext(String contextId) {
-        contextLock.readLock().lock();
-        try {
-            return Optional.ofNullable(contextRegistry.get(contextId));
-        } finally {
-            contextLock.readLock().unlock();
-        }
+        return Optional.ofNullable(contextRegistry.get(contextId));
     }
     
     /**
@@ -284,17 +594,12 @@ public class SharedContextRegistry {
      * @return An Optional containing the context if found
      */
     public Optional<Context> getContextByName(String name) {
-        contextLock.readLock().lock();
-        try {
-            String contextId = contextNameIndex.get(name);
-            if (contextId == null) {
-                return Optional.empty();
-            }
-            
-            return Optional.ofNullable(contextRegistry.get(contextId));
-        } finally {
-            contextLock.readLock().unlock();
+        String contextId = contextNameIndex.get(name);
+        if (contextId == null) {
+            return Optional.empty();
         }
+        
+        return Optional.ofNullable(contextRegistry.get(contextId));
     }
     
     /**
@@ -305,11 +610,18 @@ public class SharedContextRegistry {
      * @return true if joined, false otherwise
      */
     public boolean joinContext(String nodeId, String contextId) {
-        contextLock.writeLock().lock();
+        // Check if context exists
+        Context context = contextRegistry.get(contextId);
+        if (context == null) {
+            return false;
+        }
+        
+        Snapshot snapshot;
+        Lock lock = lockFor(contextId);
+        lock.lock();
         try {
-            // Check if context exists and is active
-            Context context = contextRegistry.get(contextId);
-            if (context == null || !context.isActive()) {
+            // Check if context is active
+            if (!context.isActive()) {
                 return false;
             }
             
@@ -320,25 +632,16 @@ public class SharedContextRegistry {
             }
             
             // Update node contexts
-            nodeContexts.putIfAbsent(nodeId, Collections.synchronizedSet(new HashSet<>()));
-            nodeContexts.get(nodeId).add(contextId);
-            
-            // Update persistence
-            if (persistenceStrategy != null) {
-                try {
-                    Map<String, Object> persistData = new HashMap<>();
-                    persistData.put("participantNodeIds", new ArrayList<>(context.getParticipantNodeIds()));
-                    
-                    persistenceStrategy.store("contexts", contextId, persistData);
-                } catch (Exception e) {
-                    System.err.println("Error updating context participants: " + e.getMessage());
-                }
-            }
+            addNodeContext(nodeId, contextId);
             
-            return true;
+            snapshot = snapshot(context);
         } finally {
-            contextLock.writeLock().unlock();
+            lock.unlock();
         }
+        
+        // Update persistence
+        persist(context, snapshot, "Error updating context participants: ");
+        return true;
     }
     
     /**
@@ -349,14 +652,16 @@ public class SharedContextRegistry {
      * @return true if left, false otherwise
      */
     public boolean leaveContext(String nodeId, String contextId) {
-        contextLock.writeLock().lock();
+        // Check if context exists
+        Context context = contextRegistry.get(contextId);
+        if (context == null) {
+            return false;
+        }
+        
+        Snapshot snapshot;
+        Lock lock = lockFor(contextId);
+        lock.lock();
         try {
-            // Check if context exists
-            Context context = contextRegistry.get(contextId);
-            if (context == null) {
-                return false;
-            }
-            
             // Remove node from context
             boolean removed = context.removeParticipant(nodeId);
             if (!removed) {
@@ -364,26 +669,19 @@ public class SharedContextRegistry {
             }
             
             // Update node contexts
-            if (nodeContexts.containsKey(nodeId)) {
-                nodeContexts.get(nodeId).remove(contextId);
-            }
-            
-            // Update persistence
-            if (persistenceStrategy != null) {
-                try {
-                    Map<String, Object> persistData = new HashMap<>();
-                    persistData.put("participantNodeIds", new ArrayList<>(context.getParticipantNodeIds()));
-                    
-                    persistenceStrategy.store("contexts", contextId, persistData);
-                } catch (Exception e) {
-                    System.err.println("Error updating context participants: " + e.getMessage());
-                }
+            SortedIntSet contexts = nodeContexts(nodeIds.code(nodeId));
+            if (contexts != null) {
+                contexts.remove(contextIds.code(contextId));
             }
             
-            return true;
+            snapshot = snapshot(context);
         } finally {
-            contextLock.writeLock().unlock();
+            lock.unlock();
         }
+        
+        // Update persistence
+        persist(context, snapshot, "Error updating context participants: ");
+        return true;
     }
     
     /**
@@ -393,16 +691,80 @@ public class SharedContextRegistry {
      * @return A set of context IDs
      */
     public Set<String> getNodeContexts(String nodeId) {
-        contextLock.readLock().lock();
-        try {
-            if (!nodeContexts.containsKey(nodeId)) {
-                return Collections.emptySet();
+        return decodeContextIds(nodeContextCodes(nodeId));
+    }
+    
+    /**
+     * Gets the contexts two nodes both participate in.
+     * 
+     * @param nodeId The first node ID
+     * @param otherNodeId The second node ID
+     * @return A set of context IDs
+     */
+    public Set<String> getCommonContexts(String nodeId, String otherNodeId) {
+        return decodeContextIds(SortedIntSet.intersect(nodeContextCodes(nodeId), nodeContextCodes(otherNodeId)));
+    }
+    
+    /**
+     * Records a membership in the node's context set. Called under the context's lock.
+     */
+    private void addNodeContext(String nodeId, String contextId) {
+        nodeContextsForUpdate(nodeIds.intern(nodeId)).add(contextIds.intern(contextId));
+    }
+    
+    /**
+     * Gets the context set of a node code, or null if the node has none.
+     */
+    private SortedIntSet nodeContexts(int nodeCode) {
+        AtomicReferenceArray<SortedIntSet> sets = nodeContexts;
+        return nodeCode >= 0 && nodeCode < sets.length() ? sets.get(nodeCode) : null;
+    }
+    
+    /**
+     * Gets the context set of a node code, creating it and growing the array if needed.
+     */
+    private SortedIntSet nodeContextsForUpdate(int nodeCode) {
+        SortedIntSet contexts = nodeContexts(nodeCode);
+        if (contexts != null) {
+            return contexts;
+        }
+        synchronized (nodeContextsLock) {
+            AtomicReferenceArray<SortedIntSet> sets = nodeContexts;
+            if (nodeCode >= sets.length()) {
+                AtomicReferenceArray<SortedIntSet> grown =
+                        new AtomicReferenceArray<>(Math.max(nodeCode + 1, sets.length() * 2));
+                for (int code = 0; code < sets.length(); code++) {
+                    grown.set(code, sets.get(code));
+                }
+                sets = grown;
+                nodeContexts = grown;
             }
-            
-            return new HashSet<>(nodeContexts.get(nodeId));
-        } finally {
-            contextLock.readLock().unlock();
+            contexts = sets.get(nodeCode);
+            if (contexts == null) {
+                contexts = new SortedIntSet();
+                sets.set(nodeCode, contexts);
+            }
+            return contexts;
+        }
+    }
+    
+    /**
+     * Gets the codes of the contexts a node participates in, in ascending order.
+     */
+    private int[] nodeContextCodes(String nodeId) {
+        SortedIntSet contexts = nodeContexts(nodeIds.code(nodeId));
+        return contexts != null ? contexts.toArray() : new int[0];
+    }
+    
+    private Set<String> decodeContextIds(int[] codes) {
+        if (codes.length == 0) {
+            return Collections.emptySet();
+        }
+        Set<String> contexts = new HashSet<>(codes.length * 2);
+        for (int code : codes) {
+            contexts.add(contextIds.id(code));
         }
+        return contexts;
     }
     
     /**
@@ -412,16 +774,12 @@ public class SharedContextRegistry {
      * @return A set of child context IDs
      */
     public Set<String> getChildContexts(String parentContextId) {
-        contextLock.readLock().lock();
-        try {
-            if (!contextHierarchy.containsKey(parentContextId)) {
-                return Collections.emptySet();
-            }
-            
-            return new HashSet<>(contextHierarchy.get(parentContextId));
-        } finally {
-            contextLock.readLock().unlock();
+        Set<String> children = contextHierarchy.get(parentContextId);
+        if (children == null) {
+            return Collections.emptySet();
         }
+        
+        return new HashSet<>(children);
     }
     
     /**
@@ -431,32 +789,58 @@ public class SharedContextRegistry {
      * @return A map of context IDs to their levels in the hierarchy
      */
     public Map<String, Integer> getContextHierarchy(String parentContextId) {
-        contextLock.readLock().lock();
-        try {
-            Map<String, Integer> hierarchy = new HashMap<>();
-            
-            // Add parent context at level 0
-            hierarchy.put(parentContextId, 0);
-            
-            // Recursively add child contexts
-            addChildContextsToHierarchy(parentContextId, 1, hierarchy);
-            
-            return hierarchy;
-        } finally {
-            contextLock.readLock().unlock();
+        Map<String, Integer> hierarchy = new HashMap<>();
+        
+        // Add parent context at level 0
+        hierarchy.put(parentContextId, 0);
+        
+        // Walk the child contexts breadth first, so deep trees cannot overflow the stack
+        ArrayDeque<String> pending = new ArrayDeque<>();
+        pending.add(parentContextId);
+        while (!pending.isEmpty()) {
+            String contextId = pending.poll();
+            int level = hierarchy.get(contextId) + 1;
+            for (String childId : contextHierarchy.getOrDefault(contextId, Collections.emptySet())) {
+                if (hierarchy.putIfAbsent(childId, level) == null) {
+                    pending.add(childId);
+                }
+            }
         }
+        
+        return hierarchy;
     }
     
     /**
-     * Recursively adds child contexts to the hierarchy map.
+     * Gets the depth of a context in the hierarchy, 0 for root contexts.
+     * 
+     * @param contextId The context ID
+     * @return The depth, or -1 if the context does not exist
      */
-    private void addChildContextsToHierarchy(String parentContextId, int level, Map<String, Integer> hierarchy) {
-        Set<String> childContexts = contextHierarchy.getOrDefault(parentContextId, Collections.emptySet());
-        
-        for (String childId : childContexts) {
-            hierarchy.put(childId, level);
-            addChildContextsToHierarchy(childId, level + 1, hierarchy);
-        }
+    public int getContextDepth(String contextId) {
+        return hierarchyIndex.depth(contextId);
+    }
+    
+    /**
+     * Gets the ancestor of a context a given number of levels up.
+     * 
+     * @param contextId The context ID
+     * @param levels The number of levels up, 1 for the parent
+     * @return The ancestor's ID, or empty if the context does not exist or is not that deep
+     */
+    public Optional<String> getAncestorContext(String contextId, int levels) {
+        return Optional.ofNullable(hierarchyIndex.ancestor(contextId, levels));
+    }
+    
+    /**
+     * Checks whether a context lies in the hierarchy below another context, or is that
+     * context itself.
+     * 
+     * @param contextId The context ID to check
+     * @param ancestorContextId The context at the top of the hierarchy
+     * @return true if contextId is ancestorContextId or one of its descendants
+     */
+    public boolean isInHierarchy(String contextId, String ancestorContextId) {
+        return hierarchyIndex.isInSubtree(contextId, ancestorContextId);
     }
     
     /**
@@ -467,38 +851,31 @@ public class SharedContextRegistry {
      * @return true if deactivated, false otherwise
      */
     public boolean deactivateContext(String contextId, String nodeId) {
-        contextLock.writeLock().lock();
+        // Check if context exists
+        Context context = contextRegistry.get(contextId);
+        if (context == null) {
+            return false;
+        }
+        
+        // Check if node is context creator
+        if (!context.getCreatorNodeId().equals(nodeId)) {
+            return false; // Only creator can deactivate
+        }
+        
+        Snapshot snapshot;
+        Lock lock = lockFor(contextId);
+        lock.lock();
         try {
-            // Check if context exists
-            Context context = contextRegistry.get(contextId);
-            if (context == null) {
-                return false;
-            }
-            
-            // Check if node is context creator
-            if (!context.getCreatorNodeId().equals(nodeId)) {
-                return false; // Only creator can deactivate
-            }
-            
             // Deactivate context
             context.deactivate();
-            
-            // Update persistence
-            if (persistenceStrategy != null) {
-                try {
-                    Map<String, Object> persistData = new HashMap<>();
-                    persistData.put("active", false);
-                    
-                    persistenceStrategy.store("contexts", contextId, persistData);
-                } catch (Exception e) {
-                    System.err.println("Error updating context status: " + e.getMessage());
-                }
-            }
-            
-            return true;
+            snapshot = snapshot(context);
         } finally {
-            contextLock.writeLock().unlock();
+            lock.unlock();
         }
+        
+        // Update persistence
+        persist(context, snapshot, "Error updating context status: ");
+        return true;
     }
     
     /**
@@ -509,24 +886,19 @@ public class SharedContextRegistry {
      * @return true if node can access the context, false otherwise
      */
     public boolean canAccessContext(String nodeId, String contextId) {
-        contextLock.readLock().lock();
-        try {
-            // Check if context exists and is active
-            Context context = contextRegistry.get(contextId);
-            if (context == null || !context.isActive()) {
-                return false;
-            }
-            
-            // Check if node is a participant
-            if (context.isParticipant(nodeId)) {
-                return true;
-            }
-            
-            // Check information boundary
-            return boundary.canInformationPass(contextId, nodeId);
-        } finally {
-            contextLock.readLock().unlock();
+        // Check if context exists and is active
+        Context context = contextRegistry.get(contextId);
+        if (context == null || !context.isActive()) {
+            return false;
         }
+        
+        // Check if node is a participant
+        if (context.isParticipant(nodeId)) {
+            return true;
+        }
+        
+        // Check information boundary
+        return boundary.canInformationPass(contextId, nodeId);
     }
     
     /**
@@ -535,19 +907,68 @@ public class SharedContextRegistry {
      * @return A list of root contexts
      */
     public List<Context> getRootContexts() {
-        contextLock.readLock().lock();
-        try {
-            List<Context> rootContexts = new ArrayList<>();
-            
-            for (Context context : contextRegistry.values()) {
-                if (context.isActive() && context.getParentContextId() == null) {
-                    rootContexts.add(context);
-                }
+        List<Context> rootContexts = new ArrayList<>();
+        
+        for (String contextId : hierarchyIndex.roots()) {
+            Context context = contextRegistry.get(contextId);
+            if (context != null && context.isActive()) {
+                rootContexts.add(context);
+            }
+        }
+        
+        return rootContexts;
+    }
+    
+    /**
+     * Gets the striped lock serializing changes to a context.
+     */
+    private Lock lockFor(String contextId) {
+        int hash = contextId.hashCode();
+        return contextLocks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+    
+    /**
+     * Takes a full, numbered snapshot of a context for persistence. Must hold the
+     * context's lock, so snapshots are numbered in the order the changes were made.
+     */
+    private Snapshot snapshot(Context context) {
+        if (persistenceStrategy == null) {
+            return null;
+        }
+        
+        Map<String, Object> persistData = new HashMap<>();
+        persistData.put("contextId", context.getContextId());
+        persistData.put("name", context.getName());
+        persistData.put("description", context.getDescription());
+        persistData.put("creatorNodeId", context.getCreatorNodeId());
+        persistData.put("creationTime", context.getCreationTime().toString());
+        persistData.put("lastActivity", context.getLastActivity().toString());
+        persistData.put("metadata", context.getMetadata());
+        persistData.put("participantNodeIds", new ArrayList<>(context.getParticipantNodeIds()));
+        persistData.put("parentContextId", context.getParentContextId());
+        persistData.put("active", context.isActive());
+        return new Snapshot(++context.snapshotSequence, persistData);
+    }
+    
+    /**
+     * Stores a snapshot taken by {@link #snapshot} outside the context's lock. Stores for
+     * one context are serialized, and a snapshot older than one already stored is dropped.
+     */
+    private void persist(Context context, Snapshot snapshot, String errorMessage) {
+        if (snapshot == null) {
+            return;
+        }
+        
+        synchronized (context.persistMonitor) {
+            if (snapshot.sequence <= context.storedSequence) {
+                return;
+            }
+            try {
+                persistenceStrategy.store("contexts", context.getContextId(), snapshot.data);
+                context.storedSequence = snapshot.sequence;
+            } catch (Exception e) {
+                System.err.println(errorMessage + e.getMessage());
             }
-            
-            return rootContexts;
-        } finally {
-            contextLock.readLock().unlock();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,194 @@
+package com.fractal.browser.collective.memory;
+
+import java.util.Arrays;
+
+/**
+ * A set of non-negative ints kept in ascending order as delta-encoded varints in an
+ * exactly sized byte array. For membership codes the gaps between members fit in one
+ * or two bytes, so a member costs about two bytes and no spare capacity is held.
+ * Membership tests, inserts and removals decode the array up to the value, which stays
+ * cheap for the set sizes of context memberships; merges with other sorted sets work
+ * on the decoded arrays.
+ *
+ * Instances are safe to share between threads; every method holds the set's monitor.
+ */
+final class SortedIntSet {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    // Object header plus the array reference and two ints, rounded to 8 bytes
+    private static final int OBJECT_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    // Each member is stored as its gap to the previous member, starting from -1
+    private byte[] data;
+    private int size;
+
+    // Result of the last locate() or readGap(), guarded by the monitor
+    private int cursorPrevious;
+    private int cursorValue;
+    private int cursorEnd;
+
+    SortedIntSet() {
+        this.data = EMPTY;
+    }
+
+    synchronized boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value must not be negative: " + value);
+        }
+        int start = locate(value);
+        if (start < data.length && cursorValue == value) {
+            return false;
+        }
+        int gap = value - cursorPrevious;
+        byte[] updated;
+        if (start == data.length) {
+            updated = Arrays.copyOf(data, data.length + gapLength(gap));
+            writeGap(updated, start, gap);
+        } else {
+            int nextGap = cursorValue - value;
+            int end = cursorEnd;
+            updated = new byte[start + gapLength(gap) + gapLength(nextGap) + data.length - end];
+            System.arraycopy(data, 0, updated, 0, start);
+            int position = writeGap(updated, writeGap(updated, start, gap), nextGap);
+            System.arraycopy(data, end, updated, position, data.length - end);
+        }
+        data = updated;
+        size++;
+        return true;
+    }
+
+    synchronized boolean remove(int value) {
+        int start = locate(value);
+        if (start == data.length || cursorValue != value) {
+            return false;
+        }
+        int previous = cursorPrevious;
+        int end = cursorEnd;
+        if (end == data.length) {
+            data = Arrays.copyOf(data, start);
+        } else {
+            // The next member's gap absorbs the removed one
+            int mergedGap = value + readGap(end) - previous;
+            int nextEnd = cursorEnd;
+            byte[] updated = new byte[start + gapLength(mergedGap) + data.length - nextEnd];
+            System.arraycopy(data, 0, updated, 0, start);
+            int position = writeGap(updated, start, mergedGap);
+            System.arraycopy(data, nextEnd, updated, position, data.length - nextEnd);
+            data = updated;
+        }
+        size--;
+        return true;
+    }
+
+    synchronized boolean contains(int value) {
+        return locate(value) < data.length && cursorValue == value;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Copies the members in ascending order.
+     */
+    synchronized int[] toArray() {
+        int[] values = new int[size];
+        int value = -1;
+        for (int i = 0, position = 0; i < size; i++) {
+            value += readGap(position);
+            position = cursorEnd;
+            values[i] = value;
+        }
+        return values;
+    }
+
+    /**
+     * Estimates the heap retained by this set, including its own object header.
+     *
+     * @return The retained size in bytes
+     */
+    synchronized long footprintBytes() {
+        return OBJECT_BYTES + ((ARRAY_HEADER_BYTES + data.length + 7) & ~7);
+    }
+
+    /**
+     * Finds the first member not below a value. Sets cursorPrevious to the member before
+     * it (or -1), and cursorValue and cursorEnd to the member and the offset just past it.
+     *
+     * @return The offset where that member starts, or the array length if there is none
+     */
+    private int locate(int value) {
+        int previous = -1;
+        int position = 0;
+        while (position < data.length) {
+            int current = previous + readGap(position);
+            if (current >= value) {
+                cursorPrevious = previous;
+                cursorValue = current;
+                return position;
+            }
+            previous = current;
+            position = cursorEnd;
+        }
+        cursorPrevious = previous;
+        return position;
+    }
+
+    /**
+     * Decodes the gap starting at an offset and sets cursorEnd to the offset after it.
+     */
+    private int readGap(int position) {
+        int gap = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position++];
+            gap |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        cursorEnd = position;
+        return gap;
+    }
+
+    private static int writeGap(byte[] target, int position, int gap) {
+        while ((gap & ~0x7F) != 0) {
+            target[position++] = (byte) ((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        target[position++] = (byte) gap;
+        return position;
+    }
+
+    private static int gapLength(int gap) {
+        int length = 1;
+        while ((gap & ~0x7F) != 0) {
+            gap >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Intersects two ascending arrays in one merge pass.
+     *
+     * @return The common members in ascending order
+     */
+    static int[] intersect(int[] a, int[] b) {
+        int[] common = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                common[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(common, count);
+    }
+}
@@ -7,18 +7,22 @@ import java.util.ArrayList;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
-import java.util.NavigableMap;
-import java.util.TreeMap;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import com.fractal.browser.collective.boundaries.InformationBoundary;
+import com.fractal.browser.collective.boundaries.SensitivityListener;
 
 /**
  * TemporalIndexing implements temporal storage and retrieval patterns for the collective
@@ -27,14 +31,16 @@ import com.fractal.browser.collective.boundaries.InformationBoundary;
  * 
  * This class applies fractal temporal patterns, allowing for time-based queries at
  * multiple scales, from microseconds to years.
+ * 
+ * For very large item counts, {@link ColumnarTemporalStore} provides a compact columnar
+ * store for indexing, range queries and time statistics. It is opt-in; this class does
+ * not delegate to it.
  */
 public class TemporalIndexing {
     
-    // Maps timestamps to item IDs
-    private final NavigableMap<Instant, Set<String>> timeIndex;
-    
-    // Maps date strings (YYYY-MM-DD) to item IDs
-    private final Map<String, Set<String>> dateIndex;
+    // Maps timestamps to item IDs and their boundary codes; buckets are immutable and
+    // replaced atomically
+    private final ConcurrentSkipListMap<Instant, TimeBucket> timeIndex;
     
     // Maps item IDs to their timestamps
     private final Map<String, Instant> itemTimes;
@@ -47,25 +53,133 @@ public class TemporalIndexing {
     
     private final ZoneId timezone;  // Add timezone field
     
+    // Units whose time statistics are served from incrementally maintained rollups
+    private static final ChronoUnit[] ROLLUP_UNITS = { ChronoUnit.MINUTES, ChronoUnit.HOURS, ChronoUnit.DAYS };
+    
+    // Pre-aggregated statistics per rollup unit
+    private final Map<ChronoUnit, TemporalRollups> rollups;
+    
+    // Maps rolled-up item IDs to the access level their rollup cells were keyed by
+    private final Map<String, Integer> rollupLevels;
+    
+    // Registered with the boundary until close()
+    private final SensitivityListener sensitivityListener;
+    
+    /**
+     * Immutable set of item IDs sharing a timestamp, each with its information code in
+     * the boundary. Writers replace a bucket with compare-and-set through the skip list,
+     * so readers never need to lock it.
+     */
+    private static final class TimeBucket {
+        private final String[] itemIds;
+        private final int[] codes;
+        
+        private TimeBucket(String[] itemIds, int[] codes) {
+            this.itemIds = itemIds;
+            this.codes = codes;
+        }
+        
+        static TimeBucket of(String itemId, int code) {
+            return new TimeBucket(new String[] { itemId }, new int[] { code });
+        }
+        
+        TimeBucket with(String itemId, int code) {
+            for (String existing : itemIds) {
+                if (existing.equals(itemId)) {
+                    return this;
+                }
+            }
+            String[] updated = Arrays.copyOf(itemIds, itemIds.length + 1);
+            updated[itemIds.length] = itemId;
+            int[] updatedCodes = Arrays.copyOf(codes, codes.length + 1);
+            updatedCodes[codes.length] = code;
+            return new TimeBucket(updated, updatedCodes);
+        }
+        
+        /**
+         * Returns a bucket without the item, or null if the bucket would be empty.
+         */
+        TimeBucket without(String itemId) {
+            for (int i = 0; i < itemIds.length; i++) {
+                if (itemIds[i].equals(itemId)) {
+                    if (itemIds.length == 1) {
+                        return null;
+                    }
+                    String[] updated = new String[itemIds.length - 1];
+                    System.arraycopy(itemIds, 0, updated, 0, i);
+                    System.arraycopy(itemIds, i + 1, updated, i, itemIds.length - i - 1);
+                    int[] updatedCodes = new int[codes.length - 1];
+                    System.arraycopy(codes, 0, updatedCodes, 0, i);
+                    System.arraycopy(codes, i + 1, updatedCodes, i, codes.length - i - 1);
+                    return new TimeBucket(updated, updatedCodes);
+                }
+            }
+            return this;
+        }
+        
+        String[] items() {
+            return itemIds;
+        }
+        
+        int[] codes() {
+            return codes;
+        }
+    }
+    
     /**
      * Creates a new TemporalIndexing instance.
      */
     public TemporalIndexing() {
-        this.timeIndex = Collections.synchronizedNavigableMap(new TreeMap<>());
-        this.dateIndex = new ConcurrentHashMap<>();
-        this.itemTimes = new ConcurrentHashMap<>();
-        this.itemMetadata = new ConcurrentHashMap<>();
-        this.timezone = ZoneId.of("UTC");  // Default to UTC, can be configured
-        this.boundary = null;
+        this(ZoneId.of("UTC"), null);  // Default to UTC, can be configured
     }
     
     public TemporalIndexing(ZoneId timezone) {
-        this.timeIndex = Collections.synchronizedNavigableMap(new TreeMap<>());
-        this.dateIndex = new ConcurrentHashMap<>();
+        this(timezone, null);
+    }
+    
+    /**
+     * Creates a new TemporalIndexing instance that enforces the given boundary on queries.
+     * 
+     * @param boundary Information boundary for access control
+     */
+    public TemporalIndexing(InformationBoundary boundary) {
+        this(ZoneId.of("UTC"), boundary);
+    }
+    
+    /**
+     * Creates a new TemporalIndexing instance.
+     * 
+     * @param timezone The timezone used for date and period calculations
+     * @param boundary Information boundary for access control
+     */
+    public TemporalIndexing(ZoneId timezone, InformationBoundary boundary) {
+        this.timeIndex = new ConcurrentSkipListMap<>();
         this.itemTimes = new ConcurrentHashMap<>();
         this.itemMetadata = new ConcurrentHashMap<>();
         this.timezone = timezone;
-        this.boundary = null;
+        this.boundary = boundary;
+        this.rollupLevels = new ConcurrentHashMap<>();
+        this.rollups = new EnumMap<>(ChronoUnit.class);
+        for (ChronoUnit unit : ROLLUP_UNITS) {
+            rollups.put(unit, new TemporalRollups(instant -> truncateToUnit(instant, unit)));
+        }
+        
+        // Keep rollup cells keyed by each item's current required access level
+        this.sensitivityListener = (informationId, sensitivityLevel) -> relevelRollups(informationId);
+        if (boundary != null) {
+            boundary.addSensitivityListener(sensitivityListener);
+        }
+    }
+    
+    /**
+     * Stops following sensitivity changes in the boundary, so a long-lived boundary no
+     * longer holds on to this index. Rollup statistics keep the access levels items had
+     * when the index was closed. Closing twice has no effect.
+     */
+    public void close() {
+        if (boundary != null) {
+            boundary.removeSensitivityListener(sensitivityListener);
+        }
     }
     
     /**
@@ -82,18 +196,25 @@ public class TemporalIndexing {
             return false; // Already indexed
         }
         
-        // Add to time index
-        timeIndex.computeIfAbsent(timestamp, k -> Collections.synchronizedSet(new HashSet<>()))
-                .add(itemId);
-        
-        // Add to date index
-        LocalDate date = LocalDate.ofInstant(timestamp, timezone);
-        String dateString = date.toString(); // YYYY-MM-DD format
-        dateIndex.computeIfAbsent(dateString, k -> Collections.synchronizedSet(new HashSet<>()))
-                .add(itemId);
+        // Add to time index, with the item's code so queries can filter by bitmap
+        int code = boundary != null ? boundary.assignInformationCode(itemId) : -1;
+        timeIndex.compute(timestamp, (k, bucket) -> bucket == null ? TimeBucket.of(itemId, code) : bucket.with(itemId, code));
         
         // Store metadata
-        itemMetadata.put(itemId, new HashMap<>(metadata));
+        Map<String, Object> storedMetadata = new HashMap<>(metadata);
+        itemMetadata.put(itemId, storedMetadata);
+        
+        // Add to the statistics rollups, unless a concurrent removal already won
+        rollupLevels.compute(itemId, (k, level) -> {
+            if (itemTimes.get(itemId) != timestamp) {
+                return level;
+            }
+            int requiredLevel = requiredAccessLevel(itemId);
+            for (TemporalRollups rollup : rollups.values()) {
+                rollup.add(itemId, timestamp, requiredLevel, storedMetadata);
+            }
+            return requiredLevel;
+        });
         
         return true;
     }
@@ -111,7 +232,21 @@ public class TemporalIndexing {
         }
         
         // Update metadata
-        itemMetadata.put(itemId, new HashMap<>(metadata));
+        Map<String, Object> storedMetadata = new HashMap<>(metadata);
+        itemMetadata.put(itemId, storedMetadata);
+        
+        // Replace the item's contribution to the statistics rollups
+        rollupLevels.computeIfPresent(itemId, (k, level) -> {
+            Instant timestamp = itemTimes.get(itemId);
+            if (timestamp == null) {
+                return level; // Being removed; the removal drops the contribution
+            }
+            for (TemporalRollups rollup : rollups.values()) {
+                rollup.remove(itemId, timestamp, level);
+                rollup.add(itemId, timestamp, level, storedMetadata);
+            }
+            return level;
+        });
         
         return true;
     }
@@ -128,36 +263,49 @@ public class TemporalIndexing {
             return false; // Not found
         }
         
-        // Remove from time index
-        Set<String> timeEntries = timeIndex.get(timestamp);
-        if (timeEntries != null) {
-            synchronized (timeEntries) {
-                timeEntries.remove(itemId);
-                if (timeEntries.isEmpty()) {
-                    timeIndex.remove(timestamp);
-                }
-            }
-        }
-        
-        // Remove from date index
-        LocalDate date = LocalDate.ofInstant(timestamp, timezone);
-        String dateString = date.toString();
-        Set<String> dateEntries = dateIndex.get(dateString);
-        if (dateEntries != null) {
-            synchronized (dateEntries) {
-                dateEntries.remove(itemId);
-                if (dateEntries.isEmpty()) {
-                    dateIndex.remove(dateString);
-                }
-            }
+        // Remove from time index, dropping the bucket once empty
+        timeIndex.computeIfPresent(timestamp, (k, bucket) -> bucket.without(itemId));
+        if (boundary != null) {
+            boundary.releaseInformationCode(itemId);
         }
         
         // Remove metadata
         itemMetadata.remove(itemId);
         
+        // Remove from the statistics rollups
+        rollupLevels.computeIfPresent(itemId, (k, level) -> {
+            for (TemporalRollups rollup : rollups.values()) {
+                rollup.remove(itemId, timestamp, level);
+            }
+            return null;
+        });
+        
         return true;
     }
     
+    /**
+     * Moves an item's rollup contribution to the cells of its current required access level.
+     */
+    private void relevelRollups(String itemId) {
+        rollupLevels.computeIfPresent(itemId, (k, level) -> {
+            int requiredLevel = requiredAccessLevel(itemId);
+            Instant timestamp = itemTimes.get(itemId);
+            Map<String, Object> metadata = itemMetadata.get(itemId);
+            if (requiredLevel == level || timestamp == null || metadata == null) {
+                return level;
+            }
+            for (TemporalRollups rollup : rollups.values()) {
+                rollup.remove(itemId, timestamp, level);
+                rollup.add(itemId, timestamp, requiredLevel, metadata);
+            }
+            return requiredLevel;
+        });
+    }
+    
+    private int requiredAccessLevel(String itemId) {
+        return boundary != null ? boundary.getRequiredAccessLevel(itemId) : 0;
+    }
+    
     /**
      * Gets an item's timestamp.
      * 
@@ -192,23 +340,7 @@ public class TemporalIndexing {
      * @return A list of item IDs in the time range
      */
     public List<String> findItemsInTimeRange(Instant start, Instant end, String contextId) {
-        // Get the submap for the time range
-        NavigableMap<Instant, Set<String>> rangeMap = timeIndex.subMap(start, true, end, true);
-        
-        List<String> result = new ArrayList<>();
-        
-        // Collect all item IDs in the range that pass boundary checks
-        for (Set<String> items : rangeMap.values()) {
-            synchronized (items) {
-                for (String itemId : items) {
-                    if (boundary.canInformationPass(itemId, contextId)) {
-                        result.add(itemId);
-                    }
-                }
-            }
-        }
-        
-        return result;
+        return findVisibleItems(timeIndex.subMap(start, true, end, true).values(), contextId);
     }
     
     /**
@@ -216,16 +348,48 @@ public class TemporalIndexing {
      * 
      * @param date The date in YYYY-MM-DD format
      * @param contextId The context ID for boundary checks
-     * @return A list of item IDs on the date
+     * @return A list of item IDs on the date, or an empty list if the date is malformed
      */
     public List<String> findItemsOnDate(String date, String contextId) {
-        Set<String> dateItems = dateIndex.getOrDefault(date, Collections.emptySet());
+        LocalDate day;
+        try {
+            day = LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            return new ArrayList<>();
+        }
         
-        synchronized (dateItems) {
-            return dateItems.stream()
-                    .filter(itemId -> boundary.canInformationPass(itemId, contextId))
-                    .collect(Collectors.toList());
+        // The date's items are the time range from its start to the next day's start
+        Instant start = day.atStartOfDay(timezone).toInstant();
+        Instant end = day.plusDays(1).atStartOfDay(timezone).toInstant();
+        return findVisibleItems(timeIndex.subMap(start, true, end, false).values(), contextId);
+    }
+    
+    /**
+     * Collects the items of the buckets that pass the boundary, in bucket order. The
+     * candidates' codes are filtered with a single bitmap AND.
+     */
+    private List<String> findVisibleItems(Collection<TimeBucket> buckets, String contextId) {
+        List<TimeBucket> candidates = new ArrayList<>(buckets);
+        BitSet codes = new BitSet();
+        for (TimeBucket bucket : candidates) {
+            for (int code : bucket.codes()) {
+                codes.set(code);
+            }
+        }
+        BitSet visible = boundary.filterVisible(codes, contextId);
+        
+        List<String> result = new ArrayList<>(visible.cardinality());
+        for (TimeBucket bucket : candidates) {
+            String[] items = bucket.items();
+            int[] itemCodes = bucket.codes();
+            for (int i = 0; i < items.length; i++) {
+                if (visible.get(itemCodes[i])) {
+                    result.add(items[i]);
+                }
+            }
         }
+        
+        return result;
     }
     
     /**
@@ -290,34 +454,48 @@ public class TemporalIndexing {
     /**
      * Gets the most recent items.
      * 
+     * Walks the time index from the newest timestamp backwards and stops as soon as
+     * enough visible items are found, so the cost depends on the limit and the number
+     * of items skipped by the boundary rather than on the size of the history. Items
+     * sharing a timestamp are returned most recently indexed first.
+     * 
      * @param limit Maximum number of items to return
      * @param contextId The context ID for boundary checks
      * @return A list of the most recent item IDs
+     * @throws IllegalArgumentException if limit is negative
      */
     public List<String> getMostRecentItems(int limit, String contextId) {
-        List<Map.Entry<String, Instant>> sortedItems = new ArrayList<>();
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative: " + limit);
+        }
         
-        // Filter items by boundary check
-        for (Map.Entry<String, Instant> entry : itemTimes.entrySet()) {
-            String itemId = entry.getKey();
-            if (boundary.canInformationPass(itemId, contextId)) {
-                sortedItems.add(entry);
-            }
+        List<String> result = new ArrayList<>(Math.min(limit, 64));
+        if (limit == 0) {
+            return result;
         }
         
-        // Sort by timestamp (most recent first)
-        sortedItems.sort((e1, e2) -> e2.getValue().compareTo(e1.getValue()));
+        for (TimeBucket bucket : timeIndex.descendingMap().values()) {
+            String[] items = bucket.items();
+            for (int i = items.length - 1; i >= 0; i--) {
+                if (boundary.canInformationPass(items[i], contextId)) {
+                    result.add(items[i]);
+                    if (result.size() == limit) {
+                        return result;
+                    }
+                }
+            }
+        }
         
-        // Take the top N items
-        return sortedItems.stream()
-                .limit(limit)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+        return result;
     }
     
     /**
      * Finds temporal patterns in the data.
      * 
+     * Uses a single two-pointer pass over the sorted time index: each window
+     * [start, start + windowSize] begins at an indexed timestamp, and the window end
+     * only ever moves forward. Boundary checks are evaluated once per item per query.
+     * 
      * @param windowSize The sliding window size in milliseconds
      * @param threshold The minimum number of items in a window to consider it a pattern
      * @param contextId The context ID for boundary checks
@@ -326,35 +504,49 @@ public class TemporalIndexing {
     public List<Map<String, Object>> findTemporalPatterns(long windowSize, int threshold, String contextId) {
         List<Map<String, Object>> patterns = new ArrayList<>();
         
-        // Create a timeline of all timestamps with their items
-        List<Instant> timeline = new ArrayList<>(timeIndex.keySet());
-        Collections.sort(timeline);
+        // Snapshot the timeline and check every item against the boundary with one AND
+        int size = timeIndex.size();
+        List<Instant> timeline = new ArrayList<>(size);
+        List<TimeBucket> buckets = new ArrayList<>(size);
+        BitSet codes = new BitSet();
+        for (Map.Entry<Instant, TimeBucket> entry : timeIndex.entrySet()) {
+            timeline.add(entry.getKey());
+            buckets.add(entry.getValue());
+            for (int code : entry.getValue().codes()) {
+                codes.set(code);
+            }
+        }
+        BitSet visible = boundary.filterVisible(codes, contextId);
+        
+        // Prefix sums of visible item counts, so any window count is a subtraction
+        int n = timeline.size();
+        List<String[]> visibleItems = new ArrayList<>(n);
+        long[] prefixCounts = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            visibleItems.add(selectVisible(buckets.get(i), visible));
+            prefixCounts[i + 1] = prefixCounts[i] + visibleItems.get(i).length;
+        }
         
-        // Use a sliding window to detect patterns
-        for (int i = 0; i < timeline.size(); i++) {
+        // Slide the window; the end pointer never moves backwards
+        int end = 0;
+        for (int i = 0; i < n; i++) {
             Instant windowStart = timeline.get(i);
             Instant windowEnd = windowStart.plusMillis(windowSize);
             
-            // Count items in the window that pass boundary checks
-            int itemCount = 0;
-            Set<String> itemsInWindow = new HashSet<>();
-            
-            for (int j = i; j < timeline.size() && !timeline.get(j).isAfter(windowEnd); j++) {
-                Instant time = timeline.get(j);
-                Set<String> items = timeIndex.get(time);
-                
-                synchronized (items) {
-                    for (String itemId : items) {
-                        if (boundary.canInformationPass(itemId, contextId)) {
-                            itemCount++;
-                            itemsInWindow.add(itemId);
-                        }
-                    }
-                }
+            end = Math.max(end, i);
+            while (end < n && !timeline.get(end).isAfter(windowEnd)) {
+                end++;
             }
             
+            int itemCount = (int) (prefixCounts[end] - prefixCounts[i]);
+            
             // If count exceeds threshold, record the pattern
             if (itemCount >= threshold) {
+                Set<String> itemsInWindow = new HashSet<>();
+                for (int j = i; j < end; j++) {
+                    Collections.addAll(itemsInWindow, visibleItems.get(j));
+                }
+                
                 Map<String, Object> pattern = new HashMap<>();
                 pattern.put("startTime", windowStart);
                 pattern.put("endTime", windowEnd);
@@ -368,6 +560,31 @@ public class TemporalIndexing {
         return patterns;
     }
     
+    /**
+     * Returns the bucket's items whose codes are set in the visibility bitmap. Buckets
+     * are immutable, so a fully visible bucket's items are returned without copying.
+     */
+    private static String[] selectVisible(TimeBucket bucket, BitSet visibility) {
+        String[] items = bucket.items();
+        int[] codes = bucket.codes();
+        String[] result = null;
+        int visible = 0;
+        for (int i = 0; i < items.length; i++) {
+            if (visibility.get(codes[i])) {
+                if (result != null) {
+                    result[visible] = items[i];
+                }
+                visible++;
+            } else if (result == null) {
+                result = Arrays.copyOf(items, items.length);
+            }
+        }
+        if (result == null) {
+            return items;
+        }
+        return Arrays.copyOf(result, visible);
+    }
+    
     /**
      * Finds gaps in the temporal data.
      * 
@@ -380,17 +597,14 @@ public class TemporalIndexing {
         
         // Get all timestamps for items that pass boundary checks
         List<Instant> timeline = new ArrayList<>();
-        for (Map.Entry<Instant, Set<String>> entry : timeIndex.entrySet()) {
+        for (Map.Entry<Instant, TimeBucket> entry : timeIndex.entrySet()) {
             Instant time = entry.getKey();
-            Set<String> items = entry.getValue();
             
             boolean anyVisible = false;
-            synchronized (items) {
-                for (String itemId : items) {
-                    if (boundary.canInformationPass(itemId, contextId)) {
-                        anyVisible = true;
-                        break;
-                    }
+            for (String itemId : entry.getValue().items()) {
+                if (boundary.canInformationPass(itemId, contextId)) {
+                    anyVisible = true;
+                    break;
                 }
             }
             
@@ -422,13 +636,23 @@ public class TemporalIndexing {
     }
     
     /**
-     * Gets time-based statistics.
+     * Gets time-based statistics: the item count and, per numeric metadata key, the
+     * average, minimum and maximum value of each period.
+     * 
+     * Minutes, hours and days are served from rollups maintained as items are indexed,
+     * updated and removed, so the cost grows with the number of periods rather than items.
+     * Other units are computed by grouping all items.
      * 
      * @param unit The time unit for aggregation
      * @param contextId The context ID for boundary checks
      * @return Statistics by time period
      */
     public Map<Instant, Map<String, Object>> getTimeStatistics(ChronoUnit unit, String contextId) {
+        TemporalRollups rollup = rollups.get(unit);
+        if (rollup != null) {
+            return rollup.statistics(boundary.getAccessLevel(contextId));
+        }
+        
         Map<Instant, Map<String, Object>> statistics = new HashMap<>();
         
         // Group items by time period
@@ -445,6 +669,8 @@ public class TemporalIndexing {
             // Calculate average metadata values if numeric
             Map<String, Double> metadataSums = new HashMap<>();
             Map<String, Integer> metadataCounts = new HashMap<>();
+            Map<String, Double> metadataMins = new HashMap<>();
+            Map<String, Double> metadataMaxes = new HashMap<>();
             
             synchronized (itemIds) {
                 for (String itemId : itemIds) {
@@ -458,21 +684,25 @@ public class TemporalIndexing {
                                 double numValue = ((Number) value).doubleValue();
                                 metadataSums.put(key, metadataSums.getOrDefault(key, 0.0) + numValue);
                                 metadataCounts.put(key, metadataCounts.getOrDefault(key, 0) + 1);
+                                metadataMins.merge(key, numValue, Math::min);
+                                metadataMaxes.merge(key, numValue, Math::max);
                             }
                         }
                     }
                 }
             }
             
-            // Calculate averages
-            Map<String, Double> metadataAverages = new HashMap<>();
+            // Calculate averages and extremes
+            Map<String, Double> metadataStats = new HashMap<>();
             for (String key : metadataSums.keySet()) {
                 double sum = metadataSums.get(key);
                 int count = metadataCounts.get(key);
-                metadataAverages.put("avg_" + key, sum / count);
+                metadataStats.put("avg_" + key, sum / count);
+                metadataStats.put("min_" + key, metadataMins.get(key));
+                metadataStats.put("max_" + key, metadataMaxes.get(key));
             }
             
-            periodStats.putAll(metadataAverages);
+            periodStats.putAll(metadataStats);
             statistics.put(periodStart, periodStats);
         }
         
@@ -0,0 +1,300 @@
+package com.fractal.browser.collective.memory;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.UnaryOperator;
+
+/**
+ * Incrementally maintained statistics per time period for {@link TemporalIndexing}.
+ *
+ * Each period is split into cells by the access level an item requires, so a query
+ * merges at most eleven cells per period instead of visiting every item. Each cell
+ * keeps the item count and, per numeric metadata key, the count, sum, min and max.
+ * Removing an item that holds a cell's min or max marks the cell's extrema stale;
+ * they are recomputed from the cell's members on the next query.
+ *
+ * Each period is further split into stripes chosen by item ID, each with its own
+ * cells and monitor, so concurrent writers to the same period rarely wait on each
+ * other. Queries merge the cells of every stripe.
+ */
+final class TemporalRollups {
+
+    static final int LEVELS = 11;
+    private static final int STRIPES = 16;
+
+    private final UnaryOperator<Instant> truncate;
+    private final ConcurrentSkipListMap<Instant, Period> periods;
+
+    TemporalRollups(UnaryOperator<Instant> truncate) {
+        this.truncate = truncate;
+        this.periods = new ConcurrentSkipListMap<>();
+    }
+
+    private static final class KeyStats {
+        long count;
+        double sum;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+
+        void add(double value) {
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        void merge(KeyStats other) {
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+    }
+
+    private static final class Cell {
+        long itemCount;
+        boolean extremaStale;
+        final Map<String, KeyStats> keys = new HashMap<>();
+        final Map<String, Map<String, Object>> members = new HashMap<>();
+    }
+
+    /**
+     * Cells of one stripe of a period, guarded by the stripe's monitor.
+     */
+    private static final class Stripe {
+        final Cell[] cells = new Cell[LEVELS];
+        int liveCells;
+    }
+
+    /**
+     * Stripes of one period, created on first use. A period emptied by a removal is
+     * retired and unlinked while all of its stripe monitors are held, and writers that
+     * raced with it retry.
+     */
+    private static final class Period {
+        final AtomicReferenceArray<Stripe> stripes = new AtomicReferenceArray<>(STRIPES);
+        volatile boolean retired;
+
+        Stripe stripe(int index) {
+            Stripe stripe = stripes.get(index);
+            if (stripe == null) {
+                stripes.compareAndSet(index, null, new Stripe());
+                stripe = stripes.get(index);
+            }
+            return stripe;
+        }
+    }
+
+    /**
+     * Adds an item's contribution.
+     */
+    void add(String itemId, Instant timestamp, int level, Map<String, Object> metadata) {
+        Instant periodStart = truncate.apply(timestamp);
+        int cellIndex = clamp(level);
+        int stripeIndex = stripeIndex(itemId);
+
+        while (true) {
+            Period period = periods.computeIfAbsent(periodStart, k -> new Period());
+            Stripe stripe = period.stripe(stripeIndex);
+            synchronized (stripe) {
+                if (period.retired) {
+                    continue;
+                }
+
+                Cell cell = stripe.cells[cellIndex];
+                if (cell == null) {
+                    cell = new Cell();
+                    stripe.cells[cellIndex] = cell;
+                    stripe.liveCells++;
+                }
+
+                if (cell.members.putIfAbsent(itemId, metadata) != null) {
+                    return;
+                }
+                cell.itemCount++;
+                for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+                    if (entry.getValue() instanceof Number) {
+                        double value = ((Number) entry.getValue()).doubleValue();
+                        cell.keys.computeIfAbsent(entry.getKey(), k -> new KeyStats()).add(value);
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes an item's contribution added with the same timestamp and level.
+     */
+    void remove(String itemId, Instant timestamp, int level) {
+        Instant periodStart = truncate.apply(timestamp);
+        int cellIndex = clamp(level);
+
+        Period period = periods.get(periodStart);
+        if (period == null) {
+            return;
+        }
+        Stripe stripe = period.stripes.get(stripeIndex(itemId));
+        if (stripe == null) {
+            return;
+        }
+
+        synchronized (stripe) {
+            Cell cell = stripe.cells[cellIndex];
+            if (cell == null) {
+                return;
+            }
+            Map<String, Object> metadata = cell.members.remove(itemId);
+            if (metadata == null) {
+                return;
+            }
+
+            if (--cell.itemCount == 0) {
+                // Dropping the cell also discards accumulated rounding error in its sums
+                stripe.cells[cellIndex] = null;
+                if (--stripe.liveCells > 0) {
+                    return;
+                }
+            } else {
+                removeValues(cell, metadata);
+                return;
+            }
+        }
+        retireIfEmpty(periodStart, period, 0);
+    }
+
+    /**
+     * Drops a removed member's values from the cell's sums.
+     */
+    private static void removeValues(Cell cell, Map<String, Object> metadata) {
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            if (!(entry.getValue() instanceof Number)) {
+                continue;
+            }
+            KeyStats stats = cell.keys.get(entry.getKey());
+            if (stats == null) {
+                continue;
+            }
+
+            double value = ((Number) entry.getValue()).doubleValue();
+            if (--stats.count == 0) {
+                cell.keys.remove(entry.getKey());
+                continue;
+            }
+            stats.sum -= value;
+            if (value <= stats.min || value >= stats.max) {
+                cell.extremaStale = true;
+            }
+        }
+    }
+
+    /**
+     * Retires and unlinks a period once every stripe is empty, holding all stripe
+     * monitors from index onwards so no writer can add to it meanwhile.
+     */
+    private void retireIfEmpty(Instant periodStart, Period period, int index) {
+        if (index == STRIPES) {
+            period.retired = true;
+            periods.remove(periodStart, period);
+            return;
+        }
+        Stripe stripe = period.stripe(index);
+        synchronized (stripe) {
+            if (stripe.liveCells == 0 && !period.retired) {
+                retireIfEmpty(periodStart, period, index + 1);
+            }
+        }
+    }
+
+    /**
+     * Builds per-period statistics over the cells visible at the given access level.
+     * Periods without visible items are omitted.
+     *
+     * @param accessLevel The access level of the querying context
+     * @return Statistics by period start
+     */
+    Map<Instant, Map<String, Object>> statistics(int accessLevel) {
+        Map<Instant, Map<String, Object>> statistics = new HashMap<>();
+        int maxLevel = Math.min(accessLevel, LEVELS - 1);
+
+        for (Map.Entry<Instant, Period> entry : periods.entrySet()) {
+            Instant periodStart = entry.getKey();
+            Period period = entry.getValue();
+
+            long itemCount = 0;
+            Map<String, KeyStats> merged = new HashMap<>();
+            for (int index = 0; index < STRIPES; index++) {
+                Stripe stripe = period.stripes.get(index);
+                if (stripe == null) {
+                    continue;
+                }
+                synchronized (stripe) {
+                    for (int level = 0; level <= maxLevel; level++) {
+                        Cell cell = stripe.cells[level];
+                        if (cell == null) {
+                            continue;
+                        }
+                        if (cell.extremaStale) {
+                            refreshExtrema(cell);
+                        }
+
+                        itemCount += cell.itemCount;
+                        for (Map.Entry<String, KeyStats> key : cell.keys.entrySet()) {
+                            merged.computeIfAbsent(key.getKey(), k -> new KeyStats()).merge(key.getValue());
+                        }
+                    }
+                }
+            }
+
+            if (itemCount == 0) {
+                continue;
+            }
+
+            Map<String, Object> periodStats = new HashMap<>();
+            periodStats.put("itemCount", (int) itemCount);
+            for (Map.Entry<String, KeyStats> key : merged.entrySet()) {
+                KeyStats stats = key.getValue();
+                periodStats.put("avg_" + key.getKey(), stats.sum / stats.count);
+                periodStats.put("min_" + key.getKey(), stats.min);
+                periodStats.put("max_" + key.getKey(), stats.max);
+            }
+            statistics.put(periodStart, periodStats);
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Recomputes a cell's min and max from its members. Called with the stripe's monitor held.
+     */
+    private static void refreshExtrema(Cell cell) {
+        for (KeyStats stats : cell.keys.values()) {
+            stats.min = Double.POSITIVE_INFINITY;
+            stats.max = Double.NEGATIVE_INFINITY;
+        }
+
+        for (Map<String, Object> metadata : cell.members.values()) {
+            for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+                KeyStats stats = cell.keys.get(entry.getKey());
+                if (stats != null && entry.getValue() instanceof Number) {
+                    double value = ((Number) entry.getValue()).doubleValue();
+                    stats.min = Math.min(stats.min, value);
+                    stats.max = Math.max(stats.max, value);
+                }
+            }
+        }
+        cell.extremaStale = false;
+    }
+
+    private static int stripeIndex(String itemId) {
+        int hash = itemId.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static int clamp(int level) {
+        return Math.max(0, Math.min(LEVELS - 1, level));
+    }
+}
@@ -0,0 +1,321 @@
+package com.fractal.browser.collective.memory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * WriteBehindPersistence queues stores and deletes in memory and applies them to a
+ * delegate {@link PersistenceStrategy} in batches on a background thread, so callers
+ * such as {@link SharedContextRegistry} never wait on storage. Repeated writes to the
+ * same ID are coalesced and only the latest is applied.
+ *
+ * A batch is flushed once the number of pending IDs reaches the batch size, on a fixed
+ * interval, or on demand. Flushes are serialized and a write queued while a flush is
+ * running is applied by a later one, so the writes to each ID reach the delegate in
+ * order. A write the delegate rejects stays queued for the next flush unless a newer
+ * one replaced it. {@link #shutdown()} flushes everything still pending before it
+ * shuts down the delegate.
+ *
+ * Single-item reads see pending writes. Bulk reads, queries and backups flush first.
+ */
+public class WriteBehindPersistence implements PersistenceStrategy {
+
+    private final PersistenceStrategy delegate;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService flusher;
+
+    // Latest pending write per data type and ID, in first-queued order; guarded by itself
+    private final LinkedHashMap<String, PendingWrite> pending;
+
+    // The batch being applied, readable while the flush runs
+    private volatile Map<String, PendingWrite> inFlight;
+
+    // Serializes flushes
+    private final Object flushLock = new Object();
+
+    private final AtomicBoolean sizeFlushRequested;
+    private boolean shutdown; // guarded by pending
+
+    // Counters, guarded by pending
+    private long queuedWrites;
+    private long coalescedWrites;
+    private long appliedWrites;
+    private long failedWrites;
+    private long flushes;
+
+    /**
+     * A queued store, or a delete when data is null.
+     */
+    private static final class PendingWrite {
+        private final String dataType;
+        private final String id;
+        private final Map<String, Object> data;
+
+        PendingWrite(String dataType, String id, Map<String, Object> data) {
+            this.dataType = dataType;
+            this.id = id;
+            this.data = data;
+        }
+    }
+
+    /**
+     * Creates a write-behind layer over the delegate.
+     *
+     * @param delegate The strategy that stores the data durably
+     * @param maxBatchSize The number of pending IDs that triggers a flush
+     * @param flushInterval The time between periodic flushes
+     * @throws IllegalArgumentException If the batch size or interval is not positive
+     */
+    public WriteBehindPersistence(PersistenceStrategy delegate, int maxBatchSize, Duration flushInterval) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("flushInterval must be positive: " + flushInterval);
+        }
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.pending = new LinkedHashMap<>();
+        this.inFlight = new HashMap<>();
+        this.sizeFlushRequested = new AtomicBoolean();
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "persistence-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    private static String key(String dataType, String id) {
+        return dataType + '\u0000' + id;
+    }
+
+    /**
+     * Queues a store of a copy of the data, replacing any pending write to the same ID.
+     *
+     * @throws IllegalStateException If the layer has been shut down
+     */
+    @Override
+    public void store(String dataType, String id, Map<String, Object> data) {
+        enqueue(new PendingWrite(dataType, id, new HashMap<>(data)));
+    }
+
+    /**
+     * Queues a delete, replacing any pending write to the same ID.
+     *
+     * @throws IllegalStateException If the layer has been shut down
+     */
+    @Override
+    public void delete(String dataType, String id) {
+        enqueue(new PendingWrite(dataType, id, null));
+    }
+
+    private void enqueue(PendingWrite write) {
+        int size;
+        synchronized (pending) {
+            // Checked under the lock, so every accepted write precedes the final flush
+            if (shutdown) {
+                throw new IllegalStateException("Write-behind persistence has been shut down");
+            }
+            queuedWrites++;
+            if (pending.put(key(write.dataType, write.id), write) != null) {
+                coalescedWrites++;
+            }
+            size = pending.size();
+        }
+
+        if (size >= maxBatchSize && sizeFlushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    sizeFlushRequested.set(false);
+                    flushQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the final flush applies the write
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> load(String dataType, String id) throws Exception {
+        PendingWrite write = pendingWrite(key(dataType, id));
+        if (write != null) {
+            return write.data != null ? new HashMap<>(write.data) : null;
+        }
+        return delegate.load(dataType, id);
+    }
+
+    @Override
+    public boolean exists(String dataType, String id) throws Exception {
+        PendingWrite write = pendingWrite(key(dataType, id));
+        if (write != null) {
+            return write.data != null;
+        }
+        return delegate.exists(dataType, id);
+    }
+
+    /**
+     * Finds the latest write not yet applied to the delegate. The pending map is checked
+     * before the in-flight batch, which a flush publishes before taking entries from it.
+     */
+    private PendingWrite pendingWrite(String key) {
+        synchronized (pending) {
+            PendingWrite write = pending.get(key);
+            if (write != null) {
+                return write;
+            }
+        }
+        return inFlight.get(key);
+    }
+
+    @Override
+    public List<Map<String, Object>> loadAll(String dataType) throws Exception {
+        flush();
+        return delegate.loadAll(dataType);
+    }
+
+    @Override
+    public List<Map<String, Object>> query(String dataType, Map<String, Object> query) throws Exception {
+        flush();
+        return delegate.query(dataType, query);
+    }
+
+    @Override
+    public boolean backup(String backupLocation) throws Exception {
+        flush();
+        return delegate.backup(backupLocation);
+    }
+
+    @Override
+    public boolean restore(String backupLocation) throws Exception {
+        flush();
+        return delegate.restore(backupLocation);
+    }
+
+    @Override
+    public void initialize() throws Exception {
+        delegate.initialize();
+    }
+
+    /**
+     * Applies every pending write to the delegate. Writes the delegate rejects stay
+     * queued unless a newer write to the same ID has been queued meanwhile.
+     *
+     * @throws Exception The first error raised by the delegate, after the whole batch
+     *         has been attempted
+     */
+    public void flush() throws Exception {
+        synchronized (flushLock) {
+            Map<String, PendingWrite> batch;
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new LinkedHashMap<>(pending);
+                inFlight = batch;
+                pending.clear();
+            }
+
+            Exception firstError = null;
+            Map<String, PendingWrite> failed = new LinkedHashMap<>();
+            for (Map.Entry<String, PendingWrite> entry : batch.entrySet()) {
+                PendingWrite write = entry.getValue();
+                try {
+                    if (write.data != null) {
+                        delegate.store(write.dataType, write.id, write.data);
+                    } else {
+                        delegate.delete(write.dataType, write.id);
+                    }
+                } catch (Exception e) {
+                    failed.put(entry.getKey(), write);
+                    if (firstError == null) {
+                        firstError = e;
+                    }
+                }
+            }
+
+            synchronized (pending) {
+                for (Map.Entry<String, PendingWrite> entry : failed.entrySet()) {
+                    pending.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+                inFlight = new HashMap<>();
+                appliedWrites += batch.size() - failed.size();
+                failedWrites += failed.size();
+                flushes++;
+            }
+
+            if (firstError != null) {
+                throw firstError;
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            System.err.println("Error flushing write-behind persistence: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the background flushes, applies every pending write and shuts down the
+     * delegate. Further writes are rejected.
+     *
+     * @throws Exception If a pending write could not be applied; the delegate is then
+     *         left running
+     */
+    @Override
+    public void shutdown() throws Exception {
+        synchronized (pending) {
+            shutdown = true;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(1, TimeUnit.MINUTES);
+        flush();
+        delegate.shutdown();
+    }
+
+    /**
+     * Gets the number of queued and in-flight writes not yet applied to the delegate.
+     *
+     * @return The number of pending writes
+     */
+    public int getPendingCount() {
+        synchronized (pending) {
+            return pending.size() + inFlight.size();
+        }
+    }
+
+    /**
+     * Gets statistics about the writes: "queued", "coalesced", "applied", "failed",
+     * "flushes" and "pending".
+     *
+     * @return A map of write statistics
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        synchronized (pending) {
+            statistics.put("queued", queuedWrites);
+            statistics.put("coalesced", coalescedWrites);
+            statistics.put("applied", appliedWrites);
+            statistics.put("failed", failedWrites);
+            statistics.put("flushes", flushes);
+            statistics.put("pending", pending.size() + inFlight.size());
+        }
+        return statistics;
+    }
+}
@@ -7,10 +7,8 @@ import java.util.ArrayList;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.function.Predicate;
 import java.util.concurrent.CompletionException;
@@ -22,6 +20,8 @@ import com.fractal.browser.collective.core.InsightRegistry;
 import com.fractal.browser.collective.memory.DistributedInsightRepository;
 import com.fractal.browser.exceptions.FractalBrowserException;
 import com.fractal.browser.model.SemanticInstruction;
+import com.fractal.browser.processing.IterationResult;
+import com.fractal.browser.processing.NodeFractalProcessor;
 import com.fractal.browser.processing.ProcessingResult;
 import com.fractal.browser.collective.communication.SynchronizationProtocol;
 import com.fractal.browser.collective.communication.Insight;
@@ -48,11 +48,18 @@ public class CollectiveFractalProcessor implements CollectiveProcessor {
     private final InsightRegistry insightRegistry;
     private final SynchronizationProtocol synchronizationProtocol;
     
-    // Thread pool for parallel processing
-    private final ExecutorService processingExecutor;
+    // Strategy that schedules per-node processing
+    private final ExecutionStrategy executionStrategy;
     
-    // Map to track in-progress collaborative processing tasks
-    private final Map<String, Map<String, ProcessingResult>> processingResults;
+    // Default retention for collaborative processing results
+    private static final long DEFAULT_RESULT_TTL_MILLIS = 60 * 60 * 1000L;
+    private static final int DEFAULT_MAX_RESULT_ENTRIES = 10_000;
+    
+    // Bounded store of collaborative processing results, indexed by context
+    private final ProcessingResultStore processingResults;
+    
+    // Sequence that keeps processing IDs unique within the same millisecond
+    private final AtomicLong processingSequence = new AtomicLong();
     
     // Parameters for collective processing
     private final int minNodeParticipation;
@@ -84,6 +91,77 @@ public class CollectiveFractalProcessor implements CollectiveProcessor {
             int consensusThreshold,
             SynchronizationProtocol synchronizationProtocol) {
         
+        // Use a fixed thread pool for processing tasks by default
+        this(maxIterations, convergenceThreshold, nodeDiscovery, insightExchange, insightRepository,
+                boundary, insightRegistry, minNodeParticipation, consensusThreshold, synchronizationProtocol,
+                ExecutorExecutionStrategy.fixedPool(Runtime.getRuntime().availableProcessors() - 1));
+    }
+    
+    /**
+     * Creates a new CollectiveFractalProcessor with the specified dependencies and execution strategy,
+     * retaining processing results for one hour up to a default maximum number of entries.
+     * 
+     * @param maxIterations The maximum number of iterations for fractal processing
+     * @param convergenceThreshold The threshold for determining processing convergence
+     * @param nodeDiscovery Service for discovering network nodes
+     * @param insightExchange Service for exchanging insights between nodes
+     * @param insightRepository Repository for storing and retrieving insights
+     * @param boundary Information boundary for enforcing access controls
+     * @param insightRegistry Registry for tracking and categorizing insights
+     * @param minNodeParticipation Minimum number of nodes required for collective processing
+     * @param consensusThreshold Threshold for determining consensus (percentage, 0-100)
+     * @param synchronizationProtocol Service for synchronizing data types between nodes
+     * @param executionStrategy Strategy that schedules per-node processing
+     */
+    public CollectiveFractalProcessor(
+            int maxIterations,
+            double convergenceThreshold,
+            NodeDiscovery nodeDiscovery,
+            InsightExchange insightExchange,
+            DistributedInsightRepository insightRepository,
+            InformationBoundary boundary,
+            InsightRegistry insightRegistry,
+            int minNodeParticipation,
+            int consensusThreshold,
+            SynchronizationProtocol synchronizationProtocol,
+            ExecutionStrategy executionStrategy) {
+        
+        this(maxIterations, convergenceThreshold, nodeDiscovery, insightExchange, insightRepository,
+                boundary, insightRegistry, minNodeParticipation, consensusThreshold, synchronizationProtocol,
+                executionStrategy,
+                new ProcessingResultStore(DEFAULT_RESULT_TTL_MILLIS, DEFAULT_MAX_RESULT_ENTRIES, null));
+    }
+    
+    /**
+     * Creates a new CollectiveFractalProcessor with the specified dependencies and execution strategy.
+     * 
+     * @param maxIterations The maximum number of iterations for fractal processing
+     * @param convergenceThreshold The threshold for determining processing convergence
+     * @param nodeDiscovery Service for discovering network nodes
+     * @param insightExchange Service for exchanging insights between nodes
+     * @param insightRepository Repository for storing and retrieving insights
+     * @param boundary Information boundary for enforcing access controls
+     * @param insightRegistry Registry for tracking and categorizing insights
+     * @param minNodeParticipation Minimum number of nodes required for collective processing
+     * @param consensusThreshold Threshold for determining consensus (percentage, 0-100)
+     * @param synchronizationProtocol Service for synchronizing data types between nodes
+     * @param executionStrategy Strategy that schedules per-node processing
+     * @param processingResults Bounded store that retains processing results
+     */
+    public CollectiveFractalProcessor(
+            int maxIterations,
+            double convergenceThreshold,
+            NodeDiscovery nodeDiscovery,
+            InsightExchange insightExchange,
+            DistributedInsightRepository insightRepository,
+            InformationBoundary boundary,
+            InsightRegistry insightRegistry,
+            int minNodeParticipation,
+            int consensusThreshold,
+            SynchronizationProtocol synchronizationProtocol,
+            ExecutionStrategy executionStrategy,
+            ProcessingResultStore processingResults) {
+        
         this.maxIterations = maxIterations;
         this.convergenceThreshold = convergenceThreshold;
         this.nodeDiscovery = nodeDiscovery;
@@ -94,17 +172,13 @@ public class CollectiveFractalProcessor implements CollectiveProcessor {
         this.minNodeParticipation = minNodeParticipation;
         this.consensusThreshold = consensusThreshold;
         this.synchronizationProtocol = synchronizationProtocol;
-        
-        // Create a fixed thread pool for processing tasks
-        this.processingExecutor = Executors.newFixedThreadPool(
-                Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
-        
-        this.processingResults = new ConcurrentHashMap<>();
+        this.executionStrategy = executionStrategy;
+        this.processingResults = processingResults;
     }
     
     @Override
     public Set<String> discoverNodes(Predicate<Map<String, Object>> filter) {
-        return nodeDiscovery.discoverNodes(filter);
+        return nodeDiscovery.discoverNodeIds(filter);
     }
     
     @Override
@@ -120,40 +194,77 @@ public class CollectiveFractalProcessor implements CollectiveProcessor {
     @Override
     public ProcessingResult processCollectively(SemanticInstruction instruction, String contextId) {
         try {
-            String processingId = generateProcessingId(instruction);
-            processingResults.putIfAbsent(processingId, new ConcurrentHashMap<>());
-            
-            // Get participating nodes
-            Set<String> nodes = nodeDiscovery.discoverNodes(node -> true);
-            nodes = nodes.stream()
-                    .filter(nodeId -> nodeDiscovery.isNodeAvailable(nodeId))
-                    .collect(Collectors.toSet());
-            
-            if (nodes.size() < minNodeParticipation) {
-                throw new FractalBrowserException("Insufficient nodes available for collective processing");
-            }
-            
-            // Distribute processing across nodes
-            List<CompletableFuture<ProcessingResult>> futures = nodes.stream()
-                .map(nodeId -> CompletableFuture.supplyAsync(() -> {
-                    try {
-                        SemanticInstruction transformedInstruction = transformInstructionForNode(instruction, nodeId, contextId);
-                        return processNode(transformedInstruction, nodeId, contextId);
-                    } catch (Exception e) {
-                        throw new CompletionException("Node processing failed: " + nodeId, e);
-                    }
-                }, processingExecutor))
-                .collect(Collectors.toList());
-
-            // Wait for all nodes to complete
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-
-            // Aggregate results using fractal aggregation
-            return aggregateResults(processingId, contextId);
-            
+            return processCollectivelyAsync(instruction, contextId).join();
+        } catch (CompletionException e) {
+            throw new FractalBrowserException("Collective processing failed", e.getCause());
+        }
+    }
+    
+    /**
+     * Processes an instruction collectively without blocking the calling thread.
+     * Per-node work is scheduled by the configured execution strategy.
+     * 
+     * @param instruction The semantic instruction to process
+     * @param contextId The context identifier
+     * @return A future that completes with the aggregated result
+     */
+    public CompletableFuture<ProcessingResult> processCollectivelyAsync(SemanticInstruction instruction, String contextId) {
+        try {
+            return processCollectivelyStreaming(instruction, contextId).getFinalResult();
         } catch (Exception e) {
-            throw new FractalBrowserException("Collective processing failed", e);
+            CompletableFuture<ProcessingResult> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+    
+    /**
+     * Starts collective processing and returns an aggregator that is updated as each
+     * node's result arrives. Callers can read partial aggregates, wait for a quorum of
+     * consensusThreshold percent of the participating nodes, or wait for all of them.
+     * 
+     * @param instruction The semantic instruction to process
+     * @param contextId The context identifier
+     * @return The streaming aggregator for this processing task
+     * @throws FractalBrowserException if too few nodes are available
+     */
+    public StreamingResultAggregator processCollectivelyStreaming(SemanticInstruction instruction, String contextId) {
+        // Get participating nodes
+        List<String> nodes = nodeDiscovery.discoverNodeIds(node -> true).stream()
+                .filter(nodeId -> nodeDiscovery.isNodeAvailable(nodeId))
+                .collect(Collectors.toList());
+        
+        if (nodes.size() < minNodeParticipation) {
+            throw new FractalBrowserException("Insufficient nodes available for collective processing");
         }
+        
+        // Register only accepted tasks, kept from size-based eviction until they finish
+        String processingId = generateProcessingId(instruction);
+        Map<String, ProcessingResult> nodeResults = processingResults.registerRunning(processingId, contextId);
+        
+        StreamingResultAggregator aggregator = new StreamingResultAggregator(
+                contextId, nodes.size(), consensusThreshold, nodeResults);
+        
+        // Distribute processing across nodes, aggregating each result as it arrives
+        executionStrategy.execute(nodes, nodeId -> {
+                SemanticInstruction transformedInstruction = transformInstructionForNode(instruction, nodeId, contextId);
+                aggregator.accept(nodeId, processNode(transformedInstruction, nodeId, contextId));
+            })
+            .whenComplete((ignored, failure) -> {
+                aggregator.complete(failure);
+                processingResults.markCompleted(processingId);
+            });
+        
+        return aggregator;
+    }
+    
+    /**
+     * Gets the execution strategy used to schedule per-node processing.
+     * 
+     * @return The execution strategy
+     */
+    public ExecutionStrategy getExecutionStrategy() {
+        return executionStrategy;
     }
     
     /**
@@ -164,7 +275,7 @@ public class CollectiveFractalProcessor implements CollectiveProcessor {
      */
     private String generateProcessingId(SemanticInstruction instruction) {
         return "process-" + System.currentTimeMillis() + "-" 
-                + instruction.hashCode();
+                + instruction.hashCode() + "-" + processingSequence.incrementAndGet();
     }
     
     /**
@@ -183,63 +294,19 @@ public class CollectiveFractalProcessor implements CollectiveProcessor {
         return instruction;
     }
     
-    /**
-     * Aggregates processing results from multiple nodes using a fractal approach.
-     * 
-     * @param processingId The ID of the processing task
-     * @param contextId The context ID for boundary enforcement
-     * @return The aggregated result
-     */
-    private ProcessingResult aggregateResults(String processingId, String contextId) {
-        Map<String, ProcessingResult> nodeResults = processingResults.get(processingId);
-        if (nodeResults == null || nodeResults.isEmpty()) {
-            throw new FractalBrowserException("No results found for processing ID: " + processingId);
-        }
-        
-        // Aggregate results using fractal aggregation
-        ProcessingResult aggregatedResult = new ProcessingResult();
-        aggregatedResult.setContextId(contextId);
-        
-        // Calculate average convergence value
-        double avgConvergence = nodeResults.values().stream()
-            .mapToDouble(ProcessingResult::getConvergenceValue)
-            .average()
-            .orElse(0.0);
-        
-        // Calculate total iterations
-        int totalIterations = nodeResults.values().stream()
-            .mapToInt(ProcessingResult::getIterations)
-            .sum();
-        
-        // Create aggregated results map
-        Map<String, Object> aggregatedResults = new HashMap<>();
-        aggregatedResults.put("nodeCount", nodeResults.size());
-        aggregatedResults.put("averageConvergence", avgConvergence);
-        aggregatedResults.put("totalIterations", totalIterations);
-        aggregatedResults.put("nodeResults", nodeResults);
-        
-        aggregatedResult.setResults(aggregatedResults);
-        aggregatedResult.setIterations(totalIterations);
-        aggregatedResult.setConvergenceValue(avgConvergence);
-        
-        return aggregatedResult;
-    }
-    
     @Override
     public Map<String, List<ProcessingResult>> identifyEmergentPatterns(String contextId) {
         Map<String, List<ProcessingResult>> patterns = new HashMap<>();
         
-        // Get all processing results for the context
-        for (Map<String, ProcessingResult> nodeResults : processingResults.values()) {
+        // Only the retained results recorded for this context are scanned
+        for (Map<String, ProcessingResult> nodeResults : processingResults.getByContext(contextId)) {
             for (ProcessingResult result : nodeResults.values()) {
-                if (result.getContextId().equals(contextId)) {
-                    // Extract pattern ID from results
-                    Map<String, Object> results = result.getResults();
-                    if (results.containsKey("patternId")) {
-                        String patternId = (String) results.get("patternId");
-                        patterns.computeIfAbsent(patternId, k -> new ArrayList<>())
-                               .add(result);
-                    }
+                // Extract pattern ID from results
+                Map<String, Object> results = result.getResults();
+                if (results.containsKey("patternId")) {
+                    String patternId = (String) results.get("patternId");
+                    patterns.computeIfAbsent(patternId, k -> new ArrayList<>())
+                           .add(result);
                 }
             }
         }
@@ -247,6 +314,15 @@ public class CollectiveFractalProcessor implements CollectiveProcessor {
         return patterns;
     }
     
+    /**
+     * Gets the store that retains processing results.
+     * 
+     * @return The processing result store
+     */
+    public ProcessingResultStore getProcessingResults() {
+        return processingResults;
+    }
+    
     @Override
     public Map<String, Object> getParameters() {
         Map<String, Object> params = new HashMap<>();
@@ -373,51 +449,36 @@ public class CollectiveFractalProcessor implements CollectiveProcessor {
      * Shuts down the processor and releases resources.
      */
     public void shutdown() {
-        processingExecutor.shutdown();
+        executionStrategy.shutdown();
     }
 
     @Override
     public ProcessingResult processNode(SemanticInstruction instruction, String nodeId, String contextId) {
+        IterationResult iterationResult = new IterationResult();
+        processNode(instruction, nodeId, contextId, iterationResult);
+        
+        ProcessingResult result = new ProcessingResult(iterationResult);
+        result.setContextId(contextId);
+        return result;
+    }
+    
+    /**
+     * Processes an instruction for a specific node into a caller-supplied result
+     * without allocating a ProcessingResult or boxed values.
+     * 
+     * @param instruction The semantic instruction to process
+     * @param nodeId The node identifier
+     * @param contextId The context identifier
+     * @param sink Result to overwrite with the outcome
+     */
+    public void processNode(SemanticInstruction instruction, String nodeId, String contextId, IterationResult sink) {
         try {
             // Transform instruction for the specific node
             SemanticInstruction transformedInstruction = transformInstructionForNode(instruction, nodeId, contextId);
             
-            // Process the instruction
-            ProcessingResult result = new ProcessingResult();
-            result.setContextId(contextId);
-            
-            // Initialize z and c from the instruction
-            double z = transformedInstruction.getInitialValue();
-            double c = transformedInstruction.getConstantValue();
-            
-            int iterations = 0;
-            double convergenceValue = 0.0;
-            
-            // Apply the fractal formula z = z^2 + c
-            while (iterations < maxIterations && Math.abs(z) < 2.0) {
-                z = z * z + c;
-                iterations++;
-                
-                // Calculate convergence value
-                convergenceValue = Math.abs(z);
-                if (convergenceValue < convergenceThreshold) {
-                    break;
-                }
-            }
-            
-            // Store results
-            Map<String, Object> results = new HashMap<>();
-            results.put("finalValue", z);
-            results.put("iterations", iterations);
-            results.put("convergenceValue", convergenceValue);
-            results.put("converged", convergenceValue < convergenceThreshold);
-            results.put("nodeId", nodeId);
-            
-            result.setResults(results);
-            result.setIterations(iterations);
-            result.setConvergenceValue(convergenceValue);
-            
-            return result;
+            NodeFractalProcessor.iterate(transformedInstruction.getInitialValue(),
+                    transformedInstruction.getConstantValue(), maxIterations, convergenceThreshold, sink);
+            sink.setNodeId(nodeId);
         } catch (Exception e) {
             throw new FractalBrowserException("Failed to process node " + nodeId, e);
         }
@@ -0,0 +1,35 @@
+package com.fractal.browser.collective.processing;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * ExecutionStrategy defines how a CollectiveFractalProcessor schedules per-node work.
+ * This interface allows different concurrency models (fixed thread pools, work-stealing
+ * pools, virtual threads) to be plugged in without changing the processing logic.
+ */
+public interface ExecutionStrategy {
+    
+    /**
+     * Runs the given task once for every node without blocking the caller.
+     * 
+     * @param nodeIds The nodes to process
+     * @param nodeTask The work to perform for a single node
+     * @return A future that completes when every node task has finished, or
+     *         completes exceptionally if any node task fails
+     */
+    CompletableFuture<Void> execute(List<String> nodeIds, Consumer<String> nodeTask);
+    
+    /**
+     * Gets a short name identifying this strategy.
+     * 
+     * @return The strategy name
+     */
+    String getName();
+    
+    /**
+     * Shuts down the strategy and releases its threads.
+     */
+    void shutdown();
+}
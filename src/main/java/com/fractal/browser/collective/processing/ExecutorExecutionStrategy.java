@@ -0,0 +1,83 @@
+package com.fractal.browser.collective.processing;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * ExecutorExecutionStrategy submits one task per node to an ExecutorService.
+ * It backs both the fixed thread pool strategy and the virtual thread strategy.
+ */
+public class ExecutorExecutionStrategy implements ExecutionStrategy {
+    
+    private final String name;
+    private final ExecutorService executor;
+    
+    /**
+     * Creates a new ExecutorExecutionStrategy.
+     * 
+     * @param name The strategy name
+     * @param executor The executor that runs node tasks
+     */
+    public ExecutorExecutionStrategy(String name, ExecutorService executor) {
+        this.name = name;
+        this.executor = executor;
+    }
+    
+    /**
+     * Creates a strategy backed by a fixed thread pool.
+     * 
+     * @param threads The number of pool threads
+     * @return A fixed pool execution strategy
+     */
+    public static ExecutorExecutionStrategy fixedPool(int threads) {
+        return new ExecutorExecutionStrategy("fixed-pool", Executors.newFixedThreadPool(Math.max(1, threads)));
+    }
+    
+    /**
+     * Creates a strategy that runs every node task on its own virtual thread.
+     * Virtual threads require Java 21; on older runtimes this falls back to a
+     * cached thread pool so callers still get one thread per node task.
+     * 
+     * @return A virtual thread execution strategy
+     */
+    public static ExecutorExecutionStrategy virtualThreads() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            return new ExecutorExecutionStrategy("virtual-threads", executor);
+        } catch (ReflectiveOperationException e) {
+            return new ExecutorExecutionStrategy("cached-pool", Executors.newCachedThreadPool());
+        }
+    }
+    
+    @Override
+    public CompletableFuture<Void> execute(List<String> nodeIds, Consumer<String> nodeTask) {
+        List<CompletableFuture<Void>> futures = nodeIds.stream()
+            .map(nodeId -> CompletableFuture.runAsync(() -> {
+                try {
+                    nodeTask.accept(nodeId);
+                } catch (Exception e) {
+                    throw new CompletionException("Node processing failed: " + nodeId, e);
+                }
+            }, executor))
+            .collect(Collectors.toList());
+        
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
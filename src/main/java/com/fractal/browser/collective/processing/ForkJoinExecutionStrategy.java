@@ -0,0 +1,102 @@
+package com.fractal.browser.collective.processing;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * ForkJoinExecutionStrategy processes nodes on a work-stealing ForkJoinPool.
+ * The node list is split recursively into chunks, so idle workers steal pending
+ * chunks from busy ones instead of waiting behind a slow node.
+ */
+public class ForkJoinExecutionStrategy implements ExecutionStrategy {
+    
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    
+    /**
+     * Creates a new ForkJoinExecutionStrategy with one worker per available processor.
+     */
+    public ForkJoinExecutionStrategy() {
+        this(Runtime.getRuntime().availableProcessors(), 1);
+    }
+    
+    /**
+     * Creates a new ForkJoinExecutionStrategy.
+     * 
+     * @param parallelism The number of worker threads
+     * @param chunkSize The number of nodes below which a chunk is processed without further splitting
+     */
+    public ForkJoinExecutionStrategy(int parallelism, int chunkSize) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+    
+    @Override
+    public CompletableFuture<Void> execute(List<String> nodeIds, Consumer<String> nodeTask) {
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        NodeChunkTask rootTask = new NodeChunkTask(nodeIds, 0, nodeIds.size(), nodeTask);
+        
+        pool.execute(() -> {
+            try {
+                rootTask.invoke();
+                completion.complete(null);
+            } catch (Throwable t) {
+                completion.completeExceptionally(t);
+            }
+        });
+        
+        return completion;
+    }
+    
+    @Override
+    public String getName() {
+        return "fork-join";
+    }
+    
+    @Override
+    public void shutdown() {
+        pool.shutdown();
+    }
+    
+    /**
+     * Recursive task that halves its node range until it reaches the chunk size.
+     */
+    private class NodeChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final List<String> nodeIds;
+        private final int start;
+        private final int end;
+        private final Consumer<String> nodeTask;
+        
+        NodeChunkTask(List<String> nodeIds, int start, int end, Consumer<String> nodeTask) {
+            this.nodeIds = nodeIds;
+            this.start = start;
+            this.end = end;
+            this.nodeTask = nodeTask;
+        }
+        
+        @Override
+        protected void compute() {
+            if (end - start <= chunkSize) {
+                for (int i = start; i < end; i++) {
+                    String nodeId = nodeIds.get(i);
+                    try {
+                        nodeTask.accept(nodeId);
+                    } catch (Exception e) {
+                        throw new CompletionException("Node processing failed: " + nodeId, e);
+                    }
+                }
+                return;
+            }
+            
+            int mid = (start + end) >>> 1;
+            invokeAll(new NodeChunkTask(nodeIds, start, mid, nodeTask),
+                      new NodeChunkTask(nodeIds, mid, end, nodeTask));
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.fractal.browser.collective.processing;
+
+import java.util.Map;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.fractal.browser.collective.memory.PersistenceStrategy;
+import com.fractal.browser.processing.ProcessingResult;
+
+/**
+ * ProcessingResultStore holds the per-node results of collective processing tasks
+ * with a bounded lifecycle. Entries are evicted once they are older than the
+ * configured time-to-live or once the store exceeds its maximum size, oldest first.
+ * Entries of tasks still running are exempt from size-based eviction, so results
+ * keep arriving for them; they still expire. Evicted entries can optionally be
+ * spilled to a PersistenceStrategy.
+ *
+ * Entries are indexed by context ID, so per-context queries only touch that
+ * context's results.
+ */
+public class ProcessingResultStore {
+
+    // Data type used when spilling evicted results to persistence
+    public static final String SPILL_DATA_TYPE = "processingResults";
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final PersistenceStrategy spillStrategy;
+
+    // Maps processing IDs to their entries
+    private final Map<String, Entry> entries;
+
+    // Maps context IDs to the processing IDs recorded for them
+    private final Map<String, Set<String>> contextIndex;
+
+    // Entries in creation order, used for eviction
+    private final Queue<Entry> creationOrder;
+
+    /**
+     * A single processing task's node results.
+     */
+    private static class Entry {
+        private final String processingId;
+        private final String contextId;
+        private final long createdAt;
+        private final Map<String, ProcessingResult> nodeResults;
+        private volatile boolean running;
+
+        Entry(String processingId, String contextId, long createdAt, boolean running) {
+            this.processingId = processingId;
+            this.contextId = contextId;
+            this.createdAt = createdAt;
+            this.nodeResults = new ConcurrentHashMap<>();
+            this.running = running;
+        }
+    }
+
+    /**
+     * Creates a new ProcessingResultStore.
+     *
+     * @param ttlMillis Time-to-live for entries in milliseconds, or 0 for no expiry
+     * @param maxEntries Maximum number of retained entries, or 0 for no limit
+     * @param spillStrategy Persistence strategy for evicted entries, or null to discard them
+     */
+    public ProcessingResultStore(long ttlMillis, int maxEntries, PersistenceStrategy spillStrategy) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.spillStrategy = spillStrategy;
+        this.entries = new ConcurrentHashMap<>();
+        this.contextIndex = new ConcurrentHashMap<>();
+        this.creationOrder = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Registers a new processing task and returns the map that receives its node results.
+     * Expired and excess entries are evicted as part of registration.
+     *
+     * @param processingId The processing task ID
+     * @param contextId The context the task runs in
+     * @return The node results map for the task
+     */
+    public Map<String, ProcessingResult> register(String processingId, String contextId) {
+        return register(processingId, contextId, false);
+    }
+
+    /**
+     * Registers a processing task that is still running. Its entry is not evicted for
+     * size until {@link #markCompleted} is called.
+     *
+     * @param processingId The processing task ID
+     * @param contextId The context the task runs in
+     * @return The node results map for the task
+     */
+    public Map<String, ProcessingResult> registerRunning(String processingId, String contextId) {
+        return register(processingId, contextId, true);
+    }
+
+    /**
+     * Marks a running task as completed, making its entry eligible for size-based eviction.
+     *
+     * @param processingId The processing task ID
+     */
+    public void markCompleted(String processingId) {
+        Entry entry = entries.get(processingId);
+        if (entry != null) {
+            entry.running = false;
+            evict();
+        }
+    }
+
+    private Map<String, ProcessingResult> register(String processingId, String contextId, boolean running) {
+        Entry entry = new Entry(processingId, contextId, System.currentTimeMillis(), running);
+        Entry existing = entries.putIfAbsent(processingId, entry);
+        if (existing != null) {
+            return existing.nodeResults;
+        }
+
+        if (contextId != null) {
+            contextIndex.compute(contextId, (k, ids) -> {
+                Set<String> processingIds = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                processingIds.add(processingId);
+                return processingIds;
+            });
+        }
+        creationOrder.add(entry);
+
+        evict();
+        return entry.nodeResults;
+    }
+
+    /**
+     * Gets the node results for a processing task.
+     *
+     * @param processingId The processing task ID
+     * @return The node results, or null if unknown or evicted
+     */
+    public Map<String, ProcessingResult> get(String processingId) {
+        Entry entry = entries.get(processingId);
+        return entry == null ? null : entry.nodeResults;
+    }
+
+    /**
+     * Gets the node results of every retained processing task in a context.
+     *
+     * @param contextId The context ID
+     * @return A list of node result maps, one per processing task
+     */
+    public List<Map<String, ProcessingResult>> getByContext(String contextId) {
+        Set<String> processingIds = contextIndex.getOrDefault(contextId, Collections.emptySet());
+        List<Map<String, ProcessingResult>> results = new ArrayList<>(processingIds.size());
+
+        for (String processingId : processingIds) {
+            Entry entry = entries.get(processingId);
+            if (entry != null && !isExpired(entry, System.currentTimeMillis())) {
+                results.add(entry.nodeResults);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Evicts expired entries, then completed entries beyond the maximum size, oldest first.
+     *
+     * @return The number of evicted entries
+     */
+    public int evict() {
+        int evicted = 0;
+        long now = System.currentTimeMillis();
+
+        Entry oldest;
+        while ((oldest = creationOrder.peek()) != null && isExpired(oldest, now)) {
+            if (!creationOrder.remove(oldest)) {
+                continue; // Evicted concurrently
+            }
+            remove(oldest);
+            evicted++;
+        }
+
+        // Skip past running tasks to the oldest completed entries
+        Iterator<Entry> candidates = creationOrder.iterator();
+        while (maxEntries > 0 && entries.size() > maxEntries && candidates.hasNext()) {
+            Entry candidate = candidates.next();
+            if (!candidate.running && creationOrder.remove(candidate)) {
+                remove(candidate);
+                evicted++;
+            }
+        }
+
+        return evicted;
+    }
+
+    /**
+     * Gets the number of retained entries.
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes an entry from all indexes and spills it if configured.
+     */
+    private void remove(Entry entry) {
+        entries.remove(entry.processingId, entry);
+
+        if (entry.contextId != null) {
+            contextIndex.computeIfPresent(entry.contextId, (k, ids) -> {
+                ids.remove(entry.processingId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+
+        spill(entry);
+    }
+
+    /**
+     * Writes an evicted entry to the spill strategy.
+     */
+    private void spill(Entry entry) {
+        if (spillStrategy == null) {
+            return;
+        }
+
+        try {
+            Map<String, Object> nodeData = new HashMap<>();
+            for (Map.Entry<String, ProcessingResult> result : entry.nodeResults.entrySet()) {
+                Map<String, Object> resultData = new HashMap<>();
+                resultData.put("iterations", result.getValue().getIterations());
+                resultData.put("convergenceValue", result.getValue().getConvergenceValue());
+                resultData.put("results", new HashMap<>(result.getValue().getResults()));
+                nodeData.put(result.getKey(), resultData);
+            }
+
+            Map<String, Object> persistData = new HashMap<>();
+            persistData.put("processingId", entry.processingId);
+            persistData.put("contextId", entry.contextId);
+            persistData.put("createdAt", entry.createdAt);
+            persistData.put("nodeResults", nodeData);
+
+            spillStrategy.store(SPILL_DATA_TYPE, entry.processingId, persistData);
+        } catch (Exception e) {
+            System.err.println("Error spilling processing results: " + e.getMessage());
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return ttlMillis > 0 && now - entry.createdAt > ttlMillis;
+    }
+}
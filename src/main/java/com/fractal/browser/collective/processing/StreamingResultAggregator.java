@@ -0,0 +1,191 @@
+package com.fractal.browser.collective.processing;
+
+import java.util.Map;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+
+import com.fractal.browser.exceptions.FractalBrowserException;
+import com.fractal.browser.processing.ProcessingResult;
+
+/**
+ * StreamingResultAggregator folds node results into running statistics as they arrive,
+ * instead of waiting for every node and re-scanning the full result set.
+ *
+ * Convergence mean and variance are maintained with Welford's online algorithm.
+ * Callers can read a partial aggregate at any time, wait for a quorum of nodes,
+ * or wait for the final aggregate once every node has reported.
+ */
+public class StreamingResultAggregator {
+
+    private final String contextId;
+    private final int expectedNodes;
+    private final int quorumSize;
+    private final Map<String, ProcessingResult> nodeResults;
+
+    // Running statistics, guarded by this
+    private int count;
+    private double meanConvergence;
+    private double convergenceM2;
+    private long totalIterations;
+
+    private final CompletableFuture<ProcessingResult> quorumResult;
+    private final CompletableFuture<ProcessingResult> finalResult;
+
+    /**
+     * Creates a new StreamingResultAggregator.
+     *
+     * @param contextId The context ID of the aggregated result
+     * @param expectedNodes The number of nodes expected to report
+     * @param consensusThreshold Percentage (0-100) of expected nodes that forms a quorum
+     * @param nodeResults Map that receives each node's result as it is accepted
+     */
+    public StreamingResultAggregator(String contextId, int expectedNodes, int consensusThreshold,
+                                     Map<String, ProcessingResult> nodeResults) {
+        this.contextId = contextId;
+        this.expectedNodes = expectedNodes;
+        this.quorumSize = Math.max(1, Math.min(expectedNodes,
+                (int) Math.ceil(expectedNodes * Math.max(0, consensusThreshold) / 100.0)));
+        this.nodeResults = nodeResults;
+        this.quorumResult = new CompletableFuture<>();
+        this.finalResult = new CompletableFuture<>();
+    }
+
+    /**
+     * Accepts a node's result and updates the running statistics.
+     *
+     * @param nodeId The node that produced the result
+     * @param result The node's processing result
+     */
+    public void accept(String nodeId, ProcessingResult result) {
+        ProcessingResult quorumSnapshot = null;
+
+        synchronized (this) {
+            nodeResults.put(nodeId, result);
+
+            count++;
+            double delta = result.getConvergenceValue() - meanConvergence;
+            meanConvergence += delta / count;
+            convergenceM2 += delta * (result.getConvergenceValue() - meanConvergence);
+            totalIterations += result.getIterations();
+
+            if (count == quorumSize) {
+                quorumSnapshot = buildResult();
+            }
+        }
+
+        // Complete outside the lock so dependent stages don't run while holding it
+        if (quorumSnapshot != null) {
+            quorumResult.complete(quorumSnapshot);
+        }
+    }
+
+    /**
+     * Marks the aggregation as finished, completing the final result.
+     *
+     * @param failure The failure that ended processing, or null if every node reported
+     */
+    public void complete(Throwable failure) {
+        ProcessingResult result = null;
+        if (failure == null) {
+            synchronized (this) {
+                if (count > 0) {
+                    result = buildResult();
+                }
+            }
+            if (result == null) {
+                failure = new FractalBrowserException("No results found for context: " + contextId);
+            }
+        }
+
+        if (failure != null) {
+            quorumResult.completeExceptionally(failure);
+            finalResult.completeExceptionally(failure);
+            return;
+        }
+
+        // No-op for the quorum future if it was already reached
+        quorumResult.complete(result);
+        finalResult.complete(result);
+    }
+
+    /**
+     * Gets an aggregate of the results received so far.
+     *
+     * @return The partial aggregated result
+     */
+    public synchronized ProcessingResult getPartialResult() {
+        return buildResult();
+    }
+
+    /**
+     * Gets a future that completes once a quorum of nodes has reported.
+     *
+     * @return Future of the aggregate at the moment the quorum was reached
+     */
+    public CompletableFuture<ProcessingResult> getQuorumResult() {
+        return quorumResult;
+    }
+
+    /**
+     * Gets a future that completes once every node has reported.
+     *
+     * @return Future of the final aggregated result
+     */
+    public CompletableFuture<ProcessingResult> getFinalResult() {
+        return finalResult;
+    }
+
+    /**
+     * Gets the number of node results received so far.
+     *
+     * @return The reported node count
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the number of nodes that forms a quorum.
+     *
+     * @return The quorum size
+     */
+    public int getQuorumSize() {
+        return quorumSize;
+    }
+
+    /**
+     * Gets the sample variance of the convergence values received so far.
+     *
+     * @return The convergence variance, or 0.0 with fewer than two results
+     */
+    public synchronized double getConvergenceVariance() {
+        return count < 2 ? 0.0 : convergenceM2 / (count - 1);
+    }
+
+    /**
+     * Builds an aggregated result from the current statistics. Must hold the lock.
+     *
+     * @return The aggregated result
+     */
+    private ProcessingResult buildResult() {
+        ProcessingResult aggregatedResult = new ProcessingResult();
+        aggregatedResult.setContextId(contextId);
+
+        int iterations = (int) Math.min(Integer.MAX_VALUE, totalIterations);
+
+        // Create aggregated results map
+        Map<String, Object> aggregatedResults = new HashMap<>();
+        aggregatedResults.put("nodeCount", count);
+        aggregatedResults.put("expectedNodeCount", expectedNodes);
+        aggregatedResults.put("averageConvergence", meanConvergence);
+        aggregatedResults.put("convergenceVariance", count < 2 ? 0.0 : convergenceM2 / (count - 1));
+        aggregatedResults.put("totalIterations", iterations);
+        aggregatedResults.put("nodeResults", new HashMap<>(nodeResults));
+
+        aggregatedResult.setResults(aggregatedResults);
+        aggregatedResult.setIterations(iterations);
+        aggregatedResult.setConvergenceValue(meanConvergence);
+
+        return aggregatedResult;
+    }
+}
@@ -0,0 +1,116 @@
+package com.fractal.browser.processing;
+
+import java.util.Map;
+import java.util.HashMap;
+
+/**
+ * Mutable, primitive-field result of a single fractal iteration run.
+ * Processors write into an instance of this class instead of allocating a
+ * {@link ProcessingResult} and boxed map entries, so a caller on the hot path can
+ * reuse one instance across many calls. Instances are not thread-safe.
+ */
+public class IterationResult {
+    private double finalValue;
+    private int iterations;
+    private double convergenceValue;
+    private boolean converged;
+    private String nodeId;
+
+    /**
+     * Creates a new, reset IterationResult.
+     */
+    public IterationResult() {
+        reset();
+    }
+
+    /**
+     * Records the outcome of an iteration run.
+     * @param finalValue Final z value
+     * @param iterations Number of iterations performed
+     * @param convergenceValue Final convergence value
+     * @param converged Whether the convergence threshold was reached
+     */
+    public void set(double finalValue, int iterations, double convergenceValue, boolean converged) {
+        this.finalValue = finalValue;
+        this.iterations = iterations;
+        this.convergenceValue = convergenceValue;
+        this.converged = converged;
+    }
+
+    /**
+     * Sets the identifier of the node that produced this result.
+     * @param nodeId Node identifier, or null for local processing
+     */
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Clears all values so the instance can be reused.
+     */
+    public void reset() {
+        this.finalValue = 0.0;
+        this.iterations = 0;
+        this.convergenceValue = 0.0;
+        this.converged = false;
+        this.nodeId = null;
+    }
+
+    /**
+     * Creates an independent copy of this result.
+     * @return A new IterationResult with the same values
+     */
+    public IterationResult copy() {
+        IterationResult copy = new IterationResult();
+        copy.set(finalValue, iterations, convergenceValue, converged);
+        copy.setNodeId(nodeId);
+        return copy;
+    }
+
+    public double getFinalValue() {
+        return finalValue;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public double getConvergenceValue() {
+        return convergenceValue;
+    }
+
+    public boolean isConverged() {
+        return converged;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Builds the map representation used by {@link ProcessingResult#getResults()}.
+     * @return Map containing the result values
+     */
+    Map<String, Object> toMap() {
+        Map<String, Object> results = new HashMap<>();
+        results.put("finalValue", finalValue);
+        results.put("iterations", iterations);
+        results.put("convergenceValue", convergenceValue);
+        results.put("converged", converged);
+        if (nodeId != null) {
+            results.put("nodeId", nodeId);
+        }
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        return "IterationResult{" +
+                "finalValue=" + finalValue +
+                ", iterations=" + iterations +
+                ", convergenceValue=" + convergenceValue +
+                ", converged=" + converged +
+                ", nodeId='" + nodeId + '\'' +
+                '}';
+    }
+}
@@ -2,15 +2,19 @@ package com.fractal.browser.processing;
 
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Collections;
 import java.util.Optional;
 import java.util.Objects;
 
 /**
  * Represents the result of a fractal processing operation.
  * Contains the processing results, iteration count, convergence value, and context information.
+ * When created from an {@link IterationResult}, the results map is only built on first access,
+ * once even when several threads read it concurrently.
  */
 public class ProcessingResult {
-    private final Map<String, Object> results;
+    private volatile Map<String, Object> results;
+    private volatile IterationResult source;
     private int iterations;
     private double convergenceValue;
     private String contextId;
@@ -37,14 +41,27 @@ public class ProcessingResult {
         this.convergenceValue = 0.0;
     }
     
+    /**
+     * Creates a ProcessingResult backed by a primitive iteration result.
+     * The results map is derived lazily, so no map or boxed values are allocated
+     * unless {@link #getResults()} is called.
+     * @param source Iteration result owned by this instance; callers must not reuse it
+     * @throws NullPointerException if source is null
+     */
+    public ProcessingResult(IterationResult source) {
+        this.source = Objects.requireNonNull(source, "source cannot be null");
+        this.iterations = source.getIterations();
+        this.convergenceValue = source.getConvergenceValue();
+    }
+    
     /**
      * Sets the processing results.
      * @param results Map containing processing results
      * @throws NullPointerException if results is null
      */
-    public void setResults(Map<String, Object> results) {
-        this.results.clear();
-        this.results.putAll(Objects.requireNonNull(results, "results cannot be null"));
+    public synchronized void setResults(Map<String, Object> results) {
+        this.results = new HashMap<>(Objects.requireNonNull(results, "results cannot be null"));
+        this.source = null;
     }
     
     /**
@@ -73,10 +90,28 @@ public class ProcessingResult {
     
     /**
      * Gets the processing results.
-     * @return Map containing processing results
+     * @return Read-only map containing processing results
      */
     public Map<String, Object> getResults() {
-        return new HashMap<>(results);
+        Map<String, Object> map = results;
+        if (map == null) {
+            synchronized (this) {
+                map = results;
+                if (map == null) {
+                    map = source.toMap();
+                    results = map;
+                }
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+    
+    /**
+     * Gets a copy of the primitive iteration result backing this instance, if any.
+     * @return Optional containing a copy of the backing iteration result
+     */
+    public Optional<IterationResult> getIterationResult() {
+        return Optional.ofNullable(source).map(IterationResult::copy);
     }
     
     /**
@@ -106,7 +141,7 @@ public class ProcessingResult {
     @Override
     public String toString() {
         return "ProcessingResult{" +
-                "results=" + results +
+                "results=" + getResults() +
                 ", iterations=" + iterations +
                 ", convergenceValue=" + convergenceValue +
                 ", contextId='" + contextId + '\'' +
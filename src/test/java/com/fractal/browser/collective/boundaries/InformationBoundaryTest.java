@@ -4,8 +4,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -125,4 +129,96 @@ public class InformationBoundaryTest {
         assertTrue(boundary.registerContext("test-min", 0));
         assertTrue(boundary.registerContext("test-max", 10));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBulkEvaluationMatchesPerItemChecks() {
+        for (int level = 0; level <= 10; level++) {
+            boundary.registerContext("level-" + level, level);
+        }
+
+        Random random = new Random(42);
+        List<String> informationIds = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String informationId = "info-" + i;
+            informationIds.add(informationId);
+            // Leave some information without a sensitivity, and change others more than once
+            if (i % 10 != 0) {
+                boundary.setSensitivity(informationId, random.nextInt(11) / 10.0);
+            }
+            if (i % 7 == 0) {
+                boundary.setSensitivity(informationId, random.nextDouble());
+            }
+        }
+
+        for (int level = 0; level <= 10; level++) {
+            String contextId = "level-" + level;
+            BitSet visible = boundary.filterVisible(informationIds, contextId);
+            BitSet visibleCodes = boundary.getVisibleInformation(contextId);
+
+            for (int i = 0; i < informationIds.size(); i++) {
+                String informationId = informationIds.get(i);
+                boolean expected = boundary.canInformationPass(informationId, contextId);
+                assertEquals(expected, visible.get(i), informationId + " at level " + level);
+
+                int code = boundary.getInformationCode(informationId);
+                if (code >= 0) {
+                    assertEquals(informationId, boundary.getInformationId(code));
+                    assertEquals(expected, visibleCodes.get(code));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFilterVisibleCodesIsBitmapAnd() {
+        boundary.registerContext("medium-access", 5);
+        boundary.setSensitivity("public", 0.1);
+        boundary.setSensitivity("internal", 0.5);
+        boundary.setSensitivity("secret", 0.9);
+
+        BitSet candidates = new BitSet();
+        candidates.set(boundary.getInformationCode("public"));
+        candidates.set(boundary.getInformationCode("secret"));
+
+        BitSet visible = boundary.filterVisible(candidates, "medium-access");
+        assertEquals(1, visible.cardinality());
+        assertTrue(visible.get(boundary.getInformationCode("public")));
+        assertEquals(2, candidates.cardinality());
+
+        // Lowering a sensitivity makes the information visible at lower levels
+        boundary.setSensitivity("secret", 0.3);
+        assertTrue(boundary.filterVisible(candidates, "medium-access").get(boundary.getInformationCode("secret")));
+        assertEquals(-1, boundary.getInformationCode("unknown"));
+    }
+
+    @Test
+    public void testReleasedCodesAreReusedUnlessASensitivityKeepsThem() {
+        boundary.registerContext("full-access", 10);
+        boundary.registerContext("medium-access", 5);
+        int first = boundary.assignInformationCode("indexed");
+        assertEquals(first, boundary.assignInformationCode("indexed"));
+        int sensitive = boundary.assignInformationCode("sensitive");
+        boundary.setSensitivity("sensitive", 0.2);
+
+        // Two references are held, so the first release keeps the code
+        boundary.releaseInformationCode("indexed");
+        assertEquals(first, boundary.getInformationCode("indexed"));
+        boundary.releaseInformationCode("indexed");
+        assertEquals(-1, boundary.getInformationCode("indexed"));
+        assertNull(boundary.getInformationId(first));
+
+        // An explicit sensitivity keeps the code after the last index lets go
+        boundary.releaseInformationCode("sensitive");
+        assertEquals(sensitive, boundary.getInformationCode("sensitive"));
+
+        // The released code is reused, and carries no visibility from its previous holder
+        assertEquals(first, boundary.assignInformationCode("reused"));
+        assertEquals("reused", boundary.getInformationId(first));
+        BitSet candidates = new BitSet();
+        candidates.set(first);
+        candidates.set(sensitive);
+        assertEquals(1, boundary.filterVisible(candidates, "medium-access").cardinality());
+        assertEquals(candidates, boundary.filterVisible(candidates, "full-access"));
+        boundary.releaseInformationCode("unknown");
+    }
+}
@@ -4,10 +4,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 
 public class PrivacyFilterTest {
@@ -160,4 +170,245 @@ public class PrivacyFilterTest {
             assertTrue(filtered.contains("[REDACTED-TERM]"));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSinglePassMatchesSequentialReplacement() {
+        PrivacyFilter strict = new PrivacyFilter(5, Locale.ROOT);
+        strict.setStrictFiltering(true);
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String term = "term" + (char) ('a' + i % 26) + i + "x";
+            terms.add(term);
+            strict.addSensitiveTerm(term);
+        }
+
+        String[] vocabulary = {
+            "hello", "world", "Password", "SECRET", "private", "user@example.com", "555-123-4567",
+            "98765", "12", "termc2x", "TERMZ25X", "confidential.", "plain", "(555) 123-4567"
+        };
+        Random random = new Random(9);
+        for (int doc = 0; doc < 50; doc++) {
+            StringBuilder content = new StringBuilder();
+            for (int word = 0; word < 200; word++) {
+                content.append(random.nextInt(4) == 0 ? terms.get(random.nextInt(terms.size()))
+                        : vocabulary[random.nextInt(vocabulary.length)]);
+                content.append(random.nextBoolean() ? " " : "\n");
+            }
+
+            String text = content.toString();
+            assertEquals(sequentialFilter(text, terms), strict.filterContent(text));
+        }
+    }
+
+    @Test
+    public void testOverlappingTermsUseLeftmostLongestMatch() {
+        filter.addSensitiveTerm("pass");
+        filter.addSensitiveTerm("passphrase");
+
+        assertEquals("[REDACTED-TERM] and [REDACTED-TERM]", filter.filterContent("PassPhrase and pass"));
+        assertEquals("[REDACTED-TERM]", filter.filterContent("password"));
+    }
+
+    @Test
+    public void testCustomPatternIsAppliedAfterRuleChange() {
+        String content = "Order id ABC-1234 confirmed";
+        assertEquals(content, filter.filterContent(content));
+
+        assertTrue(filter.addSensitivePattern("order", "[A-Z]{3}-\\d{4}"));
+        assertFalse(filter.addSensitivePattern("order", "ignored"));
+        assertFalse(filter.addSensitivePattern("broken", "([a-z"));
+
+        assertEquals("Order id [REDACTED-TERM] confirmed", filter.filterContent(content));
+        assertTrue(filter.containsSensitiveInformation(content));
+    }
+
+    @Test
+    public void testStreamingMatchesStringFiltering() throws IOException {
+        PrivacyFilter strict = new PrivacyFilter(5, Locale.ROOT);
+        strict.setStrictFiltering(true);
+        strict.addSensitiveTerm("passphrase");
+        String text = randomDocument(new Random(21), 60_000);
+
+        for (int maxRead : new int[] {1, 7, 5_000, 100_000}) {
+            StringWriter out = new StringWriter();
+            strict.filterContent(new ChunkedReader(text, maxRead, new Random(maxRead)), out);
+            assertEquals(strict.filterContent(text), out.toString(), "reads of up to " + maxRead);
+        }
+
+        // Writes through the redacting writer straddle chunk boundaries as well
+        StringWriter out = new StringWriter();
+        try (Writer writer = strict.redactingWriter(out)) {
+            Random random = new Random(4);
+            for (int i = 0; i < text.length(); ) {
+                int end = Math.min(text.length(), i + 1 + random.nextInt(3_000));
+                writer.write(text, i, end - i);
+                i = end;
+            }
+        }
+        assertEquals(strict.filterContent(text), out.toString());
+    }
+
+    @Test
+    public void testStreamingSafetyPipelineMatchesStringPath() throws IOException {
+        SafetyContainer container = new SafetyContainer(5);
+        container.addSafetyTransformer(content -> content.replace("token", "[TOKEN]"));
+        String text = randomDocument(new Random(8), 60_000);
+
+        StringWriter safetyOut = new StringWriter();
+        container.applySafetyMeasures(new ChunkedReader(text, 7, new Random(2)), safetyOut);
+        assertEquals(container.applySafetyMeasures(text), safetyOut.toString());
+
+        StringWriter pipelineOut = new StringWriter();
+        filter.filterContent(new ChunkedReader(text, 3_000, new Random(3)), pipelineOut, container);
+        assertEquals(container.applySafetyMeasures(filter.filterContent(text)), pipelineOut.toString());
+    }
+
+    @Test
+    public void testEmptyStreamProducesNoOutput() throws IOException {
+        StringWriter out = new StringWriter();
+        filter.filterContent(new StringReader(""), out, new SafetyContainer());
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    public void testResultCacheServesRepeatedContent() {
+        assertFalse(filter.getResultCache().isPresent());
+        filter.enableResultCache(2);
+        RedactionCache cache = filter.getResultCache().get();
+
+        String content = "Mail test@example.com about the codename";
+        String expected = filter.filterContent(content);
+        assertEquals(expected, filter.filterContent(content));
+        assertEquals(expected, filter.filterContent(new String(content)));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+
+        // Least recently used entries are evicted beyond the size bound
+        filter.filterContent("first");
+        filter.filterContent("second");
+        assertEquals(2, cache.size());
+        filter.filterContent(content);
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void testResultCacheNeverReturnsStaleRedactions() {
+        filter.enableResultCache(100);
+        String content = "The codename is 12345 for user@example.com";
+        assertEquals(content.replace("user@example.com", "[REDACTED-EMAIL]"), filter.filterContent(content));
+
+        filter.addSensitiveTerm("codename");
+        assertTrue(filter.filterContent(content).contains("[REDACTED-TERM]"));
+
+        filter.setPrivacyLevel(1);
+        assertTrue(filter.filterContent(content).contains("codename"));
+
+        filter.setPrivacyLevel(5);
+        filter.setStrictFiltering(true);
+        assertTrue(filter.filterContent(content).contains("[REDACTED-NUMBER]"));
+
+        filter.addSensitivePattern("article", "The");
+        assertTrue(filter.filterContent(content).startsWith("[REDACTED-TERM] [REDACTED-TERM] is"));
+        assertEquals(0, filter.getResultCache().get().getHitCount());
+    }
+
+    @Test
+    public void testParallelFilteringMatchesSequential() {
+        PrivacyFilter strict = new PrivacyFilter(5, Locale.ROOT);
+        strict.setStrictFiltering(true);
+        strict.addSensitiveTerm("pass");
+        strict.addSensitiveTerm("passphrase");
+        strict.addSensitiveTerm("phrase and");
+        strict.addSensitivePattern("words", "(?:long ){3,}words");
+        String[] vocabulary = {
+            "pass", "passphrase", "phrase", "and", "user@example.com", "555-123-4567", "123456789", "12",
+            "long", "words", "(555) 123-4567", "private", " ", "\n"
+        };
+        Random random = new Random(17);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int doc = 0; doc < 20; doc++) {
+                StringBuilder content = new StringBuilder();
+                while (content.length() < 4_000) {
+                    content.append(vocabulary[random.nextInt(vocabulary.length)]);
+                    if (random.nextInt(3) > 0) {
+                        content.append(' ');
+                    }
+                }
+
+                String text = content.toString();
+                String expected = strict.filterContent(text);
+                for (int chunkSize : new int[] {3, 7, 64, 1_000}) {
+                    assertEquals(expected, strict.filterContentParallel(text, pool, chunkSize), "chunk size " + chunkSize);
+                }
+            }
+            String large = randomDocument(new Random(6), 500_000);
+            assertEquals(strict.filterContent(large), strict.filterContentParallel(large, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static String randomDocument(Random random, int length) {
+        String[] vocabulary = {
+            "hello", "Password", "SECRET", "user@example.com", "555-123-4567", "98765", "passphrase",
+            "<script>alert(1)</script>", "EXEC (cmd)", "https://example.com/path", "token", "12", "plain"
+        };
+        StringBuilder content = new StringBuilder();
+        while (content.length() < length) {
+            content.append(vocabulary[random.nextInt(vocabulary.length)]);
+            content.append(random.nextInt(8) == 0 ? "\n" : " ");
+        }
+        return content.toString();
+    }
+
+    /**
+     * Reader returning a random number of characters per read, up to a maximum.
+     */
+    private static final class ChunkedReader extends Reader {
+        private final String text;
+        private final int maxRead;
+        private final Random random;
+        private int position;
+
+        ChunkedReader(String text, int maxRead, Random random) {
+            this.text = text;
+            this.maxRead = maxRead;
+            this.random = random;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (position == text.length()) {
+                return -1;
+            }
+            int count = Math.min(Math.min(len, text.length() - position), 1 + random.nextInt(maxRead));
+            text.getChars(position, position + count, cbuf, off);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * The original pattern-by-pattern, term-by-term replacement.
+     */
+    private static String sequentialFilter(String content, List<String> extraTerms) {
+        String result = content;
+        result = result.replaceAll("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}", "[REDACTED-EMAIL]");
+        result = result.replaceAll("\\(?\\d{3}\\)?[-.\\s]?\\d{3}[-.\\s]?\\d{4}", "[REDACTED-PHONE]");
+
+        List<String> terms = new ArrayList<>(extraTerms);
+        terms.add("password");
+        terms.add("secret");
+        terms.add("private");
+        terms.add("confidential");
+        for (String term : terms) {
+            result = result.replaceAll("(?i)" + Pattern.quote(term), "[REDACTED-TERM]");
+        }
+        return result.replaceAll("\\b\\d{4,}\\b", "[REDACTED-NUMBER]");
+    }
+}
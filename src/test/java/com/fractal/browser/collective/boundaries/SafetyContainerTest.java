@@ -0,0 +1,130 @@
+package com.fractal.browser.collective.boundaries;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SafetyContainerTest {
+
+    private SafetyContainer container;
+
+    @BeforeEach
+    public void setup() {
+        container = new SafetyContainer();
+    }
+
+    @Test
+    public void testDetectionMatchesLowercaseContainsChecks() {
+        container.addSafetyTerm("Payload");
+        String[] vocabulary = {
+            "hello", "MALWARE", "Exploit", "attacker", "vulnerab", "exec (", "EXEC(", "eval(", "Eva",
+            "<script", "pay", "load", "plain", "x"
+        };
+        Random random = new Random(5);
+        for (int doc = 0; doc < 2_000; doc++) {
+            StringBuilder content = new StringBuilder();
+            int words = 1 + random.nextInt(4);
+            for (int word = 0; word < words; word++) {
+                content.append(vocabulary[random.nextInt(vocabulary.length)]);
+                if (random.nextBoolean()) {
+                    content.append(' ');
+                }
+            }
+
+            String text = content.toString();
+            assertEquals(lowercaseContainsCheck(text), container.containsUnsafeElements(text), text);
+        }
+    }
+
+    @Test
+    public void testDetectionIsCaseInsensitiveForAllElements() {
+        assertTrue(container.containsUnsafeElements("<SCRIPT src=x>"));
+        assertTrue(container.containsUnsafeElements("window.Eval(code)"));
+        assertFalse(container.containsUnsafeElements("evaluation of exec plans"));
+        assertFalse(container.containsUnsafeElements(""));
+        assertFalse(container.containsUnsafeElements(null));
+    }
+
+    @Test
+    public void testDetectionUsesTermsAddedLater() {
+        assertFalse(container.containsUnsafeElements("a ransomware sample"));
+        assertTrue(container.addSafetyTerm("Ransomware"));
+        assertFalse(container.addSafetyTerm("ransomware"));
+        assertTrue(container.containsUnsafeElements("a RANSOMWARE sample"));
+    }
+
+    @Test
+    public void testTermsAddedDuringConcurrentDetectionAreNeverLost() throws Exception {
+        AtomicBoolean done = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                container.containsUnsafeElements("background scan");
+            }
+        });
+        reader.start();
+        try {
+            for (int i = 0; i < 500; i++) {
+                String term = "threat" + i;
+                assertTrue(container.addSafetyTerm(term));
+                assertTrue(container.containsUnsafeElements("a " + term + " sample"), term);
+            }
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+    }
+
+    @Test
+    public void testFindUnsafeElementsReportsAllPositions() {
+        String content = "Malware attack: eval(exec(x))";
+        List<int[]> positions = container.findUnsafeElements(content);
+
+        assertEquals(4, positions.size());
+        assertArrayEquals(new int[] {0, 7}, positions.get(0));
+        assertArrayEquals(new int[] {8, 14}, positions.get(1));
+        assertEquals("eval(", content.substring(positions.get(2)[0], positions.get(2)[1]));
+        assertEquals("exec(", content.substring(positions.get(3)[0], positions.get(3)[1]));
+        assertTrue(container.findUnsafeElements("nothing to see").isEmpty());
+    }
+
+    @Test
+    public void testResultCacheFollowsSafetyChanges() {
+        container.enableResultCache(10);
+        String content = "see https://example.com/x and <script>x()</script>";
+        assertEquals(content.replace("<script>x()</script>", "[REMOVED-UNSAFE-SCRIPT]"),
+                container.applySafetyMeasures(content));
+        container.applySafetyMeasures(content);
+        assertEquals(1, container.getResultCache().get().getHitCount());
+
+        container.setSafetyLevel(5);
+        assertTrue(container.applySafetyMeasures(content).startsWith("see [EXTERNAL-URL] and"));
+
+        container.addSafetyTransformer(text -> text.replace("see", "view"));
+        assertTrue(container.applySafetyMeasures(content).startsWith("view [EXTERNAL-URL]"));
+        assertEquals(1, container.getResultCache().get().getHitCount());
+        assertEquals(3, container.getResultCache().get().getMissCount());
+
+        container.disableResultCache();
+        assertFalse(container.getResultCache().isPresent());
+        assertThrows(IllegalArgumentException.class, () -> container.enableResultCache(0));
+    }
+
+    /**
+     * The original per-term check on lowercased copies of the content.
+     */
+    private boolean lowercaseContainsCheck(String content) {
+        for (String term : container.getSafetyTerms()) {
+            if (content.toLowerCase().contains(term)) {
+                return true;
+            }
+        }
+        // The script tag is now detected case-insensitively as well
+        return content.toLowerCase().contains("<script")
+                || content.toLowerCase().contains("exec(")
+                || content.toLowerCase().contains("eval(");
+    }
+}
@@ -0,0 +1,278 @@
+package com.fractal.browser.collective.boundaries;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TrustManagerTest {
+
+    private TrustManager trustManager;
+
+    @BeforeEach
+    public void setup() {
+        trustManager = new TrustManager(0.01, 0.3, 16);
+    }
+
+    @Test
+    public void testConcurrentInteractionsAreNotLost() throws Exception {
+        // A power-of-two impact keeps the expected sum exact in floating point
+        double impact = 1.0 / (1 << 20);
+        int threads = 8;
+        int interactionsPerThread = 5_000;
+        ConcurrentLinkedQueue<String> logged = new ConcurrentLinkedQueue<>();
+        trustManager.setInteractionLog((contextId, interaction) -> logged.add(interaction.getDescription()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < interactionsPerThread; i++) {
+                    trustManager.recordInteraction("shared", "t" + thread + "-" + i, impact);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int total = threads * interactionsPerThread;
+        assertEquals(0.5 + total * impact, trustManager.getTrustScore("shared").get(), 0.0);
+        assertEquals(total, logged.size());
+        assertEquals(total, trustManager.getTrustMetadata("shared").get("interactionCount"));
+        assertEquals(16, trustManager.getRecentInteractions("shared").size());
+    }
+
+    @Test
+    public void testRecentInteractionsAreBoundedAndOrdered() {
+        for (int i = 0; i < 40; i++) {
+            trustManager.recordInteraction("context", "interaction-" + i, 0.0);
+        }
+
+        List<TrustManager.TrustInteraction> recent = trustManager.getRecentInteractions("context");
+        assertEquals(16, recent.size());
+        assertEquals("interaction-24", recent.get(0).getDescription());
+        assertEquals("interaction-39", recent.get(15).getDescription());
+        assertTrue(trustManager.getRecentInteractions("unknown").isEmpty());
+    }
+
+    @Test
+    public void testScoresStayWithinBounds() {
+        assertTrue(trustManager.initializeTrust("context", 0.9));
+        assertFalse(trustManager.initializeTrust("context", 0.1));
+
+        assertEquals(1.0, trustManager.recordInteraction("context", "boost", 0.5));
+        assertEquals(0.0, trustManager.recordInteraction("context", "breach", -2.0));
+
+        Map<String, Object> metadata = trustManager.getTrustMetadata("context");
+        assertEquals(0.0, metadata.get("trustScore"));
+        assertEquals(false, metadata.get("isTrustSufficient"));
+        assertEquals(2, metadata.get("interactionCount"));
+    }
+
+    @Test
+    public void testPropagationBlendsWithExistingTrust() {
+        trustManager.initializeTrust("source", 0.8);
+        assertTrue(trustManager.propagateTrust("source", "target", 0.5));
+        assertEquals(0.4, trustManager.getTrustScore("target").get(), 1e-12);
+
+        assertTrue(trustManager.propagateTrust("source", "target", 1.0));
+        assertEquals(0.6, trustManager.getTrustScore("target").get(), 1e-12);
+        assertFalse(trustManager.propagateTrust("missing", "target", 1.0));
+    }
+
+    @Test
+    public void testDecayIsEvaluatedOnReadWithoutWriting() {
+        MutableClock clock = new MutableClock();
+        TrustManager decaying = new TrustManager(0.1, 0.3, 16, clock);
+        decaying.initializeTrust("context", 0.8);
+        String lastUpdated = (String) decaying.getTrustMetadata("context").get("lastUpdated");
+
+        clock.advance(Duration.ofHours(47));
+        assertEquals(0.8 * 0.9, decaying.getTrustScore("context").get(), 1e-12);
+        clock.advance(Duration.ofHours(2));
+        assertEquals(0.8 * 0.9 * 0.9, decaying.getTrustScore("context").get(), 1e-12);
+
+        // Reads leave the stored state untouched
+        assertEquals(lastUpdated, decaying.getTrustMetadata("context").get("lastUpdated"));
+
+        // Interactions apply the accrued decay before their impact
+        assertEquals(0.8 * 0.81 + 0.1, decaying.recordInteraction("context", "good", 0.1), 1e-12);
+    }
+
+    @Test
+    public void testMaterializedDecayMatchesLazyDecay() {
+        MutableClock clock = new MutableClock();
+        TrustManager decaying = new TrustManager(0.05, 0.3, 16, clock);
+        decaying.initializeTrust("idle", 0.9);
+        decaying.initializeTrust("fresh", 0.4);
+
+        clock.advance(Duration.ofHours(30));
+        assertEquals(2, decaying.materializeDecay());
+        decaying.recordInteraction("fresh", "touch", 0.0);
+        assertEquals(0, decaying.materializeDecay());
+
+        // The partial day left over keeps counting toward the next decay step
+        clock.advance(Duration.ofHours(20));
+        assertEquals(0.9 * 0.95 * 0.95, decaying.getTrustScore("idle").get(), 1e-12);
+        assertEquals(0.4 * 0.95, decaying.getTrustScore("fresh").get(), 1e-12);
+        assertEquals(1, decaying.materializeDecay());
+        assertEquals(0.9 * 0.95 * 0.95, decaying.getTrustScore("idle").get(), 1e-12);
+    }
+
+    @Test
+    public void testScheduledMaterializationRuns() throws Exception {
+        MutableClock clock = new MutableClock();
+        TrustManager decaying = new TrustManager(0.5, 0.3, 16, clock);
+        decaying.initializeTrust("context", 1.0);
+        clock.advance(Duration.ofDays(1));
+
+        decaying.startDecayMaterialization(Duration.ofMillis(10));
+        try {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (decaying.getTrustMetadata("context").get("lastUpdated").equals(MutableClock.START.toString())
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            decaying.stopDecayMaterialization();
+        }
+
+        assertEquals(MutableClock.START.plus(Duration.ofDays(1)).toString(),
+                decaying.getTrustMetadata("context").get("lastUpdated"));
+        assertEquals(0.5, decaying.getTrustScore("context").get(), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> decaying.startDecayMaterialization(Duration.ZERO));
+    }
+
+    @Test
+    public void testBurstOfChangesIsPushedOnce() {
+        List<String> pushed = new ArrayList<>();
+        InformationBoundary boundary = new InformationBoundary() {
+            @Override
+            void applyTrustScore(String contextId, double trustScore) {
+                pushed.add(contextId);
+                super.applyTrustScore(contextId, trustScore);
+            }
+        };
+        SafetyContainer container = new SafetyContainer();
+        trustManager.initializeTrust("existing", 0.7);
+        trustManager.subscribe(boundary);
+        trustManager.subscribe(container, "burst");
+        assertEquals(7, boundary.getAccessLevel("existing"));
+        pushed.clear();
+
+        for (int i = 0; i < 100; i++) {
+            trustManager.recordInteraction("burst", "interaction " + i, -0.004);
+        }
+        assertEquals(1, trustManager.getPendingTrustUpdates());
+        assertEquals(0, boundary.getAccessLevel("burst"));
+
+        assertEquals(1, trustManager.flushTrustUpdates());
+        assertEquals(List.of("burst"), pushed);
+        assertEquals(1, boundary.getAccessLevel("burst"));
+        assertEquals(5, container.getSafetyLevel());
+        assertEquals(0, trustManager.flushTrustUpdates());
+
+        trustManager.unsubscribe(boundary);
+        trustManager.unsubscribe(container, "burst");
+        trustManager.recordInteraction("burst", "after", 0.5);
+        assertEquals(0, trustManager.getPendingTrustUpdates());
+        assertEquals(1, boundary.getAccessLevel("burst"));
+    }
+
+    @Test
+    public void testScheduledSynchronizationPushesChanges() throws Exception {
+        InformationBoundary boundary = new InformationBoundary();
+        trustManager.subscribe(boundary);
+        trustManager.startTrustSynchronization(Duration.ofMillis(10));
+        try {
+            trustManager.recordInteraction("context", "upgrade", 0.4);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (boundary.getAccessLevel("context") != 9 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        } finally {
+            trustManager.stopTrustSynchronization();
+        }
+
+        assertEquals(9, boundary.getAccessLevel("context"));
+        assertThrows(IllegalArgumentException.class, () -> trustManager.startTrustSynchronization(Duration.ZERO));
+    }
+
+    @Test
+    public void testScheduledSynchronizationPushesDecay() throws Exception {
+        MutableClock clock = new MutableClock();
+        TrustManager decaying = new TrustManager(0.5, 0.3, 16, clock);
+        decaying.initializeTrust("context", 1.0);
+        InformationBoundary boundary = new InformationBoundary();
+        decaying.subscribe(boundary);
+        assertEquals(10, boundary.getAccessLevel("context"));
+
+        clock.advance(Duration.ofDays(1));
+        decaying.startTrustSynchronization(Duration.ofMillis(10));
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (boundary.getAccessLevel("context") != 5 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        } finally {
+            decaying.stopTrustSynchronization();
+        }
+        assertEquals(5, boundary.getAccessLevel("context"));
+
+        // The manual path maps trust to access levels the same way
+        InformationBoundary manual = new InformationBoundary();
+        assertTrue(decaying.integrateWithInformationBoundary(manual, "context"));
+        assertEquals(5, manual.getAccessLevel("context"));
+        assertFalse(decaying.integrateWithInformationBoundary(manual, "missing"));
+    }
+
+    @Test
+    public void testRejectsEmptyHistory() {
+        assertThrows(IllegalArgumentException.class, () -> new TrustManager(0.01, 0.3, 0));
+    }
+
+    private static final class MutableClock extends Clock {
+        static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+        private volatile Instant now = START;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
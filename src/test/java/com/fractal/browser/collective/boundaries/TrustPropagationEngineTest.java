@@ -0,0 +1,171 @@
+package com.fractal.browser.collective.boundaries;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TrustPropagationEngineTest {
+
+    @Test
+    public void testChainPropagation() {
+        TrustPropagationEngine engine = new TrustPropagationEngine(0.5, 1e-12, 100);
+        engine.setSeed("a", 1.0);
+        engine.setEdge("a", "b", 1.0);
+        engine.setEdge("b", "c", 2.0);
+        engine.propagate();
+
+        assertEquals(1.0, engine.getScore("a").get(), 1e-9);
+        assertEquals(0.5, engine.getScore("b").get(), 1e-9);
+        assertEquals(0.25, engine.getScore("c").get(), 1e-9);
+        assertFalse(engine.getScore("unknown").isPresent());
+
+        // Incoming weights are averaged, not summed
+        engine.setSeed("z", 0.0);
+        engine.setEdge("z", "c", 2.0);
+        engine.propagate();
+        assertEquals(0.125, engine.getScore("c").get(), 1e-9);
+
+        engine.removeEdge("z", "c");
+        engine.propagate();
+        assertEquals(0.25, engine.getScore("c").get(), 1e-9);
+    }
+
+    @Test
+    public void testIncrementalRunsMatchFullRecomputation() {
+        Random random = new Random(12);
+        int contexts = 2_000;
+        TrustPropagationEngine engine = new TrustPropagationEngine(0.85, 1e-12, 1_000);
+        for (int i = 0; i < contexts; i++) {
+            engine.setSeed("c" + i, random.nextDouble());
+        }
+        for (int e = 0; e < 10_000; e++) {
+            engine.setEdge("c" + random.nextInt(contexts), "c" + random.nextInt(contexts), 0.1 + random.nextDouble());
+        }
+        engine.propagate();
+        assertEquals("full", engine.getLastRunStatistics().get("mode"));
+        assertEquals(true, engine.getLastRunStatistics().get("converged"));
+
+        // A handful of changes is absorbed incrementally
+        engine.setSeed("c7", 0.0);
+        engine.setSeed("c1999", 1.0);
+        engine.setEdge("c3", "c4", 5.0);
+        engine.removeEdge("c3", "c4");
+        engine.setEdge("c10", "c11", 3.0);
+        engine.setSeed("new-context", 0.9);
+        engine.setEdge("new-context", "c12", 1.0);
+        engine.propagate();
+        assertEquals("incremental", engine.getLastRunStatistics().get("mode"));
+        assertEquals(true, engine.getLastRunStatistics().get("converged"));
+
+        // A fresh engine over the same graph computes everything from scratch
+        TrustPropagationEngine fresh = new TrustPropagationEngine(0.85, 1e-12, 1_000);
+        random = new Random(12);
+        for (int i = 0; i < contexts; i++) {
+            fresh.setSeed("c" + i, random.nextDouble());
+        }
+        for (int e = 0; e < 10_000; e++) {
+            fresh.setEdge("c" + random.nextInt(contexts), "c" + random.nextInt(contexts), 0.1 + random.nextDouble());
+        }
+        fresh.setSeed("c7", 0.0);
+        fresh.setSeed("c1999", 1.0);
+        fresh.removeEdge("c3", "c4");
+        fresh.setEdge("c10", "c11", 3.0);
+        fresh.setSeed("new-context", 0.9);
+        fresh.setEdge("new-context", "c12", 1.0);
+        fresh.propagate();
+
+        Map<String, Double> expected = fresh.getScores();
+        Map<String, Double> actual = engine.getScores();
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, Double> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), actual.get(entry.getKey()), 1e-9, entry.getKey());
+        }
+    }
+
+    @Test
+    public void testTrustManagerFeedsSeeds() {
+        TrustManager trustManager = new TrustManager();
+        trustManager.initializeTrust("parent", 0.9);
+        TrustPropagationEngine engine = new TrustPropagationEngine(0.5, 1e-12, 100);
+        trustManager.setPropagationEngine(engine);
+        assertFalse(trustManager.getPropagatedTrust("parent").isPresent());
+
+        trustManager.initializeTrust("child", 0.1);
+        engine.setEdge("parent", "child", 1.0);
+        engine.propagate();
+        assertEquals(0.9, trustManager.getPropagatedTrust("parent").get(), 1e-9);
+        assertEquals(0.5, trustManager.getPropagatedTrust("child").get(), 1e-9);
+
+        trustManager.recordInteraction("parent", "breach", -0.8);
+        engine.propagate();
+        assertEquals(0.1, trustManager.getPropagatedTrust("child").get(), 1e-9);
+    }
+
+    @Test
+    public void testConcurrentInteractionsPublishLatestSeed() throws Exception {
+        TrustManager trustManager = new TrustManager();
+        TrustPropagationEngine engine = new TrustPropagationEngine(0.5, 1e-12, 100);
+        trustManager.setPropagationEngine(engine);
+        trustManager.initializeTrust("shared", 0.5);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            double change = t % 2 == 0 ? 0.01 : -0.01;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    trustManager.recordInteraction("shared", "update", change);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        engine.propagate();
+        assertEquals(trustManager.getTrustScore("shared").get(), trustManager.getPropagatedTrust("shared").get(), 1e-12);
+    }
+
+    @Test
+    public void testEdgeChangesPatchRows() {
+        TrustPropagationEngine engine = new TrustPropagationEngine(0.5, 1e-12, 100);
+        engine.setSeed("a", 1.0);
+        engine.setSeed("b", 0.0);
+        engine.setSeed("c", 0.0);
+        engine.setEdge("a", "c", 1.0);
+        engine.setEdge("b", "c", 1.0);
+        engine.propagate();
+        assertEquals(0.25, engine.getScore("c").get(), 1e-9);
+        assertEquals(2, engine.getLastRunStatistics().get("edges"));
+
+        // Reweighting, removing and re-adding reuse the two rows of each edge
+        engine.setEdge("a", "c", 3.0);
+        engine.propagate();
+        assertEquals(0.375, engine.getScore("c").get(), 1e-9);
+        engine.removeEdge("a", "c");
+        engine.removeEdge("a", "c");
+        engine.propagate();
+        assertEquals(0.0, engine.getScore("c").get(), 1e-9);
+        assertEquals(1, engine.getLastRunStatistics().get("edges"));
+        engine.setEdge("a", "c", 1.0);
+        engine.propagate();
+        assertEquals(0.25, engine.getScore("c").get(), 1e-9);
+        assertEquals(2, engine.getLastRunStatistics().get("edges"));
+    }
+
+    @Test
+    public void testRejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new TrustPropagationEngine(1.0, 1e-6, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TrustPropagationEngine(0.5, 0.0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TrustPropagationEngine(0.5, 1e-6, 0));
+    }
+}
@@ -0,0 +1,164 @@
+package com.fractal.browser.collective.memory;
+
+import com.fractal.browser.collective.boundaries.InformationBoundary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+class ColumnarTemporalStoreTest {
+    private static final String CONTEXT_ID = "test-context";
+    private static final Instant BASE_TIME = Instant.parse("2025-01-01T00:00:00Z");
+    private static final int ITEM_COUNT = 500;
+
+    private InformationBoundary boundary;
+    private TemporalIndexing reference;
+    private ColumnarTemporalStore store;
+
+    @BeforeEach
+    void setUp() {
+        boundary = new InformationBoundary();
+        boundary.registerContext(CONTEXT_ID, 5);
+        reference = new TemporalIndexing(ZoneId.of("UTC"), boundary);
+        store = new ColumnarTemporalStore(ZoneId.of("UTC"), boundary, 16);
+
+        Random random = new Random(7);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            String itemId = "item-" + i;
+            Instant timestamp = BASE_TIME.plusMillis((long) (random.nextDouble() * 3 * 24 * 60 * 60 * 1000));
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("score", random.nextInt(100));
+            if (i % 3 == 0) {
+                metadata.put("weight", random.nextDouble());
+            }
+            metadata.put("label", "ignored");
+            boundary.setSensitivity(itemId, i % 2 == 0 ? 0.2 : 0.9);
+
+            reference.indexItem(itemId, timestamp, metadata);
+            store.indexItem(itemId, timestamp, metadata);
+        }
+    }
+
+    @Test
+    void testRangeQueryMatchesTemporalIndexing() {
+        Instant start = BASE_TIME.plus(6, ChronoUnit.HOURS);
+        Instant end = BASE_TIME.plus(40, ChronoUnit.HOURS);
+
+        List<String> expected = reference.findItemsInTimeRange(start, end, CONTEXT_ID);
+        List<String> actual = store.findItemsInTimeRange(start, end, CONTEXT_ID);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+        assertEquals(expected.size(), actual.size());
+    }
+
+    @Test
+    void testTimeStatisticsMatchTemporalIndexing() {
+        for (ChronoUnit unit : new ChronoUnit[] {ChronoUnit.HOURS, ChronoUnit.DAYS}) {
+            Map<Instant, Map<String, Object>> expected = reference.getTimeStatistics(unit, CONTEXT_ID);
+            Map<Instant, Map<String, Object>> actual = store.getTimeStatistics(unit, CONTEXT_ID);
+
+            assertEquals(expected.keySet(), actual.keySet());
+            for (Map.Entry<Instant, Map<String, Object>> period : expected.entrySet()) {
+                Map<String, Object> actualStats = actual.get(period.getKey());
+                assertEquals(period.getValue().keySet(), actualStats.keySet());
+                assertEquals(period.getValue().get("itemCount"), actualStats.get("itemCount"));
+                for (String key : period.getValue().keySet()) {
+                    if (key.startsWith("avg_")) {
+                        assertEquals((Double) period.getValue().get(key), (Double) actualStats.get(key), 1e-9);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRemoveUpdateAndCompact() {
+        for (int i = 0; i < ITEM_COUNT; i += 5) {
+            assertTrue(reference.removeItem("item-" + i));
+            assertTrue(store.removeItem("item-" + i));
+        }
+        Map<String, Object> updated = new HashMap<>();
+        updated.put("score", 1000);
+        reference.updateItemMetadata("item-2", updated);
+        store.updateItemMetadata("item-2", updated);
+
+        assertFalse(store.removeItem("item-0"));
+        assertFalse(store.getItemTimestamp("item-0").isPresent());
+        assertEquals(reference.getItemTimestamp("item-1"), store.getItemTimestamp("item-1"));
+
+        store.compact();
+
+        assertEquals(ITEM_COUNT - ITEM_COUNT / 5, store.size());
+        Instant end = BASE_TIME.plus(3, ChronoUnit.DAYS);
+        assertEquals(new HashSet<>(reference.findItemsInTimeRange(BASE_TIME, end, CONTEXT_ID)),
+                new HashSet<>(store.findItemsInTimeRange(BASE_TIME, end, CONTEXT_ID)));
+        assertEquals(reference.getTimeStatistics(ChronoUnit.DAYS, CONTEXT_ID).keySet(),
+                store.getTimeStatistics(ChronoUnit.DAYS, CONTEXT_ID).keySet());
+        assertEquals(reference.getItemTimestamp("item-7"), store.getItemTimestamp("item-7"));
+
+        // Compaction renumbered the dictionary; removed IDs can be indexed again
+        assertTrue(store.indexItem("item-0", BASE_TIME, updated));
+        assertTrue(store.updateItemMetadata("item-2", new HashMap<>()));
+        assertEquals(ITEM_COUNT - ITEM_COUNT / 5 + 1, store.size());
+        assertEquals(Optional.of(BASE_TIME), store.getItemTimestamp("item-0"));
+    }
+
+    @Test
+    void testRangeBoundsOutsideNanosecondRange() {
+        assertEquals(new HashSet<>(store.findItemsInTimeRange(BASE_TIME, BASE_TIME.plus(3, ChronoUnit.DAYS), CONTEXT_ID)),
+                new HashSet<>(store.findItemsInTimeRange(Instant.MIN, Instant.MAX, CONTEXT_ID)));
+        assertTrue(store.findItemsInTimeRange(Instant.MIN, Instant.parse("1000-01-01T00:00:00Z"), CONTEXT_ID).isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> store.indexItem("ancient", Instant.parse("1500-01-01T00:00:00Z"), new HashMap<>()));
+        assertThrows(IllegalArgumentException.class, () -> store.indexItem("far-future", Instant.MAX, new HashMap<>()));
+        assertFalse(store.getItemTimestamp("ancient").isPresent());
+    }
+
+    @Test
+    void testQueriesFollowTheBoundarysSharedCodes() {
+        InformationBoundary sharedBoundary = new InformationBoundary();
+        sharedBoundary.registerContext("low", 5);
+        sharedBoundary.registerContext("high", 10);
+        ColumnarTemporalStore sharedStore = new ColumnarTemporalStore(ZoneId.of("UTC"), sharedBoundary, 4);
+        Instant end = BASE_TIME.plus(1, ChronoUnit.DAYS);
+        for (int i = 0; i < 10; i++) {
+            sharedStore.indexItem("shared-" + i, BASE_TIME.plusSeconds(i), new HashMap<>());
+        }
+        sharedBoundary.setSensitivity("shared-3", 0.9);
+        for (int i = 4; i < 10; i++) {
+            sharedBoundary.setSensitivity("shared-" + i, 0.2);
+        }
+
+        // Items without a sensitivity are only visible at the highest level
+        assertEquals(10, sharedStore.findItemsInTimeRange(BASE_TIME, end, "high").size());
+        assertEquals(6, sharedStore.findItemsInTimeRange(BASE_TIME, end, "low").size());
+        assertEquals(6, sharedStore.getTimeStatistics(ChronoUnit.DAYS, "low").get(BASE_TIME).get("itemCount"));
+
+        sharedBoundary.setSensitivity("shared-3", 0.1);
+        assertTrue(sharedStore.findItemsInTimeRange(BASE_TIME, end, "low").contains("shared-3"));
+
+        // Removal releases the code of an item that has no sensitivity of its own
+        int codes = sharedBoundary.getInformationCodeCount();
+        assertTrue(sharedStore.removeItem("shared-0"));
+        assertEquals(codes - 1, sharedBoundary.getInformationCodeCount());
+        assertTrue(sharedStore.indexItem("shared-10", BASE_TIME, new HashMap<>()));
+        sharedStore.compact();
+        assertEquals(10, sharedStore.findItemsInTimeRange(BASE_TIME, end, "high").size());
+        assertFalse(sharedStore.findItemsInTimeRange(BASE_TIME, end, "high").contains("shared-0"));
+    }
+
+    @Test
+    void testDuplicateItemIsRejected() {
+        assertFalse(store.indexItem("item-1", BASE_TIME, new HashMap<>()));
+    }
+}
@@ -0,0 +1,69 @@
+package com.fractal.browser.collective.memory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps stored data in memory and counts the stores, for tests.
+ */
+class InMemoryPersistenceStrategy implements PersistenceStrategy {
+    private final Map<String, Map<String, Map<String, Object>>> data = new ConcurrentHashMap<>();
+    private final AtomicLong storeCount = new AtomicLong();
+
+    long getStoreCount() {
+        return storeCount.get();
+    }
+
+    @Override
+    public void store(String dataType, String id, Map<String, Object> values) throws Exception {
+        storeCount.incrementAndGet();
+        data.computeIfAbsent(dataType, type -> new ConcurrentHashMap<>()).put(id, new HashMap<>(values));
+    }
+
+    @Override
+    public Map<String, Object> load(String dataType, String id) {
+        return data.getOrDefault(dataType, new HashMap<>()).get(id);
+    }
+
+    @Override
+    public List<Map<String, Object>> loadAll(String dataType) {
+        return new ArrayList<>(data.getOrDefault(dataType, new HashMap<>()).values());
+    }
+
+    @Override
+    public void delete(String dataType, String id) {
+        data.getOrDefault(dataType, new HashMap<>()).remove(id);
+    }
+
+    @Override
+    public boolean exists(String dataType, String id) {
+        return load(dataType, id) != null;
+    }
+
+    @Override
+    public void initialize() {
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    @Override
+    public List<Map<String, Object>> query(String dataType, Map<String, Object> query) {
+        return loadAll(dataType);
+    }
+
+    @Override
+    public boolean backup(String backupLocation) {
+        return false;
+    }
+
+    @Override
+    public boolean restore(String backupLocation) {
+        return false;
+    }
+}
@@ -0,0 +1,368 @@
+package com.fractal.browser.collective.memory;
+
+import com.fractal.browser.collective.boundaries.InformationBoundary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class SharedContextRegistryTest {
+
+    private InMemoryPersistenceStrategy persistence;
+    private SharedContextRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        persistence = new InMemoryPersistenceStrategy();
+        registry = new SharedContextRegistry(new InformationBoundary(), persistence);
+    }
+
+    @Test
+    void testNameIsClaimedOnce() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<SharedContextRegistry.Context>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String creator = "node-" + t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return registry.createContext("shared-name", "", creator, new HashMap<>(), null);
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        for (Future<Optional<SharedContextRegistry.Context>> future : futures) {
+            if (future.get(30, TimeUnit.SECONDS).isPresent()) {
+                created++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, created);
+        assertEquals(1, registry.getRootContexts().size());
+        assertTrue(registry.getContextByName("shared-name").isPresent());
+        assertEquals(1, persistence.loadAll("contexts").size());
+    }
+
+    @Test
+    void testConcurrentMembershipChangesStayConsistent() throws Exception {
+        int contextCount = 50;
+        List<String> contextIds = new ArrayList<>();
+        for (int c = 0; c < contextCount; c++) {
+            contextIds.add(registry.createContext("context-" + c, "", "creator", new HashMap<>(), null)
+                    .get().getContextId());
+        }
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 5_000; i++) {
+                    String nodeId = "node-" + random.nextInt(40);
+                    String contextId = contextIds.get(random.nextInt(contextCount));
+                    if (random.nextBoolean()) {
+                        registry.joinContext(nodeId, contextId);
+                    } else {
+                        registry.leaveContext(nodeId, contextId);
+                    }
+                    registry.getNodeContexts(nodeId);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (int n = 0; n < 40; n++) {
+            String nodeId = "node-" + n;
+            Set<String> joined = new HashSet<>();
+            for (String contextId : contextIds) {
+                if (registry.getContext(contextId).get().isParticipant(nodeId)) {
+                    joined.add(contextId);
+                }
+            }
+            assertEquals(joined, registry.getNodeContexts(nodeId), nodeId);
+        }
+
+        // The last snapshot stored for each context is its final state
+        for (String contextId : contextIds) {
+            Map<String, Object> stored = persistence.load("contexts", contextId);
+            assertEquals(registry.getContext(contextId).get().getParticipantNodeIds(),
+                    new HashSet<>((List<?>) stored.get("participantNodeIds")));
+            assertNotNull(stored.get("name"));
+        }
+    }
+
+    @Test
+    void testRegistryIsRebuiltFromPersistence() throws Exception {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("topic", "fractals");
+        SharedContextRegistry.Context root = registry.createContext("root", "Root", "alice", metadata, null).get();
+        SharedContextRegistry.Context child = registry.createContext("child", "Child", "bob", new HashMap<>(),
+                root.getContextId()).get();
+        SharedContextRegistry.Context grandchild = registry.createContext("grandchild", "", "carol", new HashMap<>(),
+                child.getContextId()).get();
+        registry.joinContext("dave", root.getContextId());
+        registry.joinContext("dave", grandchild.getContextId());
+        registry.joinContext("erin", child.getContextId());
+        registry.leaveContext("erin", child.getContextId());
+        registry.deactivateContext(grandchild.getContextId(), "carol");
+
+        // Malformed records, including ones without a usable creation time, are skipped
+        // without failing the load
+        Map<String, Object> malformed = new HashMap<>();
+        malformed.put("contextId", "broken");
+        malformed.put("name", "broken");
+        malformed.put("creatorNodeId", "nobody");
+        malformed.put("creationTime", "not a time");
+        persistence.store("contexts", "broken", malformed);
+        Map<String, Object> undated = new HashMap<>(malformed);
+        undated.put("contextId", "undated");
+        undated.remove("creationTime");
+        persistence.store("contexts", "undated", undated);
+        Map<String, Object> mistyped = new HashMap<>(malformed);
+        mistyped.put("contextId", "mistyped");
+        mistyped.put("creationTime", 42L);
+        persistence.store("contexts", "mistyped", mistyped);
+
+        SharedContextRegistry reloaded = new SharedContextRegistry(new InformationBoundary(), persistence);
+        Map<String, Object> statistics = reloaded.getLoadStatistics();
+        assertEquals(3, statistics.get("loaded"));
+        assertEquals(3, statistics.get("skipped"));
+        assertTrue(statistics.containsKey("contextsPerSecond"));
+
+        for (SharedContextRegistry.Context original : List.of(root, child, grandchild)) {
+            SharedContextRegistry.Context loaded = reloaded.getContext(original.getContextId()).get();
+            assertEquals(original.getName(), loaded.getName());
+            assertEquals(original.getDescription(), loaded.getDescription());
+            assertEquals(original.getCreatorNodeId(), loaded.getCreatorNodeId());
+            assertEquals(original.getCreationTime(), loaded.getCreationTime());
+            assertEquals(original.getMetadata(), loaded.getMetadata());
+            assertEquals(original.getParticipantNodeIds(), loaded.getParticipantNodeIds());
+            assertEquals(original.getParentContextId(), loaded.getParentContextId());
+            assertEquals(original.isActive(), loaded.isActive());
+            assertEquals(original.getContextId(), reloaded.getContextByName(original.getName()).get().getContextId());
+        }
+        assertEquals(Set.of(root.getContextId(), grandchild.getContextId()), reloaded.getNodeContexts("dave"));
+        assertEquals(Set.of(), reloaded.getNodeContexts("erin"));
+        assertEquals(registry.getContextHierarchy(root.getContextId()), reloaded.getContextHierarchy(root.getContextId()));
+        assertEquals(1, reloaded.getRootContexts().size());
+        assertFalse(reloaded.createContext("root", "", "mallory", new HashMap<>(), null).isPresent());
+        assertTrue(reloaded.joinContext("frank", child.getContextId()));
+    }
+
+    @Test
+    void testHierarchyQueriesOnDeepTree() {
+        // Without persistence, to keep the test about the hierarchy
+        SharedContextRegistry local = new SharedContextRegistry(new InformationBoundary(), null);
+        int depth = 20_000;
+        List<String> chain = new ArrayList<>();
+        String parent = null;
+        for (int d = 0; d <= depth; d++) {
+            parent = local.createContext("level-" + d, "", "creator", new HashMap<>(), parent).get().getContextId();
+            chain.add(parent);
+        }
+        String sibling = local.createContext("sibling", "", "creator", new HashMap<>(), chain.get(100)).get().getContextId();
+
+        Map<String, Integer> hierarchy = local.getContextHierarchy(chain.get(0));
+        assertEquals(depth + 2, hierarchy.size());
+        assertEquals(depth, hierarchy.get(chain.get(depth)));
+        assertEquals(101, hierarchy.get(sibling));
+
+        assertEquals(depth, local.getContextDepth(chain.get(depth)));
+        assertEquals(-1, local.getContextDepth("missing"));
+        assertEquals(chain.get(depth - 1), local.getAncestorContext(chain.get(depth), 1).get());
+        assertEquals(chain.get(12_345), local.getAncestorContext(chain.get(depth), depth - 12_345).get());
+        assertEquals(chain.get(0), local.getAncestorContext(chain.get(depth), depth).get());
+        assertFalse(local.getAncestorContext(chain.get(depth), depth + 1).isPresent());
+
+        assertTrue(local.isInHierarchy(chain.get(depth), chain.get(0)));
+        assertTrue(local.isInHierarchy(sibling, chain.get(100)));
+        assertTrue(local.isInHierarchy(chain.get(50), chain.get(50)));
+        assertFalse(local.isInHierarchy(sibling, chain.get(101)));
+        assertFalse(local.isInHierarchy(chain.get(0), chain.get(1)));
+        assertEquals(List.of(chain.get(0)), List.of(local.getRootContexts().get(0).getContextId()));
+    }
+
+    @Test
+    void testHierarchyStaysConsistentUnderConcurrentCreates() throws Exception {
+        List<String> created = Collections.synchronizedList(new ArrayList<>());
+        for (int r = 0; r < 4; r++) {
+            created.add(registry.createContext("root-" + r, "", "creator", new HashMap<>(), null).get().getContextId());
+        }
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Random random = new Random(t);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1_000; i++) {
+                    String parentId = created.get(random.nextInt(created.size()));
+                    registry.createContext("t" + thread + "-" + i, "", "creator", new HashMap<>(), parentId)
+                            .ifPresent(context -> created.add(context.getContextId()));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(4 + threads * 1_000, created.size());
+        for (String contextId : created) {
+            String parentId = registry.getContext(contextId).get().getParentContextId();
+            int depth = registry.getContextDepth(contextId);
+            if (parentId == null) {
+                assertEquals(0, depth);
+            } else {
+                assertEquals(registry.getContextDepth(parentId) + 1, depth);
+                assertEquals(parentId, registry.getAncestorContext(contextId, 1).get());
+                assertTrue(registry.getChildContexts(parentId).contains(contextId));
+            }
+            String root = registry.getAncestorContext(contextId, depth).get();
+            assertTrue(registry.isInHierarchy(contextId, root));
+        }
+        assertEquals(4, registry.getRootContexts().size());
+
+        // The reloaded index matches the one built by the creates
+        SharedContextRegistry reloaded = new SharedContextRegistry(new InformationBoundary(), persistence);
+        for (String contextId : created) {
+            assertEquals(registry.getContextDepth(contextId), reloaded.getContextDepth(contextId));
+        }
+        assertEquals(4, reloaded.getRootContexts().size());
+    }
+
+    @Test
+    void testMembershipQueriesOnInternedSets() {
+        String a = registry.createContext("a", "", "alice", new HashMap<>(), null).get().getContextId();
+        String b = registry.createContext("b", "", "bob", new HashMap<>(), null).get().getContextId();
+        String c = registry.createContext("c", "", "alice", new HashMap<>(), a).get().getContextId();
+
+        assertTrue(registry.joinContext("bob", a));
+        assertTrue(registry.joinContext("bob", c));
+        assertTrue(registry.joinContext("alice", b));
+        assertFalse(registry.joinContext("bob", a));
+
+        assertEquals(Set.of(a, b, c), registry.getNodeContexts("alice"));
+        assertEquals(Set.of(a, b, c), registry.getNodeContexts("bob"));
+        assertEquals(Set.of(a, b, c), registry.getCommonContexts("alice", "bob"));
+        assertEquals(Set.of(), registry.getCommonContexts("alice", "nobody"));
+        assertEquals(Set.of("alice", "bob"), registry.getContext(c).get().getParticipantNodeIds());
+        assertEquals(2, registry.getContext(c).get().getParticipantCount());
+
+        assertTrue(registry.leaveContext("bob", c));
+        assertFalse(registry.leaveContext("bob", c));
+        assertFalse(registry.leaveContext("nobody", c));
+        assertFalse(registry.leaveContext("alice", c)); // Creator stays
+        assertEquals(Set.of(a, b), registry.getCommonContexts("alice", "bob"));
+        assertFalse(registry.getContext(c).get().isParticipant("bob"));
+        assertFalse(registry.getContext(c).get().isParticipant("nobody"));
+        assertTrue(registry.canAccessContext("alice", c));
+        assertEquals(Set.of(), registry.getNodeContexts("nobody"));
+    }
+
+    @Test
+    void testSortedIntSetMatchesTreeSet() {
+        Random random = new Random(11);
+        SortedIntSet set = new SortedIntSet();
+        TreeSet<Integer> expected = new java.util.TreeSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(500);
+            // Grow for the first half, then shrink so the array gives space back
+            boolean add = i < 10_000 ? random.nextInt(4) != 0 : random.nextInt(4) == 0;
+            assertEquals(add ? expected.add(value) : expected.remove(value), add ? set.add(value) : set.remove(value));
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+        assertEquals(expected.size(), set.size());
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), set.toArray());
+
+        assertArrayEquals(new int[] {3, 7}, SortedIntSet.intersect(new int[] {1, 3, 5, 7}, new int[] {2, 3, 7, 9}));
+        assertArrayEquals(new int[0], SortedIntSet.intersect(new int[] {1, 2}, new int[0]));
+    }
+
+    @Test
+    void testStoredInstantsDecodeExactly() {
+        Random random = new Random(5);
+        for (int i = 0; i < 10_000; i++) {
+            Instant instant = Instant.ofEpochSecond(random.nextInt(Integer.MAX_VALUE) * 4L, random.nextInt(4) == 0
+                    ? 0 : random.nextInt(1_000_000_000));
+            assertEquals(instant, SharedContextRegistry.decodeInstant(instant.toString()));
+        }
+        assertEquals(Instant.parse("+12025-01-01T00:00:00Z"), SharedContextRegistry.decodeInstant("+12025-01-01T00:00:00Z"));
+        assertEquals(Instant.parse("2025-01-01T10:15:30+01:00"), SharedContextRegistry.decodeInstant("2025-01-01T10:15:30+01:00"));
+        assertThrows(DateTimeException.class, () -> SharedContextRegistry.decodeInstant("2025-02-30T00:00:00Z"));
+        assertEquals(Instant.parse("2025-01-01T00:00:00.Z"), SharedContextRegistry.decodeInstant("2025-01-01T00:00:00.Z"));
+    }
+
+    @Test
+    void testSlowStoreDoesNotBlockOtherContexts() throws Exception {
+        CountDownLatch storing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InMemoryPersistenceStrategy slow = new InMemoryPersistenceStrategy() {
+            @Override
+            public void store(String dataType, String id, Map<String, Object> values) throws Exception {
+                if (((List<?>) values.get("participantNodeIds")).contains("slow-node")) {
+                    storing.countDown();
+                    release.await();
+                }
+                super.store(dataType, id, values);
+            }
+        };
+        SharedContextRegistry slowRegistry = new SharedContextRegistry(new InformationBoundary(), slow);
+        String blocked = slowRegistry.createContext("blocked", "", "creator", new HashMap<>(), null).get().getContextId();
+        List<String> others = new ArrayList<>();
+        for (int c = 0; c < 100; c++) {
+            others.add(slowRegistry.createContext("other-" + c, "", "creator", new HashMap<>(), null).get().getContextId());
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Boolean> slowJoin = executor.submit(() -> slowRegistry.joinContext("slow-node", blocked));
+        try {
+            assertTrue(storing.await(10, TimeUnit.SECONDS));
+
+            // Every stripe stays available while the store is in progress
+            for (String contextId : others) {
+                assertTrue(slowRegistry.joinContext("node", contextId));
+            }
+            assertTrue(slowRegistry.getContext(blocked).get().isParticipant("slow-node"));
+            assertTrue(slowRegistry.canAccessContext("slow-node", blocked));
+            assertFalse(slowJoin.isDone());
+        } finally {
+            release.countDown();
+        }
+        assertTrue(slowJoin.get(10, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,53 @@
+package com.fractal.browser.collective.memory;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+class SortedIntSetTest {
+
+    @Test
+    void testMatchesTreeSetAcrossGapSizes() {
+        SortedIntSet set = new SortedIntSet();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(5);
+        int[] bounds = {100, 20_000, 5_000_000, Integer.MAX_VALUE};
+
+        for (int step = 0; step < 20_000; step++) {
+            int value = random.nextInt(bounds[step % bounds.length]);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                assertEquals(expected.add(value), set.add(value));
+            }
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+
+        assertEquals(expected.size(), set.size());
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), set.toArray());
+        for (int value : set.toArray()) {
+            assertTrue(set.remove(value));
+        }
+        assertEquals(0, set.size());
+        assertArrayEquals(new int[0], set.toArray());
+    }
+
+    @Test
+    void testFootprintHoldsNoSpareCapacity() {
+        SortedIntSet set = new SortedIntSet();
+        long empty = set.footprintBytes();
+        for (int value = 0; value < 1_000; value += 10) {
+            set.add(value);
+        }
+        // One byte per member for gaps below 128
+        assertEquals(empty + 104, set.footprintBytes());
+
+        for (int value = 0; value < 1_000; value += 20) {
+            set.remove(value);
+        }
+        assertEquals(empty + 56, set.footprintBytes());
+        assertThrows(IllegalArgumentException.class, () -> set.add(-1));
+    }
+}
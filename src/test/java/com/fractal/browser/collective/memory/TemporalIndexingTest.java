@@ -0,0 +1,338 @@
+package com.fractal.browser.collective.memory;
+
+import com.fractal.browser.collective.boundaries.InformationBoundary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+class TemporalIndexingTest {
+    private static final String CONTEXT_ID = "test-context";
+    private static final Instant BASE_TIME = Instant.parse("2025-01-01T00:00:00Z");
+
+    private InformationBoundary boundary;
+    private TemporalIndexing indexing;
+    private Map<String, Instant> indexedTimes;
+
+    @BeforeEach
+    void setUp() {
+        boundary = new InformationBoundary();
+        boundary.registerContext(CONTEXT_ID, 5);
+        indexing = new TemporalIndexing(ZoneId.of("UTC"), boundary);
+        indexedTimes = new HashMap<>();
+
+        Random random = new Random(11);
+        for (int i = 0; i < 2_000; i++) {
+            String itemId = "item-" + i;
+            // Coarse timestamps so several items share a bucket
+            Instant timestamp = BASE_TIME.plusMillis(random.nextInt(500) * 100L);
+            boundary.setSensitivity(itemId, random.nextBoolean() ? 0.3 : 0.8);
+            indexing.indexItem(itemId, timestamp, Collections.emptyMap());
+            indexedTimes.put(itemId, timestamp);
+        }
+    }
+
+    @Test
+    void testTemporalPatternsMatchNestedLoopReference() {
+        long[] windowSizes = {0, 100, 250, 1_000, 60_000, -100};
+        int[] thresholds = {0, 1, 5, 20};
+
+        for (long windowSize : windowSizes) {
+            for (int threshold : thresholds) {
+                List<Map<String, Object>> expected = referencePatterns(windowSize, threshold);
+                List<Map<String, Object>> actual = indexing.findTemporalPatterns(windowSize, threshold, CONTEXT_ID);
+
+                assertEquals(expected.size(), actual.size(), "window " + windowSize + ", threshold " + threshold);
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i).get("startTime"), actual.get(i).get("startTime"));
+                    assertEquals(expected.get(i).get("endTime"), actual.get(i).get("endTime"));
+                    assertEquals(expected.get(i).get("itemCount"), actual.get(i).get("itemCount"));
+                    assertEquals(expected.get(i).get("items"), actual.get(i).get("items"));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testTemporalPatternsSkipRemovedItems() {
+        for (int i = 0; i < 2_000; i += 2) {
+            indexing.removeItem("item-" + i);
+            indexedTimes.remove("item-" + i);
+        }
+
+        List<Map<String, Object>> expected = referencePatterns(500, 3);
+        List<Map<String, Object>> actual = indexing.findTemporalPatterns(500, 3, CONTEXT_ID);
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).get("itemCount"), actual.get(i).get("itemCount"));
+            assertEquals(expected.get(i).get("items"), actual.get(i).get("items"));
+        }
+    }
+
+    @Test
+    void testMostRecentItemsMatchFullSort() {
+        List<Instant> visibleTimes = new ArrayList<>();
+        for (Map.Entry<String, Instant> entry : indexedTimes.entrySet()) {
+            if (boundary.canInformationPass(entry.getKey(), CONTEXT_ID)) {
+                visibleTimes.add(entry.getValue());
+            }
+        }
+        visibleTimes.sort(Collections.reverseOrder());
+
+        for (int limit : new int[] {0, 1, 10, 250, visibleTimes.size(), visibleTimes.size() + 10}) {
+            List<String> recent = indexing.getMostRecentItems(limit, CONTEXT_ID);
+
+            assertEquals(Math.min(limit, visibleTimes.size()), recent.size());
+            assertEquals(recent.size(), new HashSet<>(recent).size());
+            for (int i = 0; i < recent.size(); i++) {
+                assertTrue(boundary.canInformationPass(recent.get(i), CONTEXT_ID));
+                assertEquals(visibleTimes.get(i), indexedTimes.get(recent.get(i)));
+            }
+        }
+    }
+
+    @Test
+    void testMostRecentItemsRejectsNegativeLimit() {
+        assertThrows(IllegalArgumentException.class, () -> indexing.getMostRecentItems(-1, CONTEXT_ID));
+    }
+
+    @Test
+    void testTimeStatisticsRollupsMatchColumnScan() {
+        InformationBoundary statsBoundary = new InformationBoundary();
+        statsBoundary.registerContext(CONTEXT_ID, 5);
+        TemporalIndexing rollupIndex = new TemporalIndexing(ZoneId.of("UTC"), statsBoundary);
+        ColumnarTemporalStore scanStore = new ColumnarTemporalStore(ZoneId.of("UTC"), statsBoundary, 64);
+
+        Random random = new Random(3);
+        for (int i = 0; i < 1_000; i++) {
+            String itemId = "stat-" + i;
+            Instant timestamp = BASE_TIME.plusSeconds(random.nextInt(3 * 24 * 60 * 60));
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("score", random.nextInt(1_000));
+            if (i % 4 == 0) {
+                metadata.put("latency", random.nextDouble() * 50);
+            }
+            statsBoundary.setSensitivity(itemId, i % 3 == 0 ? 0.9 : 0.4);
+            rollupIndex.indexItem(itemId, timestamp, metadata);
+            scanStore.indexItem(itemId, timestamp, metadata);
+        }
+
+        // Removals, updates and sensitivity changes after indexing
+        for (int i = 0; i < 1_000; i += 7) {
+            rollupIndex.removeItem("stat-" + i);
+            scanStore.removeItem("stat-" + i);
+        }
+        for (int i = 1; i < 1_000; i += 11) {
+            Map<String, Object> updated = new HashMap<>();
+            updated.put("score", -i);
+            rollupIndex.updateItemMetadata("stat-" + i, updated);
+            scanStore.updateItemMetadata("stat-" + i, updated);
+        }
+        for (int i = 2; i < 1_000; i += 13) {
+            statsBoundary.setSensitivity("stat-" + i, i % 2 == 0 ? 0.1 : 1.0);
+        }
+
+        for (ChronoUnit unit : new ChronoUnit[] {ChronoUnit.MINUTES, ChronoUnit.HOURS, ChronoUnit.DAYS}) {
+            Map<Instant, Map<String, Object>> expected = scanStore.getTimeStatistics(unit, CONTEXT_ID);
+            Map<Instant, Map<String, Object>> actual = rollupIndex.getTimeStatistics(unit, CONTEXT_ID);
+
+            assertEquals(expected.keySet(), actual.keySet(), unit.toString());
+            for (Map.Entry<Instant, Map<String, Object>> period : expected.entrySet()) {
+                Map<String, Object> actualStats = actual.get(period.getKey());
+                assertEquals(period.getValue().keySet(), actualStats.keySet());
+                for (Map.Entry<String, Object> stat : period.getValue().entrySet()) {
+                    if (stat.getValue() instanceof Double) {
+                        assertEquals((Double) stat.getValue(), (Double) actualStats.get(stat.getKey()), 1e-9);
+                    } else {
+                        assertEquals(stat.getValue(), actualStats.get(stat.getKey()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentChurnInOnePeriodKeepsRollupsExact() throws Exception {
+        TemporalIndexing statsIndex = new TemporalIndexing(ZoneId.of("UTC"), boundary);
+        int threads = 4;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            workers[t] = new Thread(() -> {
+                for (int round = 0; round < 200; round++) {
+                    for (int i = 0; i < 10; i++) {
+                        String itemId = "churn-" + worker + "-" + i;
+                        boundary.setSensitivity(itemId, 0.2);
+                        statsIndex.indexItem(itemId, BASE_TIME.plusSeconds(i), Map.of("score", i));
+                    }
+                    // The last round keeps its items, every other round empties the period
+                    if (round < 199) {
+                        for (int i = 0; i < 10; i++) {
+                            statsIndex.removeItem("churn-" + worker + "-" + i);
+                        }
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Map<String, Object> hour = statsIndex.getTimeStatistics(ChronoUnit.HOURS, CONTEXT_ID).get(BASE_TIME);
+        assertEquals(threads * 10, hour.get("itemCount"));
+        assertEquals(4.5, (Double) hour.get("avg_score"), 1e-9);
+        assertEquals(0.0, hour.get("min_score"));
+        assertEquals(9.0, hour.get("max_score"));
+        statsIndex.close();
+    }
+
+    @Test
+    void testTimeStatisticsTrackRemovedExtremes() {
+        TemporalIndexing statsIndex = new TemporalIndexing(ZoneId.of("UTC"), boundary);
+        for (int i = 0; i < 3; i++) {
+            boundary.setSensitivity("extreme-" + i, 0.0);
+            statsIndex.indexItem("extreme-" + i, BASE_TIME.plusSeconds(i), Collections.singletonMap("score", i * 10));
+        }
+
+        Map<String, Object> stats = statsIndex.getTimeStatistics(ChronoUnit.HOURS, CONTEXT_ID).get(BASE_TIME);
+        assertEquals(3, stats.get("itemCount"));
+        assertEquals(0.0, stats.get("min_score"));
+        assertEquals(20.0, stats.get("max_score"));
+
+        statsIndex.removeItem("extreme-0");
+        statsIndex.removeItem("extreme-2");
+
+        stats = statsIndex.getTimeStatistics(ChronoUnit.HOURS, CONTEXT_ID).get(BASE_TIME);
+        assertEquals(1, stats.get("itemCount"));
+        assertEquals(10.0, stats.get("min_score"));
+        assertEquals(10.0, stats.get("max_score"));
+        assertEquals(10.0, stats.get("avg_score"));
+
+        statsIndex.removeItem("extreme-1");
+        assertTrue(statsIndex.getTimeStatistics(ChronoUnit.HOURS, CONTEXT_ID).isEmpty());
+    }
+
+    @Test
+    void testRangeAndDateQueriesFollowSensitivityChanges() {
+        TemporalIndexing queryIndex = new TemporalIndexing(ZoneId.of("UTC"), boundary);
+        queryIndex.indexItem("early", BASE_TIME.minusMillis(1), Collections.emptyMap());
+        queryIndex.indexItem("first", BASE_TIME, Collections.emptyMap());
+        queryIndex.indexItem("late", BASE_TIME.plus(1, ChronoUnit.DAYS).minusMillis(1), Collections.emptyMap());
+        queryIndex.indexItem("next-day", BASE_TIME.plus(1, ChronoUnit.DAYS), Collections.emptyMap());
+        Instant end = BASE_TIME.plus(2, ChronoUnit.DAYS);
+
+        // Without a sensitivity an item is only visible at the highest level
+        assertEquals(List.of(), queryIndex.findItemsInTimeRange(BASE_TIME.minusSeconds(1), end, CONTEXT_ID));
+
+        for (String itemId : List.of("early", "first", "late", "next-day")) {
+            boundary.setSensitivity(itemId, 0.2);
+        }
+        assertEquals(List.of("early", "first", "late", "next-day"),
+                queryIndex.findItemsInTimeRange(BASE_TIME.minusSeconds(1), end, CONTEXT_ID));
+        assertEquals(List.of("first", "late"), queryIndex.findItemsOnDate("2025-01-01", CONTEXT_ID));
+
+        boundary.setSensitivity("late", 0.9);
+        assertEquals(List.of("first"), queryIndex.findItemsOnDate("2025-01-01", CONTEXT_ID));
+        assertEquals(List.of("first", "next-day"), queryIndex.findItemsInTimeRange(BASE_TIME, end, CONTEXT_ID));
+        assertEquals(List.of(), queryIndex.findItemsOnDate("not-a-date", CONTEXT_ID));
+    }
+
+    @Test
+    void testClosedIndexStopsFollowingSensitivityChanges() {
+        TemporalIndexing statsIndex = new TemporalIndexing(ZoneId.of("UTC"), boundary);
+        boundary.setSensitivity("tracked", 0.2);
+        statsIndex.indexItem("tracked", BASE_TIME, Collections.emptyMap());
+        assertEquals(1, statsIndex.getTimeStatistics(ChronoUnit.HOURS, CONTEXT_ID).get(BASE_TIME).get("itemCount"));
+
+        boundary.setSensitivity("tracked", 0.9);
+        assertTrue(statsIndex.getTimeStatistics(ChronoUnit.HOURS, CONTEXT_ID).isEmpty());
+
+        statsIndex.close();
+        statsIndex.close();
+        boundary.setSensitivity("tracked", 0.2);
+        assertTrue(statsIndex.getTimeStatistics(ChronoUnit.HOURS, CONTEXT_ID).isEmpty());
+        assertEquals(List.of("tracked"), statsIndex.findItemsOnDate("2025-01-01", CONTEXT_ID));
+    }
+
+    @Test
+    void testRemovedItemsReleaseTheirCodes() {
+        InformationBoundary churnBoundary = new InformationBoundary();
+        churnBoundary.registerContext("full-access", 10);
+        TemporalIndexing churnIndex = new TemporalIndexing(ZoneId.of("UTC"), churnBoundary);
+
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 100; i++) {
+                churnIndex.indexItem("churn-" + round + "-" + i, BASE_TIME.plusSeconds(i), Collections.emptyMap());
+            }
+            for (int i = 0; i < 100; i++) {
+                assertTrue(churnIndex.removeItem("churn-" + round + "-" + i));
+            }
+        }
+        assertEquals(0, churnBoundary.getInformationCodeCount());
+
+        // Reused codes still resolve to the items holding them now
+        churnIndex.indexItem("kept", BASE_TIME, Collections.emptyMap());
+        int code = churnBoundary.getInformationCode("kept");
+        assertTrue(code < 100, "code " + code + " was not reused");
+        assertEquals("kept", churnBoundary.getInformationId(code));
+        assertEquals(List.of("kept"), churnIndex.findItemsInTimeRange(BASE_TIME, BASE_TIME.plusSeconds(1), "full-access"));
+        churnIndex.close();
+    }
+
+    /**
+     * The original nested-loop algorithm, rebuilt over the indexed items.
+     */
+    private List<Map<String, Object>> referencePatterns(long windowSize, int threshold) {
+        // Rebuild the time index with items in insertion order per timestamp
+        TreeMap<Instant, List<String>> timeIndex = new TreeMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            String itemId = "item-" + i;
+            Instant timestamp = indexedTimes.get(itemId);
+            if (timestamp != null) {
+                timeIndex.computeIfAbsent(timestamp, k -> new ArrayList<>()).add(itemId);
+            }
+        }
+
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        List<Instant> timeline = new ArrayList<>(timeIndex.keySet());
+        for (int i = 0; i < timeline.size(); i++) {
+            Instant windowStart = timeline.get(i);
+            Instant windowEnd = windowStart.plusMillis(windowSize);
+
+            int itemCount = 0;
+            Set<String> itemsInWindow = new HashSet<>();
+            for (int j = i; j < timeline.size() && !timeline.get(j).isAfter(windowEnd); j++) {
+                for (String itemId : timeIndex.get(timeline.get(j))) {
+                    if (boundary.canInformationPass(itemId, CONTEXT_ID)) {
+                        itemCount++;
+                        itemsInWindow.add(itemId);
+                    }
+                }
+            }
+
+            if (itemCount >= threshold) {
+                Map<String, Object> pattern = new HashMap<>();
+                pattern.put("startTime", windowStart);
+                pattern.put("endTime", windowEnd);
+                pattern.put("itemCount", itemCount);
+                pattern.put("items", new ArrayList<>(itemsInWindow));
+                patterns.add(pattern);
+            }
+        }
+        return patterns;
+    }
+}
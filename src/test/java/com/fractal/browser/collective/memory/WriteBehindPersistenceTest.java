@@ -0,0 +1,132 @@
+package com.fractal.browser.collective.memory;
+
+import com.fractal.browser.collective.boundaries.InformationBoundary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+class WriteBehindPersistenceTest {
+
+    private InMemoryPersistenceStrategy delegate;
+    private WriteBehindPersistence writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new InMemoryPersistenceStrategy();
+        writeBehind = new WriteBehindPersistence(delegate, 1_000, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        writeBehind.shutdown();
+    }
+
+    private static Map<String, Object> record(int version) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("version", version);
+        return data;
+    }
+
+    @Test
+    void testRepeatedWritesAreCoalesced() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            writeBehind.store("contexts", "a", record(i));
+        }
+        writeBehind.store("contexts", "b", record(0));
+        writeBehind.delete("contexts", "b");
+
+        assertEquals(0, delegate.getStoreCount());
+        assertEquals(99, writeBehind.load("contexts", "a").get("version"));
+        assertFalse(writeBehind.exists("contexts", "b"));
+
+        writeBehind.flush();
+        assertEquals(1, delegate.getStoreCount());
+        assertEquals(99, delegate.load("contexts", "a").get("version"));
+        assertNull(delegate.load("contexts", "b"));
+
+        Map<String, Object> statistics = writeBehind.getStatistics();
+        assertEquals(102L, statistics.get("queued"));
+        assertEquals(100L, statistics.get("coalesced"));
+        assertEquals(0, statistics.get("pending"));
+    }
+
+    @Test
+    void testBatchSizeAndIntervalTriggerFlushes() throws Exception {
+        WriteBehindPersistence sized = new WriteBehindPersistence(delegate, 10, Duration.ofHours(1));
+        for (int i = 0; i < 10; i++) {
+            sized.store("contexts", "sized-" + i, record(i));
+        }
+        awaitStoreCount(10);
+        sized.shutdown();
+
+        WriteBehindPersistence timed = new WriteBehindPersistence(delegate, 1_000, Duration.ofMillis(10));
+        timed.store("contexts", "timed", record(1));
+        awaitStoreCount(11);
+        timed.shutdown();
+    }
+
+    private void awaitStoreCount(long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (delegate.getStoreCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, delegate.getStoreCount());
+    }
+
+    @Test
+    void testRejectedWritesAreRetried() throws Exception {
+        boolean[] failing = {true};
+        InMemoryPersistenceStrategy flaky = new InMemoryPersistenceStrategy() {
+            @Override
+            public void store(String dataType, String id, Map<String, Object> values) throws Exception {
+                if (failing[0]) {
+                    throw new IllegalStateException("storage unavailable");
+                }
+                super.store(dataType, id, values);
+            }
+        };
+        WriteBehindPersistence retrying = new WriteBehindPersistence(flaky, 1_000, Duration.ofHours(1));
+        retrying.store("contexts", "a", record(1));
+
+        assertThrows(IllegalStateException.class, retrying::flush);
+        assertEquals(1, retrying.getPendingCount());
+        assertEquals(1, retrying.load("contexts", "a").get("version"));
+
+        failing[0] = false;
+        retrying.shutdown();
+        assertEquals(1, flaky.load("contexts", "a").get("version"));
+        assertEquals(1L, retrying.getStatistics().get("failed"));
+    }
+
+    @Test
+    void testShutdownFlushesRegistryState() throws Exception {
+        WriteBehindPersistence persistence = new WriteBehindPersistence(delegate, 50, Duration.ofMillis(5));
+        SharedContextRegistry registry = new SharedContextRegistry(new InformationBoundary(), persistence);
+        String contextId = registry.createContext("context", "", "creator", new HashMap<>(), null).get().getContextId();
+        for (int n = 0; n < 500; n++) {
+            registry.joinContext("node-" + n, contextId);
+            if (n % 3 == 0) {
+                registry.leaveContext("node-" + n, contextId);
+            }
+        }
+        persistence.shutdown();
+
+        assertEquals(registry.getContext(contextId).get().getParticipantNodeIds(),
+                new HashSet<>((List<?>) delegate.load("contexts", contextId).get("participantNodeIds")));
+        assertThrows(IllegalStateException.class, () -> persistence.store("contexts", "late", record(0)));
+    }
+
+    @Test
+    void testRejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new WriteBehindPersistence(delegate, 0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new WriteBehindPersistence(delegate, 10, Duration.ZERO));
+    }
+}
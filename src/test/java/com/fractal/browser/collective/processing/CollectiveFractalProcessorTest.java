@@ -123,6 +123,7 @@ class CollectiveFractalProcessorTest {
         assertThrows(com.fractal.browser.exceptions.FractalBrowserException.class, () -> {
             processor.processCollectively(instruction, contextId);
         });
+        assertEquals(0, processor.getProcessingResults().size());
     }
     
     @Test
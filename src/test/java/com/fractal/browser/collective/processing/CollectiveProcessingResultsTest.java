@@ -0,0 +1,72 @@
+package com.fractal.browser.collective.processing;
+
+import com.fractal.browser.collective.communication.NodeDiscovery;
+import com.fractal.browser.exceptions.FractalBrowserException;
+import com.fractal.browser.model.SemanticInstruction;
+import com.fractal.browser.processing.ProcessingResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CollectiveProcessingResultsTest {
+    private NodeDiscovery nodeDiscovery;
+    private CollectiveFractalProcessor processor;
+    private SemanticInstruction instruction;
+
+    @BeforeEach
+    void setUp() {
+        nodeDiscovery = new NodeDiscovery();
+        nodeDiscovery.registerNode("node-1", new HashMap<>());
+        processor = new CollectiveFractalProcessor(
+                100,
+                0.001,
+                nodeDiscovery,
+                null,
+                null,
+                null,
+                null,
+                2,
+                75,
+                null,
+                ExecutorExecutionStrategy.fixedPool(2));
+        instruction = new SemanticInstruction.Builder()
+                .withIntent("collective")
+                .withInitialValue(0.1)
+                .withConstantValue(-0.5)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        processor.shutdown();
+    }
+
+    @Test
+    void testRejectedRequestsLeaveNoEntry() {
+        assertThrows(FractalBrowserException.class, () -> processor.processCollectively(instruction, "context"));
+        assertThrows(FractalBrowserException.class, () -> processor.processCollectivelyStreaming(instruction, "context"));
+        assertTrue(processor.processCollectivelyAsync(instruction, "context").isCompletedExceptionally());
+
+        assertEquals(0, processor.getProcessingResults().size());
+        assertTrue(processor.getProcessingResults().getByContext("context").isEmpty());
+    }
+
+    @Test
+    void testAcceptedRequestsRecordNodeResults() {
+        nodeDiscovery.registerNode("node-2", new HashMap<>());
+
+        ProcessingResult result = processor.processCollectively(instruction, "context");
+
+        assertEquals(2, result.getResults().get("nodeCount"));
+        assertEquals(1, processor.getProcessingResults().size());
+        List<Map<String, ProcessingResult>> recorded = processor.getProcessingResults().getByContext("context");
+        assertEquals(1, recorded.size());
+        assertEquals(2, recorded.get(0).size());
+    }
+}
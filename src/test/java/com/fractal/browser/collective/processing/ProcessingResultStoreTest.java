@@ -0,0 +1,95 @@
+package com.fractal.browser.collective.processing;
+
+import com.fractal.browser.collective.memory.PersistenceStrategy;
+import com.fractal.browser.processing.ProcessingResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessingResultStoreTest {
+
+    @Mock private PersistenceStrategy persistenceStrategy;
+
+    @Test
+    void testMaxEntriesEvictsOldestFirst() {
+        ProcessingResultStore store = new ProcessingResultStore(0, 2, null);
+
+        store.register("process-1", "context-a");
+        store.register("process-2", "context-a");
+        store.register("process-3", "context-b");
+
+        assertEquals(2, store.size());
+        assertNull(store.get("process-1"));
+        assertNotNull(store.get("process-2"));
+        assertNotNull(store.get("process-3"));
+        assertEquals(1, store.getByContext("context-a").size());
+    }
+
+    @Test
+    void testRunningEntriesAreNotEvictedForSize() {
+        ProcessingResultStore store = new ProcessingResultStore(0, 2, null);
+
+        store.registerRunning("process-1", "context-a");
+        store.register("process-2", "context-a");
+        store.register("process-3", "context-b");
+        store.register("process-4", "context-b");
+
+        assertNotNull(store.get("process-1"));
+        assertNull(store.get("process-2"));
+        assertNull(store.get("process-3"));
+        assertNotNull(store.get("process-4"));
+
+        store.markCompleted("process-1");
+        store.register("process-5", "context-b");
+        assertNull(store.get("process-1"));
+        assertNotNull(store.get("process-4"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void testExpiredEntriesAreEvicted() throws InterruptedException {
+        ProcessingResultStore store = new ProcessingResultStore(1, 0, null);
+
+        store.register("process-1", "context-a");
+        Thread.sleep(10);
+
+        assertTrue(store.getByContext("context-a").isEmpty());
+        assertEquals(1, store.evict());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testContextIndexOnlyReturnsThatContext() {
+        ProcessingResultStore store = new ProcessingResultStore(0, 0, null);
+
+        Map<String, ProcessingResult> first = store.register("process-1", "context-a");
+        store.register("process-2", "context-b");
+        first.put("node1", new ProcessingResult());
+
+        List<Map<String, ProcessingResult>> results = store.getByContext("context-a");
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).containsKey("node1"));
+        assertTrue(store.getByContext("context-c").isEmpty());
+    }
+
+    @Test
+    void testEvictedEntriesAreSpilled() throws Exception {
+        ProcessingResultStore store = new ProcessingResultStore(0, 1, persistenceStrategy);
+
+        store.register("process-1", "context-a").put("node1", new ProcessingResult());
+        store.register("process-2", "context-a");
+
+        verify(persistenceStrategy).store(eq(ProcessingResultStore.SPILL_DATA_TYPE), eq("process-1"), any());
+        verifyNoMoreInteractions(persistenceStrategy);
+    }
+}
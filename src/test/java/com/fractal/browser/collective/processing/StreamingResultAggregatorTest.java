@@ -0,0 +1,104 @@
+package com.fractal.browser.collective.processing;
+
+import com.fractal.browser.processing.ProcessingResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingResultAggregatorTest {
+    private static final double[] CONVERGENCE_VALUES = {0.5, 1.5, 0.25, 1.0};
+    private static final int[] ITERATIONS = {10, 20, 30, 40};
+
+    private Map<String, ProcessingResult> nodeResults;
+    private StreamingResultAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        nodeResults = new ConcurrentHashMap<>();
+        aggregator = new StreamingResultAggregator("test-context", 4, 75, nodeResults);
+    }
+
+    @Test
+    void testRunningStatisticsMatchTwoPassComputation() {
+        acceptAll();
+
+        double mean = 0.0;
+        for (double value : CONVERGENCE_VALUES) {
+            mean += value;
+        }
+        mean /= CONVERGENCE_VALUES.length;
+        double variance = 0.0;
+        for (double value : CONVERGENCE_VALUES) {
+            variance += (value - mean) * (value - mean);
+        }
+        variance /= CONVERGENCE_VALUES.length - 1;
+
+        ProcessingResult partial = aggregator.getPartialResult();
+        assertEquals(4, partial.getResults().get("nodeCount"));
+        assertEquals(100, partial.getIterations());
+        assertEquals(mean, partial.getConvergenceValue(), 1e-12);
+        assertEquals(variance, aggregator.getConvergenceVariance(), 1e-12);
+        assertEquals(4, nodeResults.size());
+    }
+
+    @Test
+    void testQuorumCompletesBeforeAllNodesReport() {
+        assertEquals(3, aggregator.getQuorumSize());
+
+        aggregator.accept("node0", result(0));
+        aggregator.accept("node1", result(1));
+        assertFalse(aggregator.getQuorumResult().isDone());
+
+        aggregator.accept("node2", result(2));
+        assertTrue(aggregator.getQuorumResult().isDone());
+        assertFalse(aggregator.getFinalResult().isDone());
+
+        ProcessingResult quorum = aggregator.getQuorumResult().join();
+        assertEquals(3, quorum.getResults().get("nodeCount"));
+        assertEquals(60, quorum.getIterations());
+    }
+
+    @Test
+    void testFinalResultCompletesOnCompletion() {
+        acceptAll();
+        aggregator.complete(null);
+
+        ProcessingResult result = aggregator.getFinalResult().join();
+        assertEquals(4, result.getResults().get("nodeCount"));
+        assertEquals("test-context", result.getContextId().orElse(null));
+    }
+
+    @Test
+    void testFailureCompletesBothFutures() {
+        aggregator.accept("node0", result(0));
+        aggregator.complete(new IllegalStateException("node failed"));
+
+        assertThrows(CompletionException.class, () -> aggregator.getQuorumResult().join());
+        assertThrows(CompletionException.class, () -> aggregator.getFinalResult().join());
+    }
+
+    @Test
+    void testCompletionWithoutResultsFails() {
+        aggregator.complete(null);
+
+        assertTrue(aggregator.getFinalResult().isCompletedExceptionally());
+    }
+
+    private void acceptAll() {
+        for (int i = 0; i < CONVERGENCE_VALUES.length; i++) {
+            aggregator.accept("node" + i, result(i));
+        }
+    }
+
+    private ProcessingResult result(int index) {
+        ProcessingResult result = new ProcessingResult();
+        result.setIterations(ITERATIONS[index]);
+        result.setConvergenceValue(CONVERGENCE_VALUES[index]);
+        return result;
+    }
+}
@@ -0,0 +1,113 @@
+package com.fractal.browser.performance;
+
+import com.fractal.browser.model.SemanticInstruction;
+import com.fractal.browser.processing.NodeFractalProcessor;
+import com.fractal.browser.processing.ProcessingResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+class BatchProcessingPerformanceTest {
+    private NodeFractalProcessor processor;
+    private static final int MAX_ITERATIONS = 100;
+    private static final double CONVERGENCE_THRESHOLD = 0.001;
+    private static final int BATCH_SIZE = 200_000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+
+    private double[] initial;
+    private double[] constant;
+    private SemanticInstruction[] instructions;
+
+    @BeforeEach
+    void setUp() {
+        processor = new NodeFractalProcessor(MAX_ITERATIONS, CONVERGENCE_THRESHOLD);
+
+        Random random = new Random(42);
+        initial = new double[BATCH_SIZE];
+        constant = new double[BATCH_SIZE];
+        instructions = new SemanticInstruction[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            initial[i] = random.nextDouble() * 4.0 - 2.0;
+            constant[i] = random.nextDouble() * 2.5 - 2.0;
+            instructions[i] = new SemanticInstruction.Builder()
+                    .withIntent("batch")
+                    .withInitialValue(initial[i])
+                    .withConstantValue(constant[i])
+                    .build();
+        }
+        // Include the early-exit edge cases explicitly
+        initial[0] = 0.0;
+        constant[0] = 0.0;
+        initial[1] = 2.0;
+        constant[1] = 2.0;
+        initial[2] = -1.0;
+        constant[2] = -1.0;
+        for (int i = 0; i < 3; i++) {
+            instructions[i] = new SemanticInstruction.Builder()
+                    .withIntent("batch")
+                    .withInitialValue(initial[i])
+                    .withConstantValue(constant[i])
+                    .build();
+        }
+    }
+
+    @Test
+    void testBatchMatchesPerInstructionProcessing() {
+        int[] iterations = new int[BATCH_SIZE];
+        double[] convergence = new double[BATCH_SIZE];
+        processor.processBatch(initial, constant, iterations, convergence);
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ProcessingResult expected = processor.process(instructions[i], "batch-context");
+            assertEquals(expected.getIterations(), iterations[i], "iterations at index " + i);
+            assertEquals(Double.doubleToLongBits(expected.getConvergenceValue()),
+                    Double.doubleToLongBits(convergence[i]), "convergence at index " + i);
+        }
+    }
+
+    @Test
+    void testBatchThroughput() {
+        int[] iterations = new int[BATCH_SIZE];
+        double[] convergence = new double[BATCH_SIZE];
+
+        // Warmup phase
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            processSequentially();
+            processor.processBatch(initial, constant, iterations, convergence);
+        }
+
+        // Measurement phase
+        long sequentialNanos = 0;
+        long batchNanos = 0;
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            long startTime = System.nanoTime();
+            processSequentially();
+            sequentialNanos += System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            processor.processBatch(initial, constant, iterations, convergence);
+            batchNanos += System.nanoTime() - startTime;
+        }
+
+        double speedup = (double) sequentialNanos / batchNanos;
+        System.out.println("Batch processing (" + BATCH_SIZE + " instructions):");
+        System.out.println("Per-instruction average: "
+                + TimeUnit.NANOSECONDS.toMillis(sequentialNanos / MEASUREMENT_ITERATIONS) + " ms");
+        System.out.println("Batch average: "
+                + TimeUnit.NANOSECONDS.toMillis(batchNanos / MEASUREMENT_ITERATIONS) + " ms");
+        System.out.println("Speedup: " + String.format("%.1fx", speedup));
+
+        assertTrue(batchNanos < sequentialNanos); // Batch path must beat the per-instruction loop
+    }
+
+    private void processSequentially() {
+        for (SemanticInstruction instruction : instructions) {
+            ProcessingResult result = processor.process(instruction, "batch-context");
+            assertNotNull(result);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.fractal.browser.performance;
+
+import com.fractal.browser.collective.boundaries.InformationBoundary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+class BoundaryEvaluationPerformanceTest {
+    private static final String CONTEXT_ID = "perf-context";
+    private static final int ITEM_COUNT = 1_000_000;
+    private static final int ITERATIONS = 5;
+
+    private InformationBoundary boundary;
+    private List<String> informationIds;
+    private BitSet informationCodes;
+
+    @BeforeEach
+    void setUp() {
+        boundary = new InformationBoundary();
+        boundary.registerContext(CONTEXT_ID, 5);
+        informationIds = new ArrayList<>(ITEM_COUNT);
+        informationCodes = new BitSet(ITEM_COUNT);
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            String informationId = "info-" + i;
+            boundary.setSensitivity(informationId, (i % 10) / 10.0);
+            informationIds.add(informationId);
+            informationCodes.set(boundary.getInformationCode(informationId));
+        }
+    }
+
+    @Test
+    void testBulkEvaluationThroughput() {
+        // Warmup phase
+        for (int i = 0; i < 2; i++) {
+            perItem();
+            boundary.filterVisible(informationIds, CONTEXT_ID);
+            boundary.filterVisible(informationCodes, CONTEXT_ID);
+        }
+
+        long perItemNanos = 0;
+        long bulkIdNanos = 0;
+        long bitmapNanos = 0;
+        int expected = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            expected = perItem();
+            perItemNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            BitSet byId = boundary.filterVisible(informationIds, CONTEXT_ID);
+            bulkIdNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            BitSet byCode = boundary.filterVisible(informationCodes, CONTEXT_ID);
+            bitmapNanos += System.nanoTime() - start;
+
+            assertEquals(expected, byId.cardinality());
+            assertEquals(expected, byCode.cardinality());
+        }
+
+        System.out.println("Boundary evaluation of " + ITEM_COUNT + " items: "
+                + perItemNanos / ITERATIONS / 1_000 + " us per-item, "
+                + bulkIdNanos / ITERATIONS / 1_000 + " us bulk by ID, "
+                + bitmapNanos / ITERATIONS / 1_000 + " us bitmap AND");
+        // Levels 0 through 5 of every ten items are visible
+        assertEquals(ITEM_COUNT * 6 / 10, expected);
+    }
+
+    private int perItem() {
+        int visible = 0;
+        for (String informationId : informationIds) {
+            if (boundary.canInformationPass(informationId, CONTEXT_ID)) {
+                visible++;
+            }
+        }
+        return visible;
+    }
+}
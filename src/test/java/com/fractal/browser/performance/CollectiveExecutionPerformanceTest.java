@@ -0,0 +1,113 @@
+package com.fractal.browser.performance;
+
+import com.fractal.browser.collective.communication.NodeDiscovery;
+import com.fractal.browser.collective.processing.CollectiveFractalProcessor;
+import com.fractal.browser.collective.processing.ExecutionStrategy;
+import com.fractal.browser.collective.processing.ExecutorExecutionStrategy;
+import com.fractal.browser.collective.processing.ForkJoinExecutionStrategy;
+import com.fractal.browser.model.SemanticInstruction;
+import com.fractal.browser.processing.ProcessingResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+class CollectiveExecutionPerformanceTest {
+    private static final int MAX_ITERATIONS = 100;
+    private static final double CONVERGENCE_THRESHOLD = 0.001;
+    private static final int NODE_COUNT = 64;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASUREMENT_ITERATIONS = 1000;
+
+    private NodeDiscovery nodeDiscovery;
+    private SemanticInstruction instruction;
+
+    @BeforeEach
+    void setUp() {
+        nodeDiscovery = new NodeDiscovery();
+        for (int i = 0; i < NODE_COUNT; i++) {
+            nodeDiscovery.registerNode("node-" + i, new HashMap<>());
+        }
+        instruction = new SemanticInstruction.Builder()
+                .withIntent("collective")
+                .withInitialValue(0.1)
+                .withConstantValue(-0.5)
+                .build();
+    }
+
+    @Test
+    void testStrategyThroughput() {
+        List<ExecutionStrategy> strategies = new ArrayList<>();
+        strategies.add(ExecutorExecutionStrategy.fixedPool(Runtime.getRuntime().availableProcessors() - 1));
+        strategies.add(new ForkJoinExecutionStrategy());
+        strategies.add(ExecutorExecutionStrategy.virtualThreads());
+
+        System.out.println("Collective execution throughput (" + NODE_COUNT + " nodes):");
+        for (ExecutionStrategy strategy : strategies) {
+            CollectiveFractalProcessor processor = createProcessor(strategy);
+            try {
+                // Warmup phase
+                for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                    processor.processCollectively(instruction, "perf-context");
+                }
+
+                // Measurement phase
+                long startTime = System.nanoTime();
+                for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+                    ProcessingResult result = processor.processCollectively(instruction, "perf-context");
+                    assertEquals(NODE_COUNT, result.getResults().get("nodeCount"));
+                }
+                long duration = System.nanoTime() - startTime;
+
+                double requestsPerSecond = MEASUREMENT_ITERATIONS / (duration / 1e9);
+                System.out.println(strategy.getName() + ": "
+                        + String.format("%.0f", requestsPerSecond) + " requests/s, "
+                        + String.format("%.0f", requestsPerSecond * NODE_COUNT) + " node tasks/s");
+
+                assertTrue(TimeUnit.NANOSECONDS.toMillis(duration) < 60_000); // Should complete within 60s
+            } finally {
+                processor.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void testStrategiesProduceSameAggregate() {
+        ProcessingResult fixedResult = processWith(ExecutorExecutionStrategy.fixedPool(2));
+        ProcessingResult forkJoinResult = processWith(new ForkJoinExecutionStrategy(2, 4));
+        ProcessingResult virtualResult = processWith(ExecutorExecutionStrategy.virtualThreads());
+
+        assertEquals(fixedResult.getIterations(), forkJoinResult.getIterations());
+        assertEquals(fixedResult.getIterations(), virtualResult.getIterations());
+        assertEquals(fixedResult.getConvergenceValue(), forkJoinResult.getConvergenceValue(), 1e-12);
+        assertEquals(fixedResult.getConvergenceValue(), virtualResult.getConvergenceValue(), 1e-12);
+    }
+
+    private ProcessingResult processWith(ExecutionStrategy strategy) {
+        CollectiveFractalProcessor processor = createProcessor(strategy);
+        try {
+            return processor.processCollectively(instruction, "perf-context");
+        } finally {
+            processor.shutdown();
+        }
+    }
+
+    private CollectiveFractalProcessor createProcessor(ExecutionStrategy strategy) {
+        return new CollectiveFractalProcessor(
+                MAX_ITERATIONS,
+                CONVERGENCE_THRESHOLD,
+                nodeDiscovery,
+                null,
+                null,
+                null,
+                null,
+                1,
+                75,
+                null,
+                strategy);
+    }
+}
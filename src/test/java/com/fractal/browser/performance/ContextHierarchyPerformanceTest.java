@@ -0,0 +1,86 @@
+package com.fractal.browser.performance;
+
+import com.fractal.browser.collective.boundaries.InformationBoundary;
+import com.fractal.browser.collective.memory.SharedContextRegistry;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+class ContextHierarchyPerformanceTest {
+    private static final int CONTEXT_COUNT = 100_000;
+    private static final int QUERIES = 5_000;
+
+    @Test
+    void testIndexedAncestryAgainstParentWalk() {
+        SharedContextRegistry registry = new SharedContextRegistry(new InformationBoundary(), null);
+        Random random = new Random(3);
+        List<String> contextIds = new ArrayList<>();
+        for (int c = 0; c < CONTEXT_COUNT; c++) {
+            // Mostly extend recent contexts, which builds deep chains
+            String parentId = c < 10 ? null : contextIds.get(Math.max(0, c - 1 - random.nextInt(64)));
+            contextIds.add(registry.createContext("context-" + c, "", "creator", new HashMap<>(), parentId)
+                    .get().getContextId());
+        }
+        int maxDepth = registry.getContextDepth(contextIds.get(CONTEXT_COUNT - 1));
+
+        String[] candidates = new String[QUERIES];
+        String[] ancestors = new String[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            candidates[q] = contextIds.get(random.nextInt(CONTEXT_COUNT));
+            ancestors[q] = contextIds.get(random.nextInt(CONTEXT_COUNT));
+        }
+
+        // Warmup phase
+        int expected = countByParentWalk(registry, candidates, ancestors);
+        countIndexed(registry, candidates, ancestors);
+
+        long start = System.nanoTime();
+        countByParentWalk(registry, candidates, ancestors);
+        long walkMillis = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        int found = countIndexed(registry, candidates, ancestors);
+        long indexedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        int roots = registry.getRootContexts().size();
+        long rootMicros = (System.nanoTime() - start) / 1_000;
+
+        System.out.println("Subtree membership over " + CONTEXT_COUNT + " contexts (depth up to " + maxDepth + "): "
+                + walkMillis + " ms walking parents, " + indexedMillis + " ms with ancestor arrays for " + QUERIES
+                + " queries; " + roots + " roots in " + rootMicros + " us");
+        assertEquals(expected, found);
+        assertEquals(10, roots);
+    }
+
+    private static int countIndexed(SharedContextRegistry registry, String[] candidates, String[] ancestors) {
+        int found = 0;
+        for (int q = 0; q < candidates.length; q++) {
+            if (registry.isInHierarchy(candidates[q], ancestors[q])) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The previous approach: follow parent links one level at a time.
+     */
+    private static int countByParentWalk(SharedContextRegistry registry, String[] candidates, String[] ancestors) {
+        int found = 0;
+        for (int q = 0; q < candidates.length; q++) {
+            String current = candidates[q];
+            while (current != null && !current.equals(ancestors[q])) {
+                current = registry.getContext(current).get().getParentContextId();
+            }
+            if (current != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
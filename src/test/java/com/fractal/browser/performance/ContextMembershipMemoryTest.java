@@ -0,0 +1,93 @@
+package com.fractal.browser.performance;
+
+import com.fractal.browser.collective.boundaries.InformationBoundary;
+import com.fractal.browser.collective.memory.SharedContextRegistry;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+class ContextMembershipMemoryTest {
+    private static final int CONTEXT_COUNT = 10_000;
+    private static final int NODE_COUNT = 50_000;
+    private static final int MEMBERS_PER_CONTEXT = 100;
+    // Lower bound for a string set per context and per node: each membership needs a
+    // 32-byte hash node and at least one 4-byte table slot in both directions
+    private static final int STRING_SET_BYTES_PER_MEMBERSHIP = 2 * (32 + 4);
+
+    @Test
+    void testMembershipFootprintAgainstStringSets() {
+        String[] nodeIds = new String[NODE_COUNT];
+        for (int n = 0; n < NODE_COUNT; n++) {
+            nodeIds[n] = "node-" + n;
+        }
+        int[][] members = new int[CONTEXT_COUNT][MEMBERS_PER_CONTEXT];
+        Random random = new Random(9);
+        for (int[] contextMembers : members) {
+            for (int m = 0; m < MEMBERS_PER_CONTEXT; m++) {
+                contextMembers[m] = random.nextInt(NODE_COUNT);
+            }
+        }
+
+        SharedContextRegistry registry = new SharedContextRegistry(new InformationBoundary(), null);
+        String[] contextIds = new String[CONTEXT_COUNT];
+        for (int c = 0; c < CONTEXT_COUNT; c++) {
+            contextIds[c] = registry.createContext("context-" + c, "", nodeIds[c % NODE_COUNT], new HashMap<>(), null)
+                    .get().getContextId();
+        }
+
+        // Interned sorted int sets
+        long start = System.nanoTime();
+        int memberships = CONTEXT_COUNT;
+        for (int c = 0; c < CONTEXT_COUNT; c++) {
+            for (int node : members[c]) {
+                if (registry.joinContext(nodeIds[node], contextIds[c])) {
+                    memberships++;
+                }
+            }
+        }
+        long joinMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // The previous layout: a string set per context and per node
+        Map<String, Set<String>> participants = new ConcurrentHashMap<>();
+        Map<String, Set<String>> nodeContexts = new ConcurrentHashMap<>();
+        for (int c = 0; c < CONTEXT_COUNT; c++) {
+            Set<String> contextMembers = Collections.synchronizedSet(new HashSet<>());
+            participants.put(contextIds[c], contextMembers);
+            contextMembers.add(nodeIds[c % NODE_COUNT]);
+            nodeContexts.computeIfAbsent(nodeIds[c % NODE_COUNT], id -> ConcurrentHashMap.newKeySet()).add(contextIds[c]);
+            for (int node : members[c]) {
+                if (contextMembers.add(nodeIds[node])) {
+                    nodeContexts.computeIfAbsent(nodeIds[node], id -> ConcurrentHashMap.newKeySet()).add(contextIds[c]);
+                }
+            }
+        }
+
+        String node = nodeIds[members[0][0]];
+        start = System.nanoTime();
+        int found = 0;
+        for (int q = 0; q < 1_000; q++) {
+            found += registry.getNodeContexts(node).size();
+        }
+        long lookupMicros = (System.nanoTime() - start) / 1_000;
+
+        Map<String, Object> statistics = registry.getMembershipStatistics();
+        double bytesPerMembership = (double) statistics.get("bytesPerMembership");
+        System.out.println(memberships + " memberships joined in " + joinMillis + " ms: "
+                + String.format("%.1f", bytesPerMembership) + " bytes each in interned sets, at least "
+                + STRING_SET_BYTES_PER_MEMBERSHIP + " bytes each in string sets; 1000 node context lookups in "
+                + lookupMicros + " us");
+        assertEquals(nodeContexts.get(node), registry.getNodeContexts(node));
+        assertEquals(nodeContexts.get(node).size() * 1_000, found);
+        assertEquals(participants.get(contextIds[0]), registry.getContext(contextIds[0]).get().getParticipantNodeIds());
+        assertEquals((long) memberships, statistics.get("memberships"));
+        assertTrue(bytesPerMembership * 10 <= STRING_SET_BYTES_PER_MEMBERSHIP,
+                bytesPerMembership + " bytes per membership");
+    }
+}
@@ -0,0 +1,158 @@
+package com.fractal.browser.performance;
+
+import com.fractal.browser.collective.boundaries.InformationBoundary;
+import com.fractal.browser.collective.memory.PersistenceStrategy;
+import com.fractal.browser.collective.memory.SharedContextRegistry;
+import com.fractal.browser.collective.memory.WriteBehindPersistence;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+class ContextPersistencePerformanceTest {
+    private static final int CONTEXT_COUNT = 20;
+    private static final int JOINS = 1_000;
+    private static final long STORE_LATENCY_MILLIS = 1;
+
+    @Test
+    void testWriteBehindAgainstSynchronousStores() throws Exception {
+        SlowPersistence synchronous = new SlowPersistence(STORE_LATENCY_MILLIS);
+        long synchronousMillis = timeJoins(synchronous);
+
+        SlowPersistence delegate = new SlowPersistence(STORE_LATENCY_MILLIS);
+        WriteBehindPersistence writeBehind = new WriteBehindPersistence(delegate, 256, Duration.ofMillis(50));
+        long writeBehindMillis = timeJoins(writeBehind);
+        long start = System.nanoTime();
+        writeBehind.shutdown();
+        long shutdownMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Registry joins with " + STORE_LATENCY_MILLIS + " ms stores: " + synchronousMillis
+                + " ms synchronous (" + synchronous.stores.size() + " contexts, " + synchronous.storeCount
+                + " stores), " + writeBehindMillis + " ms write-behind (" + delegate.storeCount
+                + " stores after coalescing, " + shutdownMillis + " ms final flush)");
+        assertEquals(synchronous.stores.size(), delegate.stores.size());
+        assertTrue(delegate.storeCount < synchronous.storeCount);
+        for (Map<String, Object> stored : delegate.stores.values()) {
+            assertEquals(JOINS / CONTEXT_COUNT + 1, ((List<?>) stored.get("participantNodeIds")).size());
+        }
+    }
+
+    @Test
+    void testColdStartLoadThroughput() throws Exception {
+        for (int contextCount : new int[] {10_000, 100_000}) {
+            SlowPersistence persistence = new SlowPersistence(0);
+            Instant now = Instant.now();
+            for (int c = 0; c < contextCount; c++) {
+                Map<String, Object> record = new HashMap<>();
+                record.put("contextId", "context-" + c);
+                record.put("name", "name-" + c);
+                record.put("description", "");
+                record.put("creatorNodeId", "node-" + c % 1_000);
+                record.put("creationTime", now.toString());
+                record.put("lastActivity", now.toString());
+                record.put("metadata", new HashMap<>());
+                record.put("participantNodeIds", Arrays.asList("node-" + c % 1_000, "node-" + (c + 7) % 1_000));
+                record.put("parentContextId", c == 0 ? null : "context-" + (c - 1) / 8);
+                record.put("active", true);
+                persistence.store("contexts", "context-" + c, record);
+            }
+
+            SharedContextRegistry registry = new SharedContextRegistry(new InformationBoundary(), persistence);
+            Map<String, Object> statistics = registry.getLoadStatistics();
+
+            System.out.println("Loading " + contextCount + " contexts: " + statistics.get("durationMillis") + " ms ("
+                    + statistics.get("decodeMillis") + " ms decode, " + statistics.get("indexMillis") + " ms index, "
+                    + Math.round((double) statistics.get("contextsPerSecond")) + " contexts/s)");
+            assertEquals(contextCount, statistics.get("loaded"));
+            assertEquals(8, registry.getChildContexts("context-0").size());
+            assertTrue(registry.getContextByName("name-" + (contextCount - 1)).isPresent());
+        }
+    }
+
+    private static long timeJoins(PersistenceStrategy persistence) {
+        SharedContextRegistry registry = new SharedContextRegistry(new InformationBoundary(), persistence);
+        List<String> contextIds = new ArrayList<>();
+        for (int c = 0; c < CONTEXT_COUNT; c++) {
+            contextIds.add(registry.createContext("context-" + c, "", "creator", new HashMap<>(), null)
+                    .get().getContextId());
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < JOINS; i++) {
+            registry.joinContext("node-" + i, contextIds.get(i % CONTEXT_COUNT));
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Stores in memory, optionally after a fixed delay standing in for storage latency.
+     */
+    private static final class SlowPersistence implements PersistenceStrategy {
+        final Map<String, Map<String, Object>> stores = new ConcurrentHashMap<>();
+        final long latencyMillis;
+        volatile long storeCount;
+
+        SlowPersistence(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public synchronized void store(String dataType, String id, Map<String, Object> data) throws Exception {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            storeCount++;
+            stores.put(id, data);
+        }
+
+        @Override
+        public Map<String, Object> load(String dataType, String id) {
+            return stores.get(id);
+        }
+
+        @Override
+        public List<Map<String, Object>> loadAll(String dataType) {
+            return new ArrayList<>(stores.values());
+        }
+
+        @Override
+        public void delete(String dataType, String id) {
+            stores.remove(id);
+        }
+
+        @Override
+        public boolean exists(String dataType, String id) {
+            return stores.containsKey(id);
+        }
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Map<String, Object>> query(String dataType, Map<String, Object> query) {
+            return loadAll(dataType);
+        }
+
+        @Override
+        public boolean backup(String backupLocation) {
+            return false;
+        }
+
+        @Override
+        public boolean restore(String backupLocation) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.fractal.browser.performance;
+
+import com.fractal.browser.collective.boundaries.PrivacyFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+class RedactionPerformanceTest {
+    private static final int TERM_COUNT = 300;
+    private static final int DOCUMENT_WORDS = 20_000;
+    private static final int ITERATIONS = 5;
+
+    private PrivacyFilter filter;
+    private List<String> terms;
+    private String document;
+
+    @BeforeEach
+    void setUp() {
+        filter = new PrivacyFilter(3, Locale.ROOT);
+        terms = new ArrayList<>();
+        for (int i = 0; i < TERM_COUNT; i++) {
+            String term = "codename" + i + "z";
+            terms.add(term);
+            filter.addSensitiveTerm(term);
+        }
+
+        String[] vocabulary = {"collective", "fractal", "node", "insight", "boundary", "user@example.com", "555-123-4567"};
+        Random random = new Random(1);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < DOCUMENT_WORDS; i++) {
+            content.append(random.nextInt(50) == 0 ? terms.get(random.nextInt(TERM_COUNT))
+                    : vocabulary[random.nextInt(vocabulary.length)]).append(' ');
+        }
+        document = content.toString();
+    }
+
+    @Test
+    void testCompiledEngineAgainstPerTermReplacement() {
+        // Warmup phase
+        String expected = null;
+        for (int i = 0; i < 2; i++) {
+            expected = perTermReplacement(document);
+            filter.filterContent(document);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            perTermReplacement(document);
+        }
+        long perTermNanos = (System.nanoTime() - start) / ITERATIONS;
+
+        start = System.nanoTime();
+        String filtered = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            filtered = filter.filterContent(document);
+        }
+        long engineNanos = (System.nanoTime() - start) / ITERATIONS;
+
+        System.out.println("Redacting " + document.length() / 1024 + " KB with " + TERM_COUNT + " terms: "
+                + perTermNanos / 1_000 + " us per-term replaceAll, " + engineNanos / 1_000 + " us compiled engine");
+        assertEquals(expected, filtered);
+    }
+
+    @Test
+    void testStreamingLargeDocumentWithoutBuffering() throws IOException {
+        // Repeats the document without ever materializing it; the writer only counts
+        long repeats = 64;
+        long expectedLength = (long) filter.filterContent(document).length() * repeats;
+        Reader in = new RepeatingReader(document, repeats);
+        CountingWriter out = new CountingWriter();
+
+        long start = System.nanoTime();
+        filter.filterContent(in, out);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Streaming " + document.length() * repeats / (1024 * 1024) + " MB through the redacting writer: "
+                + millis + " ms");
+        assertEquals(expectedLength, out.count);
+    }
+
+    @Test
+    void testParallelFilteringAgainstSequential() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            content.append(document);
+        }
+        String large = content.toString();
+
+        // Warmup phase
+        String expected = filter.filterContent(large);
+        filter.filterContentParallel(large);
+
+        long start = System.nanoTime();
+        filter.filterContent(large);
+        long sequentialMillis = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        String filtered = filter.filterContentParallel(large);
+        long parallelMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Redacting " + large.length() / (1024 * 1024) + " MB: " + sequentialMillis + " ms sequential, "
+                + parallelMillis + " ms parallel on " + Runtime.getRuntime().availableProcessors() + " processors");
+        assertEquals(expected, filtered);
+    }
+
+    private static final class RepeatingReader extends Reader {
+        private final String text;
+        private long remaining;
+        private int position;
+
+        RepeatingReader(String text, long repeats) {
+            this.text = text;
+            this.remaining = repeats;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (remaining == 0) {
+                return -1;
+            }
+            int count = Math.min(len, text.length() - position);
+            text.getChars(position, position + count, cbuf, off);
+            position += count;
+            if (position == text.length()) {
+                position = 0;
+                remaining--;
+            }
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class CountingWriter extends Writer {
+        long count;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * The previous implementation: one replaceAll per pattern and per term.
+     */
+    private String perTermReplacement(String content) {
+        String result = content;
+        result = result.replaceAll("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}", "[REDACTED-EMAIL]");
+        result = result.replaceAll("\\(?\\d{3}\\)?[-.\\s]?\\d{3}[-.\\s]?\\d{4}", "[REDACTED-PHONE]");
+        List<String> allTerms = new ArrayList<>(terms);
+        allTerms.add("password");
+        allTerms.add("secret");
+        allTerms.add("private");
+        allTerms.add("confidential");
+        for (String term : allTerms) {
+            result = result.replaceAll("(?i)" + Pattern.quote(term), "[REDACTED-TERM]");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,241 @@
+package com.fractal.browser.performance;
+
+import com.fractal.browser.collective.boundaries.InformationBoundary;
+import com.fractal.browser.collective.memory.TemporalIndexing;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class TemporalIndexingPerformanceTest {
+    private static final String CONTEXT_ID = "perf-context";
+    private static final int ITEMS_PER_THREAD = 50_000;
+    private static final int QUERIES_PER_THREAD = 2_000;
+    private static final long TIME_SPAN_MILLIS = 24L * 60 * 60 * 1000;
+    private static final long QUERY_WINDOW_MILLIS = 60 * 1000;
+    private static final Instant BASE_TIME = Instant.parse("2025-01-01T00:00:00Z");
+
+    private InformationBoundary boundary;
+
+    @BeforeEach
+    void setUp() {
+        boundary = new InformationBoundary();
+        boundary.registerContext(CONTEXT_ID, 10);
+    }
+
+    @Test
+    void testIngestAndRangeQueryScaling() throws InterruptedException {
+        TreeSet<Integer> threadCounts = new TreeSet<>();
+        threadCounts.add(1);
+        threadCounts.add(2);
+        threadCounts.add(4);
+        threadCounts.add(Runtime.getRuntime().availableProcessors());
+
+        // Warmup phase
+        runIngest(new TemporalIndexing(boundary), 2);
+
+        System.out.println("TemporalIndexing scaling (" + ITEMS_PER_THREAD + " items, "
+                + QUERIES_PER_THREAD + " range queries per thread):");
+        for (int threads : threadCounts) {
+            TemporalIndexing indexing = new TemporalIndexing(boundary);
+
+            long ingestNanos = runIngest(indexing, threads);
+            long queryNanos = runRangeQueries(indexing, threads);
+
+            double ingestPerSecond = threads * ITEMS_PER_THREAD / (ingestNanos / 1e9);
+            double queriesPerSecond = threads * QUERIES_PER_THREAD / (queryNanos / 1e9);
+            System.out.println(threads + " thread(s): "
+                    + String.format("%.0f", ingestPerSecond) + " items/s ingest, "
+                    + String.format("%.0f", queriesPerSecond) + " range queries/s");
+
+            List<String> all = indexing.findItemsInTimeRange(
+                    BASE_TIME, BASE_TIME.plusMillis(TIME_SPAN_MILLIS), CONTEXT_ID);
+            assertEquals(threads * ITEMS_PER_THREAD, all.size());
+        }
+    }
+
+    @Test
+    void testConcurrentIndexAndRemoveKeepsIndexConsistent() throws InterruptedException {
+        TemporalIndexing indexing = new TemporalIndexing(boundary);
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        // All threads share a small set of timestamps to force bucket contention
+        for (int t = 0; t < threads; t++) {
+            final int threadId = t;
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    String itemId = "item-" + threadId + "-" + i;
+                    Instant timestamp = BASE_TIME.plusMillis(i % 8);
+                    indexing.indexItem(itemId, timestamp, Collections.emptyMap());
+                    if (i % 2 == 0) {
+                        indexing.removeItem(itemId);
+                    }
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        List<String> remaining = indexing.findItemsInTimeRange(BASE_TIME, BASE_TIME.plusMillis(8), CONTEXT_ID);
+        assertEquals(threads * 5_000, remaining.size());
+    }
+
+    @Test
+    void testTemporalPatternsOverMillionTimestamps() {
+        TemporalIndexing indexing = new TemporalIndexing(boundary);
+        int itemCount = 1_000_000;
+        for (int i = 0; i < itemCount; i++) {
+            indexing.indexItem("item-" + i, BASE_TIME.plusMillis(i), Collections.emptyMap());
+        }
+        // A burst of items sharing one timestamp in the middle of the timeline
+        for (int i = 0; i < 2_000; i++) {
+            indexing.indexItem("burst-" + i, BASE_TIME.plusMillis(500_000), Collections.emptyMap());
+        }
+
+        // Warmup phase
+        for (int i = 0; i < 3; i++) {
+            indexing.findTemporalPatterns(1_000, 1_002, CONTEXT_ID);
+        }
+
+        long startTime = System.nanoTime();
+        List<Map<String, Object>> patterns = indexing.findTemporalPatterns(1_000, 1_002, CONTEXT_ID);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        System.out.println("findTemporalPatterns over " + itemCount + " timestamps: " + elapsedMillis + " ms");
+        // Only the windows covering the burst exceed the 1001 items of a regular window
+        assertEquals(1_001, patterns.size());
+        assertEquals(3_001, patterns.get(0).get("itemCount"));
+        assertTrue(elapsedMillis < 2_000, "Sliding window should be linear in the timeline");
+    }
+
+    @Test
+    void testMostRecentItemsIndependentOfHistorySize() {
+        InformationBoundary feedBoundary = new InformationBoundary();
+        feedBoundary.registerContext(CONTEXT_ID, 5);
+        TemporalIndexing indexing = new TemporalIndexing(feedBoundary);
+        int itemCount = 1_000_000;
+        for (int i = 0; i < itemCount; i++) {
+            String itemId = "item-" + i;
+            // Every other item is hidden from the context and has to be skipped
+            feedBoundary.setSensitivity(itemId, i % 2 == 0 ? 0.2 : 0.9);
+            indexing.indexItem(itemId, BASE_TIME.plusMillis(i), Collections.emptyMap());
+        }
+
+        // Warmup phase
+        for (int i = 0; i < 1_000; i++) {
+            indexing.getMostRecentItems(50, CONTEXT_ID);
+        }
+
+        int queries = 10_000;
+        long startTime = System.nanoTime();
+        List<String> recent = null;
+        for (int i = 0; i < queries; i++) {
+            recent = indexing.getMostRecentItems(50, CONTEXT_ID);
+        }
+        double microsPerQuery = (System.nanoTime() - startTime) / 1e3 / queries;
+
+        System.out.println("getMostRecentItems(50) over " + itemCount + " items: "
+                + String.format("%.1f", microsPerQuery) + " us per query");
+        assertEquals(50, recent.size());
+        assertEquals("item-" + (itemCount - 2), recent.get(0));
+    }
+
+    @Test
+    void testTimeStatisticsFromRollups() {
+        TemporalIndexing indexing = new TemporalIndexing(boundary);
+        int itemCount = 200_000;
+        Random random = new Random(5);
+        for (int i = 0; i < itemCount; i++) {
+            Instant timestamp = BASE_TIME.plusMillis((long) (random.nextDouble() * TIME_SPAN_MILLIS));
+            indexing.indexItem("item-" + i, timestamp, Collections.singletonMap("score", random.nextInt(100)));
+        }
+
+        // Warmup phase
+        for (int i = 0; i < 5; i++) {
+            indexing.getTimeStatistics(ChronoUnit.HOURS, CONTEXT_ID);
+            indexing.getTimeStatistics(ChronoUnit.SECONDS, CONTEXT_ID);
+        }
+
+        long startTime = System.nanoTime();
+        Map<Instant, Map<String, Object>> hourly = indexing.getTimeStatistics(ChronoUnit.HOURS, CONTEXT_ID);
+        long rollupMicros = (System.nanoTime() - startTime) / 1_000;
+
+        startTime = System.nanoTime();
+        indexing.getTimeStatistics(ChronoUnit.SECONDS, CONTEXT_ID);
+        long scanMicros = (System.nanoTime() - startTime) / 1_000;
+
+        System.out.println("getTimeStatistics over " + itemCount + " items: "
+                + rollupMicros + " us from hourly rollups, " + scanMicros + " us grouping by second");
+        assertEquals(24, hourly.size());
+        assertEquals(itemCount, hourly.values().stream().mapToInt(stats -> (Integer) stats.get("itemCount")).sum());
+    }
+
+    private long runIngest(TemporalIndexing indexing, int threads) throws InterruptedException {
+        return runConcurrently(threads, threadId -> {
+            Random random = new Random(threadId);
+            for (int i = 0; i < ITEMS_PER_THREAD; i++) {
+                Instant timestamp = BASE_TIME.plusMillis((long) (random.nextDouble() * TIME_SPAN_MILLIS));
+                indexing.indexItem("item-" + threadId + "-" + i, timestamp, Collections.emptyMap());
+            }
+        });
+    }
+
+    private long runRangeQueries(TemporalIndexing indexing, int threads) throws InterruptedException {
+        return runConcurrently(threads, threadId -> {
+            Random random = new Random(threadId + 1000);
+            for (int i = 0; i < QUERIES_PER_THREAD; i++) {
+                Instant start = BASE_TIME.plusMillis((long) (random.nextDouble() * TIME_SPAN_MILLIS));
+                List<String> items = indexing.findItemsInTimeRange(
+                        start, start.plusMillis(QUERY_WINDOW_MILLIS), CONTEXT_ID);
+                assertNotNull(items);
+            }
+        });
+    }
+
+    private long runConcurrently(int threads, ThreadTask task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicLong elapsed = new AtomicLong();
+
+        for (int t = 0; t < threads; t++) {
+            final int threadId = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    task.run(threadId);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        assertTrue(done.await(120, TimeUnit.SECONDS));
+        elapsed.set(System.nanoTime() - startTime);
+        executor.shutdown();
+        return elapsed.get();
+    }
+
+    private interface ThreadTask {
+        void run(int threadId);
+    }
+}
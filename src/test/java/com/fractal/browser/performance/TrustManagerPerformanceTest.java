@@ -0,0 +1,102 @@
+package com.fractal.browser.performance;
+
+import com.fractal.browser.collective.boundaries.TrustManager;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class TrustManagerPerformanceTest {
+    private static final int CONTEXT_COUNT = 1_000;
+    private static final int INTERACTIONS_PER_THREAD = 200_000;
+
+    @Test
+    void testRecordInteractionThroughput() throws Exception {
+        // Warmup phase
+        record(new TrustManager(), 2);
+
+        for (int threads : new int[] {1, 2, 4, 8}) {
+            TrustManager trustManager = new TrustManager();
+            long nanos = record(trustManager, threads);
+
+            long total = (long) threads * INTERACTIONS_PER_THREAD;
+            long recorded = 0;
+            for (int c = 0; c < CONTEXT_COUNT; c++) {
+                recorded += (Integer) trustManager.getTrustMetadata("context-" + c).get("interactionCount");
+            }
+            System.out.println("Recording " + total + " interactions on " + threads + " threads: "
+                    + total * 1_000_000_000L / nanos + " interactions/s");
+            assertEquals(total, recorded);
+        }
+    }
+
+    @Test
+    void testTrustCheckThroughput() throws Exception {
+        TrustManager trustManager = new TrustManager();
+        for (int c = 0; c < CONTEXT_COUNT; c++) {
+            trustManager.initializeTrust("context-" + c, (c % 10) / 10.0);
+        }
+
+        for (int threads : new int[] {1, 4}) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int sufficient = 0;
+                    for (int i = 0; i < INTERACTIONS_PER_THREAD; i++) {
+                        if (trustManager.isTrustSufficient("context-" + (i % CONTEXT_COUNT))) {
+                            sufficient++;
+                        }
+                    }
+                    return sufficient;
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<Integer> future : futures) {
+                // Scores 0.3 and above pass the default threshold
+                assertEquals(INTERACTIONS_PER_THREAD * 7 / 10, future.get(60, TimeUnit.SECONDS));
+            }
+            long nanos = System.nanoTime() - begin;
+            executor.shutdown();
+
+            long total = (long) threads * INTERACTIONS_PER_THREAD;
+            System.out.println("Checking trust " + total + " times on " + threads + " threads: "
+                    + total * 1_000_000_000L / nanos + " checks/s");
+        }
+    }
+
+    private static long record(TrustManager trustManager, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < INTERACTIONS_PER_THREAD; i++) {
+                    trustManager.recordInteraction("context-" + ((i + offset) % CONTEXT_COUNT), "interaction", 0.0);
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long nanos = System.nanoTime() - begin;
+        executor.shutdown();
+        return nanos;
+    }
+}
@@ -0,0 +1,58 @@
+package com.fractal.browser.performance;
+
+import com.fractal.browser.collective.boundaries.TrustPropagationEngine;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.Random;
+
+class TrustPropagationPerformanceTest {
+    private static final int CONTEXT_COUNT = 100_000;
+    private static final int AFFINITIES_PER_CONTEXT = 4;
+
+    @Test
+    void testConvergenceOverLargeContextGraph() {
+        TrustPropagationEngine engine = new TrustPropagationEngine(0.85, 1e-6, 1_000);
+        Random random = new Random(8);
+        for (int i = 0; i < CONTEXT_COUNT; i++) {
+            String contextId = "context-" + i;
+            engine.setSeed(contextId, random.nextDouble());
+            if (i > 0) {
+                // Parent/child link plus a few affinity links
+                engine.setEdge("context-" + random.nextInt(i), contextId, 1.0);
+            }
+            for (int a = 0; a < AFFINITIES_PER_CONTEXT; a++) {
+                engine.setEdge(contextId, "context-" + random.nextInt(CONTEXT_COUNT), random.nextDouble());
+            }
+        }
+
+        long start = System.nanoTime();
+        engine.propagate();
+        long fullMillis = (System.nanoTime() - start) / 1_000_000;
+        Map<String, Object> full = engine.getLastRunStatistics();
+
+        engine.setSeed("context-42", 0.0);
+        start = System.nanoTime();
+        engine.propagate();
+        long seedMillis = (System.nanoTime() - start) / 1_000_000;
+        Map<String, Object> seedRun = engine.getLastRunStatistics();
+
+        // An edge change patches only the rows of its two endpoints
+        engine.setEdge("context-7", "context-99", 2.0);
+        start = System.nanoTime();
+        engine.propagate();
+        long edgeMillis = (System.nanoTime() - start) / 1_000_000;
+        Map<String, Object> edgeRun = engine.getLastRunStatistics();
+
+        System.out.println("Propagating trust over " + CONTEXT_COUNT + " contexts and " + full.get("edges") + " edges: "
+                + fullMillis + " ms full (" + full.get("iterations") + " iterations), " + seedMillis
+                + " ms after a seed change (" + seedRun.get("contextUpdates") + " context updates), " + edgeMillis
+                + " ms after an edge change (" + edgeRun.get("contextUpdates") + " context updates)");
+        assertEquals(true, full.get("converged"));
+        assertEquals(true, seedRun.get("converged"));
+        assertEquals("incremental", seedRun.get("mode"));
+        assertEquals(true, edgeRun.get("converged"));
+        assertEquals("incremental", edgeRun.get("mode"));
+    }
+}
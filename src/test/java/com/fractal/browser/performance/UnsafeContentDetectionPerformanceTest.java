@@ -0,0 +1,87 @@
+package com.fractal.browser.performance;
+
+import com.fractal.browser.collective.boundaries.PrivacyFilter;
+import com.fractal.browser.collective.boundaries.SafetyContainer;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+class UnsafeContentDetectionPerformanceTest {
+    private static final int[] DOCUMENT_SIZES = {1024, 100 * 1024, 10 * 1024 * 1024};
+
+    @Test
+    void testSingleScanDetectionAgainstLowercaseCopies() {
+        SafetyContainer container = new SafetyContainer();
+        PrivacyFilter filter = new PrivacyFilter(3, Locale.ROOT);
+        for (int i = 0; i < 50; i++) {
+            container.addSafetyTerm("threat" + i + "q");
+            filter.addSensitiveTerm("codename" + i + "z");
+        }
+
+        for (int size : DOCUMENT_SIZES) {
+            // Clean content is the worst case: every check scans the whole document
+            String document = cleanDocument(size);
+            int iterations = Math.max(2, (2 * 1024 * 1024) / size);
+
+            // Warmup phase
+            for (int i = 0; i < Math.min(iterations, 50); i++) {
+                assertFalse(lowercaseCopies(document, container.getSafetyTerms()));
+                assertFalse(container.containsUnsafeElements(document));
+                assertFalse(filter.containsSensitiveInformation(document));
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                lowercaseCopies(document, container.getSafetyTerms());
+            }
+            long previousNanos = (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                container.containsUnsafeElements(document);
+            }
+            long detectorNanos = (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                filter.containsSensitiveInformation(document);
+            }
+            long privacyNanos = (System.nanoTime() - start) / iterations;
+
+            System.out.println("Detecting unsafe elements in " + size / 1024 + " KB: "
+                    + previousNanos / 1_000 + " us lowercase copies, " + detectorNanos / 1_000
+                    + " us single scan (" + privacyNanos / 1_000 + " us sensitive information check)");
+        }
+
+        // An early hit returns without scanning the rest of the document
+        String unsafe = "exec(rm) " + cleanDocument(10 * 1024 * 1024);
+        assertTrue(container.containsUnsafeElements(unsafe));
+    }
+
+    private static String cleanDocument(int size) {
+        String[] vocabulary = {"collective", "fractal", "Node", "insight", "BOUNDARY", "execute", "evaluation"};
+        Random random = new Random(size);
+        StringBuilder content = new StringBuilder(size + 16);
+        while (content.length() < size) {
+            content.append(vocabulary[random.nextInt(vocabulary.length)]).append(' ');
+        }
+        return content.substring(0, size);
+    }
+
+    /**
+     * The previous implementation: a lowercased copy of the content for every check.
+     */
+    private static boolean lowercaseCopies(String content, Set<String> terms) {
+        for (String term : terms) {
+            if (content.toLowerCase().contains(term)) {
+                return true;
+            }
+        }
+        return content.contains("<script")
+                || content.toLowerCase().contains("exec(")
+                || content.toLowerCase().contains("eval(");
+    }
+}
@@ -6,6 +6,12 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
 
 class ProcessingResultTest {
     @Test
@@ -70,4 +76,74 @@ class ProcessingResultTest {
         // The result's map should not be affected
         assertEquals("value", result.getResults().get("key"));
     }
-} 
\ No newline at end of file
+    
+    @Test
+    void testLazyViewOverIterationResult() {
+        IterationResult iterationResult = new IterationResult();
+        iterationResult.set(0.25, 7, 0.25, false);
+        iterationResult.setNodeId("node1");
+        
+        ProcessingResult result = new ProcessingResult(iterationResult);
+        
+        assertEquals(7, result.getIterations());
+        assertEquals(0.25, result.getConvergenceValue());
+        assertTrue(result.getIterationResult().isPresent());
+        
+        // Callers get a copy and cannot change the result through it
+        result.getIterationResult().get().set(1.0, 1, 1.0, true);
+        assertEquals(7, result.getIterationResult().get().getIterations());
+        
+        Map<String, Object> results = result.getResults();
+        assertEquals(0.25, results.get("finalValue"));
+        assertEquals(7, results.get("iterations"));
+        assertEquals(0.25, results.get("convergenceValue"));
+        assertEquals(false, results.get("converged"));
+        assertEquals("node1", results.get("nodeId"));
+        assertThrows(UnsupportedOperationException.class, () -> results.put("key", "value"));
+    }
+    
+    @Test
+    void testSetResultsReplacesIterationResultView() {
+        IterationResult iterationResult = new IterationResult();
+        iterationResult.set(0.5, 3, 0.5, false);
+        ProcessingResult result = new ProcessingResult(iterationResult);
+        
+        Map<String, Object> results = new HashMap<>();
+        results.put("key", "value");
+        result.setResults(results);
+        
+        assertEquals(results, result.getResults());
+        assertFalse(result.getIterationResult().isPresent());
+    }
+    
+    @Test
+    void testConcurrentReadersSeeCompleteLazyResults() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 200; round++) {
+                IterationResult iterationResult = new IterationResult();
+                iterationResult.set(0.25, round, 0.25, false);
+                iterationResult.setNodeId("node1");
+                ProcessingResult result = new ProcessingResult(iterationResult);
+                CountDownLatch start = new CountDownLatch(1);
+                
+                List<Future<Map<String, Object>>> reads = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    reads.add(executor.submit(() -> {
+                        start.await();
+                        return result.getResults();
+                    }));
+                }
+                start.countDown();
+                
+                for (Future<Map<String, Object>> read : reads) {
+                    Map<String, Object> results = read.get();
+                    assertEquals(5, results.size());
+                    assertEquals(round, results.get("iterations"));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}